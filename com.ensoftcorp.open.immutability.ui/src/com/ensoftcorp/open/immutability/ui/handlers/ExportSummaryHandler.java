@@ -54,7 +54,7 @@ public class ExportSummaryHandler extends AbstractHandler {
 				public void run() {
 					FileDialog dialog = new FileDialog(Display.getDefault().getActiveShell(), SWT.SAVE);
 					dialog.setFilterNames(new String[] { "Immutability Analysis Results", "All Files (*.*)" });
-					dialog.setFilterExtensions(new String[] { "*.xml", "*.*" });
+					dialog.setFilterExtensions(new String[] { "*.xml", "*.xml.gz", "*.imsum", "*.*" });
 					try {
 						String projectName = Query.universe().nodes(XCSG.Project).eval().nodes().one().getAttr(XCSG.name).toString();
 						dialog.setFileName(projectName + "-immutability.xml");
@@ -55,7 +55,7 @@ public class ImportSummaryHandler extends AbstractHandler {
 				public void run() {
 					FileDialog dialog = new FileDialog(Display.getDefault().getActiveShell(), SWT.OPEN);
 					dialog.setFilterNames(new String[] { "Immutability Analysis Results", "All Files (*.*)" });
-					dialog.setFilterExtensions(new String[] { "*.xml", "*.*" });
+					dialog.setFilterExtensions(new String[] { "*.xml", "*.xml.gz", "*.imsum", "*.*" });
 					String path = dialog.open();
 					if(path != null){
 						fileResult.file = new File(path);
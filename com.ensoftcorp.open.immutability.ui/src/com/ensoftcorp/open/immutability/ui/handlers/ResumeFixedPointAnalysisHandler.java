@@ -5,10 +5,15 @@ import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 import com.ensoftcorp.open.commons.ui.utilities.DisplayUtils;
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityAnalysis;
+import com.ensoftcorp.open.immutability.analysis.incremental.Checkpoint;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+import com.ensoftcorp.open.immutability.ui.log.Log;
 
 /**
  * A menu handler for resuming the analysis
@@ -22,21 +27,31 @@ public class ResumeFixedPointAnalysisHandler extends AbstractHandler {
 	 * Resumes the fixed point analysis
 	 */
 	public Object execute(ExecutionEvent event) throws ExecutionException {
-		ImportSummaryJob job = new ImportSummaryJob();
+		ResumeFixedPointAnalysisJob job = new ResumeFixedPointAnalysisJob();
 		job.schedule();
 		return null;
 	}
 	
-	private static class ImportSummaryJob extends Job {
-		public ImportSummaryJob() {
+	private static class ResumeFixedPointAnalysisJob extends Job {
+		public ResumeFixedPointAnalysisJob() {
 			super("Resuming Fixed Point Analysis...");
 		}
 
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
-			// TODO: implement
-			DisplayUtils.showMessage("Not Implemented");
-//			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Reached Fixed Point.");
+			if(!Checkpoint.exists()){
+				DisplayUtils.showMessage("There is no immutability analysis checkpoint to resume from.");
+				return Status.OK_STATUS;
+			}
+			try {
+				ImmutabilityAnalysis.resumeAnalysis(monitor);
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Reached Fixed Point.");
+			} catch (OperationCanceledException e){
+				return Status.CANCEL_STATUS;
+			} catch (Exception e){
+				Log.error("Could not resume the fixed point analysis.", e);
+				DisplayUtils.showError(e, "Could not resume the fixed point analysis.");
+			}
 			return Status.OK_STATUS;
 		}	
 	}
@@ -31,10 +31,18 @@ public class ImmutabilityPreferencesPage extends FieldEditorPreferencePage imple
 	
 	private static final String GENERATE_SUMMARIES_DESCRIPTION = "Generate summaries (partial program analysis)";
 	private static final String LOAD_SUMMARIES_DESCRIPTION = "Load summaries (partial program analysis)";
+	private static final String TRUSTED_SUMMARIES_DESCRIPTION = "Trust loaded summaries as fixed types and skip fully summarized methods";
+	private static final String LIBRARY_SUMMARIES_DESCRIPTION = "Load library summaries from the summary pack as libraries are encountered";
+	private static final String EXPORT_SUMMARY_PACK_DESCRIPTION = "Write generated summaries to the library summary pack";
 	private static final String ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES_DESCRIPTION = "Allows mutable types to be added to instance variables at runtime";
 	private static final String CONSIDER_CONTAINERS_DESCRIPTION = "Consider mutations to parent container object instances (beta feature)";
 	private static final String USE_FIELD_ADAPTATIONS_DESCRIPTION = "Use field adaptations";
 	private static final String INFERENCE_RULE_LOGGING_DESCRIPTION = "Enable Inference Rule Logging";
+	private static final String PARALLEL_CONSTRAINT_SOLVING_DESCRIPTION = "Solve inference constraints in parallel";
+	private static final String INCREMENTAL_ANALYSIS_DESCRIPTION = "Incrementally reanalyze changed methods";
+	private static final String CHECKPOINT_ANALYSIS_DESCRIPTION = "Periodically checkpoint the fixed point analysis";
+	private static final String TRACE_TYPE_CHANGES_DESCRIPTION = "Trace the most recent qualifier set changes";
+	private static final String DETAILED_METRICS_DESCRIPTION = "Record per rule and per solver metrics (slows the analysis)";
 	
 	private static boolean changeListenerAdded = false;
 	
@@ -91,10 +99,18 @@ public class ImmutabilityPreferencesPage extends FieldEditorPreferencePage imple
 		addField(new LabelFieldEditor("Inference Based Analysis Options", getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.GENERATE_SUMMARIES, "&" + GENERATE_SUMMARIES_DESCRIPTION, getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.LOAD_SUMMARIES, "&" + LOAD_SUMMARIES_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.TRUSTED_SUMMARIES, "&" + TRUSTED_SUMMARIES_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.LIBRARY_SUMMARIES, "&" + LIBRARY_SUMMARIES_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.EXPORT_SUMMARY_PACK, "&" + EXPORT_SUMMARY_PACK_DESCRIPTION, getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES, "&" + ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES_DESCRIPTION, getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.CONSIDER_CONTAINERS, "&" + CONSIDER_CONTAINERS_DESCRIPTION, getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.USE_FIELD_ADAPTATIONS, "&" + USE_FIELD_ADAPTATIONS_DESCRIPTION, getFieldEditorParent()));
 		addField(new BooleanFieldEditor(ImmutabilityPreferences.INFERENCE_RULE_LOGGING, "&" + INFERENCE_RULE_LOGGING_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.PARALLEL_CONSTRAINT_SOLVING, "&" + PARALLEL_CONSTRAINT_SOLVING_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.INCREMENTAL_ANALYSIS, "&" + INCREMENTAL_ANALYSIS_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.CHECKPOINT_ANALYSIS, "&" + CHECKPOINT_ANALYSIS_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.TRACE_TYPE_CHANGES, "&" + TRACE_TYPE_CHANGES_DESCRIPTION, getFieldEditorParent()));
+		addField(new BooleanFieldEditor(ImmutabilityPreferences.DETAILED_METRICS, "&" + DETAILED_METRICS_DESCRIPTION, getFieldEditorParent()));
 	}
 
 }
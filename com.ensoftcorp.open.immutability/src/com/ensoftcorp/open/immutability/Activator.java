@@ -3,6 +3,8 @@ package com.ensoftcorp.open.immutability;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetricsBean;
+
 /**
  * The activator class controls the plug-in life cycle
  */
@@ -27,6 +29,7 @@ public class Activator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		AnalysisMetricsBean.register();
 	}
 
 	/*
@@ -34,6 +37,7 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		AnalysisMetricsBean.unregister();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,173 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+
+/**
+ * An immutable snapshot of the preferences that configure the inference analysis.
+ *
+ * The snapshot is taken once when the analysis starts so that preference changes
+ * made while the analysis is running cannot affect it, and so the constraint
+ * extractor and solver can be specialized to the configuration up front instead
+ * of rereading the preferences for every constraint.
+ */
+public final class AnalysisConfiguration {
+
+	private final boolean containerConsideration;
+	private final boolean fieldAdaptations;
+	private final boolean allowDefaultMutableInstanceVariables;
+	private final boolean allowAddMutableInstanceVariables;
+	private final boolean parallelConstraintSolving;
+	private final boolean incrementalAnalysis;
+	private final boolean inferenceRuleLogging;
+	private final boolean debugLogging;
+	private final boolean librarySummaries;
+	private final boolean trustedSummaries;
+	private final boolean detailedMetrics;
+
+	public AnalysisConfiguration(boolean containerConsideration, boolean fieldAdaptations,
+			boolean allowDefaultMutableInstanceVariables, boolean allowAddMutableInstanceVariables,
+			boolean parallelConstraintSolving, boolean incrementalAnalysis, boolean inferenceRuleLogging, boolean debugLogging,
+			boolean librarySummaries, boolean trustedSummaries, boolean detailedMetrics){
+		this.containerConsideration = containerConsideration;
+		this.fieldAdaptations = fieldAdaptations;
+		this.allowDefaultMutableInstanceVariables = allowDefaultMutableInstanceVariables;
+		this.allowAddMutableInstanceVariables = allowAddMutableInstanceVariables;
+		this.parallelConstraintSolving = parallelConstraintSolving;
+		this.incrementalAnalysis = incrementalAnalysis;
+		this.inferenceRuleLogging = inferenceRuleLogging;
+		this.debugLogging = debugLogging;
+		this.librarySummaries = librarySummaries;
+		this.trustedSummaries = trustedSummaries;
+		this.detailedMetrics = detailedMetrics;
+	}
+
+	/**
+	 * Returns a snapshot of the current preferences
+	 * @return
+	 */
+	public static AnalysisConfiguration fromPreferences(){
+		return new AnalysisConfiguration(ImmutabilityPreferences.isContainerConsiderationEnabled(),
+				ImmutabilityPreferences.isFieldAdaptationsEnabled(),
+				ImmutabilityPreferences.isAllowDefaultMutableInstancesVariablesEnabled(),
+				ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled(),
+				ImmutabilityPreferences.isParallelConstraintSolvingEnabled(),
+				ImmutabilityPreferences.isIncrementalAnalysisEnabled(),
+				ImmutabilityPreferences.isInferenceRuleLoggingEnabled(),
+				ImmutabilityPreferences.isDebugLoggingEnabled(),
+				ImmutabilityPreferences.isLibrarySummariesEnabled(),
+				ImmutabilityPreferences.isTrustedSummariesEnabled(),
+				ImmutabilityPreferences.isDetailedMetricsEnabled());
+	}
+
+	/**
+	 * Returns true if mutations to parent container object instances are considered
+	 * @return
+	 */
+	public boolean isContainerConsiderationEnabled(){
+		return containerConsideration;
+	}
+
+	/**
+	 * Returns true if field adaptations (FSE 2012) are used instead
+	 * of method adaptations (OOPSLA 2012) for field reads and writes
+	 * @return
+	 */
+	public boolean isFieldAdaptationsEnabled(){
+		return fieldAdaptations;
+	}
+
+	/**
+	 * Returns true if instance variables may include mutable types by default
+	 * @return
+	 */
+	public boolean isAllowDefaultMutableInstancesVariablesEnabled(){
+		return allowDefaultMutableInstanceVariables;
+	}
+
+	/**
+	 * Returns true if mutable types may be added to instance variables
+	 * @return
+	 */
+	public boolean isAllowAddMutableInstanceVariablesEnabled(){
+		return allowAddMutableInstanceVariables;
+	}
+
+	/**
+	 * Returns true if the constraints should be solved in parallel
+	 * @return
+	 */
+	public boolean isParallelConstraintSolvingEnabled(){
+		return parallelConstraintSolving;
+	}
+
+	/**
+	 * Returns true if the incremental analysis is enabled
+	 * @return
+	 */
+	public boolean isIncrementalAnalysisEnabled(){
+		return incrementalAnalysis;
+	}
+
+	/**
+	 * Returns true if inference rule or debug logging is enabled, in which case
+	 * the logging variants of the inference rules are applied
+	 * @return
+	 */
+	public boolean isRuleLoggingEnabled(){
+		return inferenceRuleLogging || debugLogging;
+	}
+
+	/**
+	 * Returns true if each applied inference rule is logged
+	 * @return
+	 */
+	public boolean isInferenceRuleLoggingEnabled(){
+		return inferenceRuleLogging;
+	}
+
+	/**
+	 * Returns true if debug logging is enabled
+	 * @return
+	 */
+	public boolean isDebugLoggingEnabled(){
+		return debugLogging;
+	}
+
+	/**
+	 * Returns true if library summaries are loaded from the summary pack
+	 * @return
+	 */
+	public boolean isLibrarySummariesEnabled(){
+		return librarySummaries;
+	}
+
+	/**
+	 * Returns true if imported summaries are trusted as fixed boundary types
+	 * @return
+	 */
+	public boolean isTrustedSummariesEnabled(){
+		return trustedSummaries;
+	}
+
+	/**
+	 * Returns true if per rule and per solver metrics are recorded
+	 * @return
+	 */
+	public boolean isDetailedMetricsEnabled(){
+		return detailedMetrics;
+	}
+
+	/**
+	 * Describes the analysis options that change the extracted constraints or their solutions
+	 */
+	@Override
+	public String toString(){
+		return "containers=" + containerConsideration
+				+ ",fieldAdaptations=" + fieldAdaptations
+				+ ",defaultMutableInstanceVariables=" + allowDefaultMutableInstanceVariables
+				+ ",addMutableInstanceVariables=" + allowAddMutableInstanceVariables
+				+ ",librarySummaries=" + librarySummaries
+				+ ",trustedSummaries=" + trustedSummaries;
+	}
+
+}
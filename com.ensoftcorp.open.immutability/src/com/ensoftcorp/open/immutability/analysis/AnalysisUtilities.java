@@ -2,6 +2,12 @@ package com.ensoftcorp.open.immutability.analysis;
 
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 
 import com.ensoftcorp.atlas.core.db.graph.Edge;
 import com.ensoftcorp.atlas.core.db.graph.Graph;
@@ -12,6 +18,9 @@ import com.ensoftcorp.atlas.core.query.Q;
 import com.ensoftcorp.atlas.core.query.Query;
 import com.ensoftcorp.atlas.core.script.Common;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics;
+import com.ensoftcorp.open.immutability.analysis.metrics.TypeTrace;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Operation;
 import com.ensoftcorp.open.immutability.log.Log;
 import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
 import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
@@ -62,130 +71,240 @@ public class AnalysisUtilities {
 //	}
 	
 	/**
-	 * Used as an attribute key to temporarily compute the potential immutability qualifiers
+	 * Used to temporarily store the potential immutability qualifiers of each reference
+	 */
+	private static QualifierStore qualifierStore = new QualifierStore();
+	
+	/**
+	 * Returns the store of potential immutability qualifiers
+	 * @return
+	 */
+	public static QualifierStore getQualifierStore(){
+		return qualifierStore;
+	}
+	
+	/**
+	 * Discards all stored immutability qualifiers
+	 */
+	public static void resetQualifierStore(){
+		qualifierStore = new QualifierStore();
+	}
+	
+	/**
+	 * Receives notifications when a reference's qualifier set is changed
+	 */
+	public static interface QualifierListener {
+		/**
+		 * Called each time the qualifier set of a reference changes
+		 * @param reference
+		 */
+		public void typesChanged(Node reference);
+	}
+	
+	/**
+	 * The listener to notify of qualifier changes (may be null)
+	 */
+	private static volatile QualifierListener qualifierListener = null;
+	
+	/**
+	 * Sets the listener to notify of qualifier changes, 
+	 * pass null to remove the current listener
+	 * @param listener
+	 */
+	public static void setQualifierListener(QualifierListener listener){
+		qualifierListener = listener;
+	}
+	
+	/**
+	 * The configuration of the current analysis run (may be null)
+	 */
+	private static AnalysisConfiguration configuration = null;
+	
+	/**
+	 * Returns the configuration of the current analysis run, or a snapshot
+	 * of the current preferences if no analysis is running
+	 * @return
+	 */
+	public static AnalysisConfiguration getConfiguration(){
+		AnalysisConfiguration current = configuration;
+		return current != null ? current : AnalysisConfiguration.fromPreferences();
+	}
+	
+	/**
+	 * Sets the configuration of the current analysis run, the qualifier
+	 * updates and inference rules read their options from this snapshot
+	 * instead of the live preferences, pass null when the run completes
+	 * @param runConfiguration
 	 */
-	public static final String IMMUTABILITY_QUALIFIERS = "IMMUTABILITY_QUALIFIERS";
+	public static void setConfiguration(AnalysisConfiguration runConfiguration){
+		configuration = runConfiguration;
+	}
+	
+	/**
+	 * The library summaries of the current analysis run (may be null)
+	 */
+	private static LibrarySummaries librarySummaries = null;
+	
+	/**
+	 * Returns the library summaries of the current analysis run or null
+	 * if library summaries are not loaded
+	 * @return
+	 */
+	public static LibrarySummaries getLibrarySummaries(){
+		return librarySummaries;
+	}
+	
+	/**
+	 * Sets the library summaries used to initialize the qualifier sets of library
+	 * references, pass null to initialize library references to their default types
+	 * @param summaries
+	 */
+	public static void setLibrarySummaries(LibrarySummaries summaries){
+		librarySummaries = summaries;
+	}
+	
+	/**
+	 * The summaries imported for the next analysis run (may be null)
+	 */
+	private static ImportedSummaries importedSummaries = null;
+	
+	/**
+	 * Returns the imported summaries or null if no summaries were imported
+	 * @return
+	 */
+	public static ImportedSummaries getImportedSummaries(){
+		return importedSummaries;
+	}
+	
+	/**
+	 * Sets the imported summaries used to initialize the qualifier sets
+	 * of summarized references, pass null to discard the imported summaries
+	 * @param summaries
+	 */
+	public static void setImportedSummaries(ImportedSummaries summaries){
+		importedSummaries = summaries;
+	}
+	
+	/**
+	 * Returns the qualifier set bit mask a reference is initialized to, the default
+	 * types restricted by the reference's imported or library summary (if one is loaded)
+	 * @param reference
+	 * @return
+	 */
+	public static byte getInitialTypesMask(Node reference){
+		byte mask = ImmutabilityTypes.toMask(getDefaultTypes(reference));
+		ImportedSummaries imported = importedSummaries;
+		if(imported != null && imported.contains(reference)){
+			return imported.getInitialMask(reference, mask);
+		}
+		LibrarySummaries summaries = librarySummaries;
+		if(summaries != null){
+			mask = summaries.getInitialMask(reference, mask);
+		}
+		return mask;
+	}
+	
+	/**
+	 * Returns true if the qualifier set of the given reference is a
+	 * fixed boundary type given by a trusted imported summary
+	 * @param reference
+	 * @return
+	 */
+	public static boolean isFixedType(Node reference){
+		ImportedSummaries imported = importedSummaries;
+		return imported != null && imported.isFixed(reference);
+	}
 	
 	public static final String DUMMY_ASSIGNMENT_NODE = "DUMMY_ASSIGNMENT_NODE";
 	public static final String DUMMY_RETURN_NODE = "DUMMY_RETURN_NODE";
 	public static final String DUMMY_RETURN_EDGE = "DUMMY_RETURN_EDGE";
 	
+	/**
+	 * The dummy references of the current analysis run
+	 */
+	private static DummyReferences dummyReferences = new DummyReferences();
+	
+	/**
+	 * Returns the dummy references of the current analysis run
+	 * @return
+	 */
+	public static DummyReferences getDummyReferences(){
+		return dummyReferences;
+	}
+	
 	/**
 	 * Adds DUMMY_RETURN_NODE to void methods and DUMMY_ASSIGNMENT_NODE from unassigned callsites to a dummy assignment node
 	 */
 	public static void addDummyReturnAssignments(){
+		addDummyReturnAssignments(new NullProgressMonitor());
+	}
+	
+	/**
+	 * Adds dummy return assignments, reporting a unit of work for each void method
+	 * @param monitor
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static void addDummyReturnAssignments(IProgressMonitor monitor){
 		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Adding dummy return assignments...");
+		// callsites resolve to the return values that are about to be added
+		clearParsedReferencesCache();
+		// placeholders left behind by a run that did not clean up would be typed twice
+		removeStaleDummyReturnAssignments();
 		Q returnsEdges = Query.universe().edges(XCSG.Returns).retainEdges();
 		Q voidMethods = returnsEdges.predecessors(Common.types("void"));
-		for(Node voidMethod : voidMethods.eval().nodes()){
-			createDummyReturnNode(voidMethod);
+		AtlasSet<Node> voidMethodNodes = voidMethods.eval().nodes();
+		SubMonitor progress = SubMonitor.convert(monitor, (int) voidMethodNodes.size());
+		for(Node voidMethod : voidMethodNodes){
+			progress.split(1);
+			dummyReferences.addReturnValue(voidMethod);
 		}
 		
 		// the remaining methods without returns are likely ill formed methods
 		// we can correct for it and move on, but these should be fixed up stream
 		// in Atlas if they occur or there is an assumption here that is being violated
+		// (every method has a return value once these are added, so there is nothing left to check)
 		Q allMethods = Query.universe().nodes(XCSG.Method);
 		Q returnValues = Query.universe().nodes(XCSG.ReturnValue);
 		AtlasSet<Node> malformedMethods = allMethods.difference(returnValues.parent()).eval().nodes();
 		if(!malformedMethods.isEmpty()){
 			for(Node malformedMethod : malformedMethods){
 				Log.warning("Added a dummy return node for malformed method " + malformedMethod.address().toAddressString());
-				createDummyReturnNode(malformedMethod);
+				dummyReferences.addReturnValue(malformedMethod);
 			}
 		}
 
-		Log.info("Added " + Query.universe().nodes(DUMMY_RETURN_NODE).eval().nodes().size() + " dummy return nodes.");
-		
-		// sanity check (all (expected) methods have a return value)
-		returnValues = Query.universe().nodes(XCSG.ReturnValue); // refresh stale references
-		AtlasSet<Node> unexpectedMethodsMissingReturns = allMethods.difference(returnValues.parent()).eval().nodes();
-		if(!unexpectedMethodsMissingReturns.isEmpty()){
-			throw new RuntimeException("There are " + unexpectedMethodsMissingReturns.size() + " unexpected methods missing return value nodes!");
-		}
+		Log.info("Added " + dummyReferences.getReturnValueCount() + " dummy return nodes.");
 		
 		// if the callsite does not have an incoming interprocedural data flow edge
 		// then it must be a void method in which case we need to link it up with the corresponding
 		// dummy (or regular) return node. Since the dummy nodes are just place holders for readonly types,
 		// its not terribly important to completely resolve dynamic dispatches and we can just link
-		// to the dummy return node of the signature method
-		returnValues = Query.universe().nodes(XCSG.ReturnValue); // refresh stale references
+		// to the dummy return node of the signature method (the links are kept by the dummy references)
 		Q interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow);
 		Q callsitesWithReturn = interproceduralDataFlowEdges.successors(returnValues).nodes(XCSG.CallSite);
 		Q callsites = Query.universe().nodes(XCSG.CallSite);
 		Q callsitesWithoutReturn = callsites.difference(callsitesWithReturn);
 		for(Node callsiteWithoutReturn : callsitesWithoutReturn.eval().nodes()){
 			Node method = getInvokedMethodSignature(callsiteWithoutReturn);
-			Node returnValue = Common.toQ(method).children().nodes(XCSG.ReturnValue).eval().nodes().one();
-			createDummyReturnValueEdge(returnValue, callsiteWithoutReturn);
+			// sanity check (all callsites have a return value)
+			if(method == null || dummyReferences.addCallsiteReturnValue(callsiteWithoutReturn, method) == null){
+				throw new RuntimeException("Missing return to callsite " + callsiteWithoutReturn.address().toAddressString() + "!");
+			}
 		}
 		
-		Log.info("Added " + Query.universe().edges(DUMMY_RETURN_EDGE).eval().edges().size() + " dummy return value edges.");
-		
-		// sanity check (all callsites have an incoming data flow edge from a return value)
-		callsites = Query.universe().nodes(XCSG.CallSite); // refresh stale references
-		returnValues = Query.universe().nodes(XCSG.ReturnValue); // refresh stale references
-		interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow); // refresh stale references
-		Q callsitesWithReturns = interproceduralDataFlowEdges.successors(returnValues).nodes(XCSG.CallSite);
-		AtlasSet<Node> callsiteNodesWithoutReturn = callsites.difference(callsitesWithReturns).eval().nodes();
-		if(!callsiteNodesWithoutReturn.isEmpty()){
-			throw new RuntimeException("There are " + callsiteNodesWithoutReturn.size() + " missing returns to callsites!");
-		}
+		Log.info("Added " + dummyReferences.getCallsiteReturnValueCount() + " dummy return value links.");
 		
 		// create dummy assignment nodes for callsites without assignments
+		// (every callsite is assigned once these are added, so there is nothing left to check)
 		Q localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow);
 		Q assignments = Query.universe().nodes(XCSG.Assignment);
 		Q assignedCallsites = localDataFlowEdges.predecessors(assignments).nodes(XCSG.CallSite);
 		Q unassignedCallsites = callsites.difference(assignedCallsites);
 		for(Node unassignedCallsite : unassignedCallsites.eval().nodes()){
-			createDummyAssignmentNode(unassignedCallsite);
-		}
-		
-		Log.info("Added " + Query.universe().nodes(DUMMY_ASSIGNMENT_NODE).eval().nodes().size() + " dummy assignment nodes.");
-		
-		// sanity check (all callsites are assigned to an assignment node)
-		localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow); // refresh stale references
-		assignments = Query.universe().nodes(XCSG.Assignment); // refresh stale references
-		AtlasSet<Node> unexpectedCallsitesMissingAssignments =  callsites.difference(localDataFlowEdges.predecessors(assignments)).eval().nodes();
-		if(!unexpectedCallsitesMissingAssignments.isEmpty()){
-			throw new RuntimeException("There are " + unexpectedCallsitesMissingAssignments.size() + " unexpected callsites missing assignments!");
+			dummyReferences.addAssignment(unassignedCallsite);
 		}
-	}
-
-	private static Edge createDummyReturnValueEdge(Node returnValue, Node callsite){
-		Edge interproceduralDataFlowEdge = Graph.U.createEdge(returnValue, callsite);
-		interproceduralDataFlowEdge.tag(XCSG.InterproceduralDataFlow);
-		interproceduralDataFlowEdge.tag(DUMMY_RETURN_EDGE);
-		return interproceduralDataFlowEdge;
-	}
-	
-	private static Node createDummyAssignmentNode(Node unassignedCallsite) {
-		// create the dummy assignment node
-		Node dummyAssignmentNode = Graph.U.createNode();
-		dummyAssignmentNode.putAttr(XCSG.name, DUMMY_ASSIGNMENT_NODE);
-		dummyAssignmentNode.tag(XCSG.Assignment);
-		dummyAssignmentNode.tag(DUMMY_ASSIGNMENT_NODE);
-		
-		// create edge from unassigned callsite to the dummy assignment node
-		Edge localDataFlowEdge = Graph.U.createEdge(unassignedCallsite, dummyAssignmentNode);
-		localDataFlowEdge.tag(XCSG.LocalDataFlow);
 		
-		// create a contains edge from the callsites parent to the dummy assignment node
-		Node parent = Common.toQ(unassignedCallsite).parent().eval().nodes().one();
-		Edge containsEdge = Graph.U.createEdge(parent, dummyAssignmentNode);
-		containsEdge.tag(XCSG.Contains);
-		
-		return dummyAssignmentNode;
-	}
-
-	private static Node createDummyReturnNode(Node method) {
-		Node returnValue = Graph.U.createNode();
-		returnValue.putAttr(XCSG.name, DUMMY_RETURN_NODE);
-		returnValue.tag(XCSG.ReturnValue);
-		returnValue.tag(DUMMY_RETURN_NODE);
-		// create a contains edge from the void method to the return value
-		Edge containsEdge = Graph.U.createEdge(method, returnValue);
-		containsEdge.tag(XCSG.Contains);
-		return returnValue;
+		Log.info("Added " + dummyReferences.getAssignmentCount() + " dummy assignment nodes.");
 	}
 	
 	/**
@@ -193,30 +312,35 @@ public class AnalysisUtilities {
 	 */
 	public static void removeDummyReturnAssignments(){
 		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Removing dummy return assignments...");
+		// cached resolutions may refer to the dummy nodes that are about to be removed
+		clearParsedReferencesCache();
 		// edges connected to the dummy nodes will be removed once the nodes are removed
-		Q dummyNodes = Query.universe().nodes(DUMMY_RETURN_NODE, DUMMY_ASSIGNMENT_NODE);
+		dummyReferences.clear();
+	}
+	
+	/**
+	 * Removes dummy nodes and edges that are in the codemap but not in the dummy references
+	 * of the current run, such as the placeholders of a run that was terminated abruptly
+	 */
+	private static void removeStaleDummyReturnAssignments(){
+		dummyReferences.clear();
 		AtlasHashSet<Node> dummyNodesToRemove = new AtlasHashSet<Node>();
-		for(Node dummyNode : dummyNodes.eval().nodes()){
+		for(Node dummyNode : Query.universe().nodes(DUMMY_RETURN_NODE, DUMMY_ASSIGNMENT_NODE).eval().nodes()){
 			dummyNodesToRemove.add(dummyNode);
 		}
-		while(!dummyNodesToRemove.isEmpty()){
-			Node dummyNode = dummyNodesToRemove.one();
-			dummyNodesToRemove.remove(dummyNode);
-			Graph.U.delete(dummyNode);
-		}
-		
-		// these edges were likely added to compensate in irregularities in the graph
-		// lets remove them now if we added any
-		Q dummyEdges = Query.universe().edges(DUMMY_RETURN_EDGE);
 		AtlasHashSet<Edge> dummyEdgesToRemove = new AtlasHashSet<Edge>();
-		for(Edge dummyEdge : dummyEdges.eval().edges()){
+		for(Edge dummyEdge : Query.universe().edges(DUMMY_RETURN_EDGE).eval().edges()){
 			dummyEdgesToRemove.add(dummyEdge);
 		}
-		while(!dummyEdgesToRemove.isEmpty()){
-			Edge dummyEdge = dummyEdgesToRemove.one();
-			dummyEdgesToRemove.remove(dummyEdge);
+		if(!dummyNodesToRemove.isEmpty() || !dummyEdgesToRemove.isEmpty()){
+			Log.warning("Removing " + dummyNodesToRemove.size() + " stale dummy nodes and " + dummyEdgesToRemove.size() + " stale dummy edges.");
+		}
+		for(Edge dummyEdge : dummyEdgesToRemove){
 			Graph.U.delete(dummyEdge);
 		}
+		for(Node dummyNode : dummyNodesToRemove){
+			Graph.U.delete(dummyNode);
+		}
 	}
 
 	/**
@@ -239,13 +363,33 @@ public class AnalysisUtilities {
 	 * @return Returns true if the type qualifier changed
 	 */
 	public static boolean removeTypes(Node node, Set<ImmutabilityTypes> typesToRemove){
-		if(node != null){
-			Set<ImmutabilityTypes> typeSet = getTypes(node);
-			String logMessage = "Remove: " + typesToRemove.toString() + " from " + typeSet.toString() + " for " + node.getAttr(XCSG.name);
-			boolean typesChanged = typeSet.removeAll(typesToRemove);
+		return removeTypes(node, ImmutabilityTypes.toMask(typesToRemove));
+	}
+	
+	/**
+	 * Removes the types in the given qualifier set bit mask from a graph element
+	 * @param node
+	 * @param typesToRemove
+	 * @return Returns true if the type qualifier changed
+	 */
+	public static boolean removeTypes(Node node, byte typesToRemove){
+		if(node != null && typesToRemove != 0){
+			int id = qualifierStore.getId(node);
+			// atomically updated so the qualifier set may be shared by parallel solver workers
+			int update = qualifierStore.removeMask(id, typesToRemove);
+			byte mask = QualifierStore.getBefore(update);
+			// the store reports the mask it actually holds, fixed boundary types never change
+			byte result = QualifierStore.getAfter(update);
+			boolean typesChanged = result != mask;
 			if(typesChanged){
-				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info(logMessage);
-				if(ImmutabilityPreferences.isDebugLoggingEnabled() && getTypes(node).isEmpty()) {
+				if(AnalysisMetrics.isDetailed()) AnalysisMetrics.recordRemovals(Integer.bitCount(mask & typesToRemove));
+				TypeTrace.recordRemove(node, id, mask, result);
+				if(qualifierListener != null) qualifierListener.typesChanged(node);
+				boolean debugLogging = getConfiguration().isDebugLoggingEnabled();
+				if(debugLogging) {
+					Log.info("Remove: " + ImmutabilityTypes.fromMask(typesToRemove).toString() + " from " + ImmutabilityTypes.fromMask(mask).toString() + " for " + node.getAttr(XCSG.name));
+				}
+				if(debugLogging && result == 0) {
 					Log.warning("Remove on '" + node.getAttr(XCSG.name).toString() + "' resulted in an empty type set.\n" + node.toString(), 
 						new RuntimeException(node.getAttr(XCSG.name).toString() + " is untyped."));
 				}
@@ -264,11 +408,7 @@ public class AnalysisUtilities {
 	 */
 	public static boolean removeTypes(Node node, ImmutabilityTypes... types){
 		if(node != null){
-			EnumSet<ImmutabilityTypes> typesToRemove = EnumSet.noneOf(ImmutabilityTypes.class);
-			for(ImmutabilityTypes type : types){
-				typesToRemove.add(type);
-			}
-			return removeTypes(node, typesToRemove);
+			return removeTypes(node, ImmutabilityTypes.toMask(types));
 		} else {
 			return false;
 		}
@@ -343,11 +483,18 @@ public class AnalysisUtilities {
 	 */
 	public static boolean addTypes(Node node, Set<ImmutabilityTypes> typesToAdd){
 		if(node != null){
-		Set<ImmutabilityTypes> typeSet = getTypes(node);
-			String logMessage = "Add: " + typesToAdd.toString() + " to " + typeSet.toString() + " for " + node.getAttr(XCSG.name);
-			boolean typesChanged = typeSet.addAll(typesToAdd);
+			int id = qualifierStore.getId(node);
+			byte typesToAddMask = ImmutabilityTypes.toMask(typesToAdd);
+			int update = qualifierStore.addMask(id, typesToAddMask);
+			byte mask = QualifierStore.getBefore(update);
+			byte result = QualifierStore.getAfter(update);
+			boolean typesChanged = result != mask;
 			if(typesChanged){
-				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info(logMessage);
+				TypeTrace.recordAdd(node, id, mask, result);
+				if(qualifierListener != null) qualifierListener.typesChanged(node);
+				if(getConfiguration().isDebugLoggingEnabled()) {
+					Log.info("Add: " + typesToAdd.toString() + " to " + ImmutabilityTypes.fromMask(mask).toString() + " for " + node.getAttr(XCSG.name));
+				}
 			}
 			return typesChanged;
 		} else {
@@ -355,15 +502,25 @@ public class AnalysisUtilities {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
+	/**
+	 * Returns a copy of the potential immutability qualifiers of a graph element,
+	 * the qualifiers of an element that has not been seen before are initialized 
+	 * to the default types
+	 * @param ge
+	 * @return
+	 */
 	public static Set<ImmutabilityTypes> getTypes(Node ge){
-		if(ge.hasAttr(IMMUTABILITY_QUALIFIERS)){
-			return (Set<ImmutabilityTypes>) ge.getAttr(IMMUTABILITY_QUALIFIERS);
-		} else {
-			EnumSet<ImmutabilityTypes> qualifiers = getDefaultTypes(ge);
-			ge.putAttr(IMMUTABILITY_QUALIFIERS, qualifiers);
-			return qualifiers;
-		}
+		return ImmutabilityTypes.fromMask(qualifierStore.getMask(ge));
+	}
+	
+	/**
+	 * Returns the potential immutability qualifiers of a graph element as a 
+	 * qualifier set bit mask (see ImmutabilityTypes.getMask())
+	 * @param ge
+	 * @return
+	 */
+	public static byte getTypesMask(Node ge){
+		return qualifierStore.getMask(ge);
 	}
 	
 	public static Node getObjectType(Node ge) {
@@ -371,7 +528,61 @@ public class AnalysisUtilities {
 		return typeOfEdges.successors(Common.toQ(ge)).eval().nodes().one();
 	}
 	
+	/**
+	 * Caches the references each parsed node resolves to, the resolution only depends on 
+	 * the program graph so the cache is only invalidated when dummy nodes are added or removed
+	 */
+	private static ConcurrentHashMap<Node,Node[]> parsedReferencesCache = new ConcurrentHashMap<Node,Node[]>();
+	
+	/**
+	 * Discards the cached reference resolutions and node kinds
+	 */
+	public static void clearParsedReferencesCache(){
+		parsedReferencesCache = new ConcurrentHashMap<Node,Node[]>();
+		NodeKinds.clearCache();
+	}
+	
+	/**
+	 * Returns the typable references the given node resolves to (for example the 
+	 * field of a field access or the return value of a callsite), resolutions are
+	 * cached until dummy nodes are added or removed from the graph
+	 * @param node
+	 * @return
+	 */
 	public static AtlasSet<Node> parseReferences(Node node){
+		if(!AnalysisMetrics.isDetailed()){
+			return getCachedReferences(node);
+		}
+		long start = AnalysisMetrics.start();
+		try {
+			return getCachedReferences(node);
+		} finally {
+			AnalysisMetrics.record(Operation.PARSE_REFERENCES, start);
+		}
+	}
+	
+	private static AtlasSet<Node> getCachedReferences(Node node){
+		ConcurrentHashMap<Node,Node[]> cache = parsedReferencesCache;
+		Node[] references = cache.get(node);
+		if(references == null){
+			AtlasSet<Node> parsedReferences = resolveReferences(node);
+			references = new Node[(int) parsedReferences.size()];
+			int index = 0;
+			for(Node reference : parsedReferences){
+				references[index++] = reference;
+			}
+			cache.put(node, references);
+			return parsedReferences;
+		}
+		// callers receive their own copy of the cached references
+		AtlasSet<Node> parsedReferences = new AtlasHashSet<Node>();
+		for(Node reference : references){
+			parsedReferences.add(reference);
+		}
+		return parsedReferences;
+	}
+	
+	private static AtlasSet<Node> resolveReferences(Node node){
 //		if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Parsing reference for " + node.address().toAddressString());
 		
 		AtlasSet<Node> parsedReferences = new AtlasHashSet<Node>();
@@ -384,58 +595,43 @@ public class AnalysisUtilities {
 		while(!worklist.isEmpty()){
 			Node reference = worklist.one();
 			worklist.remove(reference);
-			if(reference != null && needsProcessing(reference)){
-				if(reference.taggedWith(XCSG.Cast)){
-					for(Node workItem : dataFlowEdges.predecessors(Common.toQ(reference)).eval().nodes()){
-						worklist.add(workItem);
-					}
-					continue;
-				}
-				
-				if(reference.taggedWith(JimpleStopGap.DATAFLOW_DISPLAY_NODE)){
-					for(Node workItem : JimpleStopGap.getDisplayNodeReferences(reference)){
-						worklist.add(workItem);
-					}
-					continue;
-				}
-				
-				if(reference.taggedWith(XCSG.CallSite)){
-					// parse return, a callsite on a callsite must be a callsite on the resulting object from the first callsite
-					Node method = AnalysisUtilities.getInvokedMethodSignature(reference);
-					worklist.add(Common.toQ(method).children().nodes(XCSG.ReturnValue).eval().nodes().one());
-					continue;
-				}
-				
-				// get the field for instance and class variable assignments
-				if(reference.taggedWith(XCSG.InstanceVariableAssignment) || reference.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
-					for(Node workItem : interproceduralDataFlowEdges.successors(Common.toQ(reference)).eval().nodes()){
-						worklist.add(workItem);
+			if(reference != null && NodeKinds.needsProcessing(NodeKinds.getKind(reference))){
+				switch(NodeKinds.getKind(reference)){
+					case NodeKinds.CAST:
+						for(Node workItem : dataFlowEdges.predecessors(Common.toQ(reference)).eval().nodes()){
+							worklist.add(workItem);
+						}
+						continue;
+					case NodeKinds.DATAFLOW_DISPLAY_NODE:
+						for(Node workItem : JimpleStopGap.getDisplayNodeReferences(reference)){
+							worklist.add(workItem);
+						}
+						continue;
+					case NodeKinds.CALLSITE: {
+						// parse return, a callsite on a callsite must be a callsite on the resulting object from the first callsite
+						Node method = AnalysisUtilities.getInvokedMethodSignature(reference);
+						worklist.add(Common.toQ(method).children().nodes(XCSG.ReturnValue).eval().nodes().one());
+						continue;
 					}
-					continue;
-				}
-				
-				// get the field for instance and class variable values
-				if(reference.taggedWith(XCSG.InstanceVariableValue) || reference.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
-					for(Node workItem : interproceduralDataFlowEdges.predecessors(Common.toQ(reference)).eval().nodes()){
-						worklist.add(workItem);
-					}
-					continue;
-				}
-				
-				// get the array components being written to
-				if(reference.taggedWith(XCSG.ArrayWrite)){
-					for(Node workItem : interproceduralDataFlowEdges.successors(Common.toQ(reference)).eval().nodes()){
-						worklist.add(workItem);
-					}
-					continue;
-				}
-				
-				// get the array components being read from
-				if(reference.taggedWith(XCSG.ArrayRead)){
-					for(Node workItem : interproceduralDataFlowEdges.predecessors(Common.toQ(reference)).eval().nodes()){
-						worklist.add(workItem);
-					}
-					continue;
+					case NodeKinds.VARIABLE_ASSIGNMENT:
+					case NodeKinds.ARRAY_WRITE:
+						// get the field for instance and class variable assignments
+						// or the array components being written to
+						for(Node workItem : interproceduralDataFlowEdges.successors(Common.toQ(reference)).eval().nodes()){
+							worklist.add(workItem);
+						}
+						continue;
+					case NodeKinds.INSTANCE_VARIABLE_VALUE:
+					case NodeKinds.CLASS_VARIABLE_VALUE:
+					case NodeKinds.ARRAY_READ:
+						// get the field for instance and class variable values
+						// or the array components being read from
+						for(Node workItem : interproceduralDataFlowEdges.predecessors(Common.toQ(reference)).eval().nodes()){
+							worklist.add(workItem);
+						}
+						continue;
+					default:
+						break;
 				}
 				
 				if(reference.getAttr(XCSG.name).toString().contains("$")){
@@ -462,225 +658,121 @@ public class AnalysisUtilities {
 		return parsedReferences;
 	}
 	
-	private static boolean needsProcessing(Node ge){
-		if(ge.taggedWith(JimpleStopGap.DATAFLOW_DISPLAY_NODE)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Cast)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.CallSite)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.InstanceVariableAccess) || ge.taggedWith(JavaStopGap.CLASS_VARIABLE_ACCESS)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.ArrayAccess)){
-			return true;
-		}
-		
-		return !isTypable(ge);
-	}
-	
 	public static boolean isTypable(Node ge){
-		// invalid types
-		if(ge.taggedWith(XCSG.InstanceVariableAccess) || ge.taggedWith(JavaStopGap.CLASS_VARIABLE_ACCESS)){
-			return false;
-		}
-		
-		if(ge.taggedWith(XCSG.ArrayAccess)){
-			return false;
-		}
-		
-		// valid types
-		if(ge.taggedWith(DUMMY_ASSIGNMENT_NODE) || ge.taggedWith(DUMMY_RETURN_NODE)){
-			// these are dummy read only nodes
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Null)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Literal) || ge.taggedWith(XCSG.Type)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Instantiation) || ge.taggedWith(XCSG.ArrayInstantiation)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Method)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Identity)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Parameter)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.ReturnValue)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.InstanceVariable) || ge.taggedWith(XCSG.ClassVariable)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.ArrayComponents)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.ParameterPass)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Operator)){
-			return true;
-		} 
-		
-		if(ge.taggedWith(XCSG.CaughtValue)){
-			return true;
-		} 
-		
-		if(ge.taggedWith(XCSG.ElementFromCollection)){
-			return true;
-		}
-		
-		if(ge.taggedWith(XCSG.Assignment)){
-			if(!ge.taggedWith(XCSG.InstanceVariableAssignment) && !ge.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
-				return true;
-			}
-		}
-		
-//		if(isDefaultReadonlyType(getObjectType(ge))){
-//			return true;
-//		}
-		
-		// something made it through the gap...
-		return false;
+		return NodeKinds.getReferenceKind(ge) != NodeKinds.NOT_TYPABLE;
 	}
 	
 	public static EnumSet<ImmutabilityTypes> getDefaultTypes(Node ge) {
-		if(!isTypable(ge)){
-			RuntimeException e = new RuntimeException("Unexpected graph element: " + ge.address());
-			Log.error("Unexpected graph element: " + ge.address(), e);
-			throw e;
-		}
-		
 		EnumSet<ImmutabilityTypes> qualifiers = EnumSet.noneOf(ImmutabilityTypes.class);
 		
-		if(ge.taggedWith(DUMMY_ASSIGNMENT_NODE) || ge.taggedWith(DUMMY_RETURN_NODE)){
-			// these are dummy read only nodes that help to provide context sensitivity
-			// in unassigned callsites or void methods
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Null)){
-			// null does not modify the stack or heap so it is readonly
-			// however in order to satisfy constraints the other types should be initialized
-			// note that assignments of nulls to a field can still mutate an object
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Literal) || ge.taggedWith(XCSG.Type)){
-			// several java objects are readonly for all practical purposes
-			// however in order to satisfy constraints the other types should be initialized
-			// Note that at least in Jimple its possible for a Type -> Literal -> Formal Parameter
-			// not the normal Type -> Literal -> Actual Parameter -> Formal Parameter
-			// so in this case the Type graph element should be treated as the type literal
-			// and hence readonly...TODO: bug EnSoft to see if this graph pattern is expected!
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Instantiation) || ge.taggedWith(XCSG.ArrayInstantiation)){
-			// Type Rule 1 - TNEW
-			// return type of a constructor is only mutable
-			// x = new C(); // no effect on qualifier to x
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.ReturnValue)){
-			// Section 2.4 of Reference 1
-			// "Method returns are initialized S(ret) = {readonly, polyread} for each method m"
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-		} else if (ge.taggedWith(XCSG.Parameter)){
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Identity)){
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.InstanceVariable)){
-			// Section 2.4 of Reference 1
-			// "Fields are initialized to S(f) = {readonly, polyread}"
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-//			// according to Reference 1 this should not be a default type,
-//			// but looking at the reiminfer reference implementation there
-//			// are several cases where the mutable type gets "added" during 
-//			// constraint checking. Since mutable is the most specific type
-//			// a polyread will always be chosen over it if there is one, so
-//			// instead of adding hacks all over its better to just admit the 
-//			// issue with the type system and add mutable to the default type
-//			// of fields...we could promote mutables to polyread after the 
-//			// fact if we wanted to clean things up
-//			// Reference: https://github.com/proganalysis/type-inference/blob/master/object-immutability/src/edu/rpi/reim/ReimTransformer.java#L250
-			if(ImmutabilityPreferences.isAllowDefaultMutableInstancesVariablesEnabled()){
+		switch(NodeKinds.getReferenceKind(ge)){
+			case NodeKinds.DUMMY:
+				// these are dummy read only nodes that help to provide context sensitivity
+				// in unassigned callsites or void methods
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
 				qualifiers.add(ImmutabilityTypes.MUTABLE);
-			}
-		} else if(ge.taggedWith(XCSG.ClassVariable)){
-			// Section 3 of Reference 1
-			// static fields are initialized to S(sf) = {readonly, mutable}
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Method)){
-			// Section 3 of Reference 1
-			// methods can have a static type of {readonly, polyread, mutable}
-			// From Reference 1: "qm is mutable when m accesses static state
-			// through some static field and then mutates this static state;
-			// qm is polyread if m accesses static state but does not mutate
-			// this state directly, however, m may return this static state
-			// to the caller and the caller may mutate it; qm is readonly
-			// otherwise"
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Operator)){
-			// the result of a primitive operation on primitives or primitive references is always readonly
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD);
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.ArrayComponents)){
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.CaughtValue)){
-			// caught exceptions could be polyread since they could come from multiple call stacks
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD); 
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		}  else if(ge.taggedWith(XCSG.ElementFromCollection)){			
-			// TODO: should probably treat these like array components (mutations to these mutate the collection)
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.ParameterPass)){
-			// Section 2.4 of Reference 1
-			// "All other references are initialized to the maximal
-			// set of qualifiers, i.e. S(x) = {readonly, polyread, mutable}"
-			qualifiers.add(ImmutabilityTypes.READONLY);
-			qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
-			qualifiers.add(ImmutabilityTypes.MUTABLE);
-		} else if(ge.taggedWith(XCSG.Assignment)){
-			if(!ge.taggedWith(XCSG.InstanceVariableAssignment) && !ge.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
+				break;
+			case NodeKinds.NULL:
+				// null does not modify the stack or heap so it is readonly
+				// however in order to satisfy constraints the other types should be initialized
+				// note that assignments of nulls to a field can still mutate an object
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.LITERAL:
+				// several java objects are readonly for all practical purposes
+				// however in order to satisfy constraints the other types should be initialized
+				// Note that at least in Jimple its possible for a Type -> Literal -> Formal Parameter
+				// not the normal Type -> Literal -> Actual Parameter -> Formal Parameter
+				// so in this case the Type graph element should be treated as the type literal
+				// and hence readonly...TODO: bug EnSoft to see if this graph pattern is expected!
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.INSTANTIATION:
+				// Type Rule 1 - TNEW
+				// return type of a constructor is only mutable
+				// x = new C(); // no effect on qualifier to x
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.RETURN_VALUE:
+				// Section 2.4 of Reference 1
+				// "Method returns are initialized S(ret) = {readonly, polyread} for each method m"
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				break;
+			case NodeKinds.PARAMETER:
+			case NodeKinds.IDENTITY:
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.INSTANCE_VARIABLE:
+				// Section 2.4 of Reference 1
+				// "Fields are initialized to S(f) = {readonly, polyread}"
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+//				// according to Reference 1 this should not be a default type,
+//				// but looking at the reiminfer reference implementation there
+//				// are several cases where the mutable type gets "added" during 
+//				// constraint checking. Since mutable is the most specific type
+//				// a polyread will always be chosen over it if there is one, so
+//				// instead of adding hacks all over its better to just admit the 
+//				// issue with the type system and add mutable to the default type
+//				// of fields...we could promote mutables to polyread after the 
+//				// fact if we wanted to clean things up
+//				// Reference: https://github.com/proganalysis/type-inference/blob/master/object-immutability/src/edu/rpi/reim/ReimTransformer.java#L250
+				if(getConfiguration().isAllowDefaultMutableInstancesVariablesEnabled()){
+					qualifiers.add(ImmutabilityTypes.MUTABLE);
+				}
+				break;
+			case NodeKinds.CLASS_VARIABLE:
+				// Section 3 of Reference 1
+				// static fields are initialized to S(sf) = {readonly, mutable}
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.METHOD:
+				// Section 3 of Reference 1
+				// methods can have a static type of {readonly, polyread, mutable}
+				// From Reference 1: "qm is mutable when m accesses static state
+				// through some static field and then mutates this static state;
+				// qm is polyread if m accesses static state but does not mutate
+				// this state directly, however, m may return this static state
+				// to the caller and the caller may mutate it; qm is readonly
+				// otherwise"
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.OPERATOR:
+				// the result of a primitive operation on primitives or primitive references is always readonly
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD);
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.ARRAY_COMPONENTS:
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.CAUGHT_VALUE:
+				// caught exceptions could be polyread since they could come from multiple call stacks
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD); 
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.ELEMENT_FROM_COLLECTION:
+				// TODO: should probably treat these like array components (mutations to these mutate the collection)
+				qualifiers.add(ImmutabilityTypes.READONLY);
+				qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
+				qualifiers.add(ImmutabilityTypes.MUTABLE);
+				break;
+			case NodeKinds.PARAMETER_PASS:
+			case NodeKinds.LOCAL_ASSIGNMENT:
 				// could be a local reference
 				// Section 2.4 of Reference 1
 				// "All other references are initialized to the maximal
@@ -688,11 +780,11 @@ public class AnalysisUtilities {
 				qualifiers.add(ImmutabilityTypes.READONLY);
 				qualifiers.add(ImmutabilityTypes.POLYREAD); // TODO: what does it mean for a local reference to be polyread? ~Ben
 				qualifiers.add(ImmutabilityTypes.MUTABLE);
-			}
-		} else {
-			RuntimeException e = new RuntimeException("Unexpected graph element: " + ge.address());
-			Log.error("Unexpected graph element: " + ge.address(), e);
-			throw e;
+				break;
+			default:
+				RuntimeException e = new RuntimeException("Unexpected graph element: " + ge.address());
+				Log.error("Unexpected graph element: " + ge.address(), e);
+				throw e;
 		}
 		return qualifiers;
 	}
@@ -0,0 +1,325 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+
+/**
+ * Reads a binary immutability summary (see BinarySummaryWriter) from a memory mapped file.
+ *
+ * Layout (big endian):
+ * magic, version,
+ * string count, string data length, string offsets (count + 1), UTF-8 string data,
+ * atlas version string, toolbox version string,
+ * field count, field records (package, class, name, packed kind and qualifiers),
+ * method count, method records (package, class, signature, packed kind, qualifiers
+ * and parameter count, index of the first parameter),
+ * parameter count, word count, parameter qualifiers (3 bits each, 21 per word).
+ *
+ * Records are read in place by index, only the strings that are accessed are decoded.
+ */
+public class BinarySummaryReader {
+
+	public static final String EXTENSION = "imsum";
+
+	public static final int MAGIC = 0x494D5355; // IMSU
+	public static final int VERSION = 1;
+
+	public static final int FIELD_RECORD_SIZE = 16;
+	public static final int METHOD_RECORD_SIZE = 20;
+
+	public static final int QUALIFIER_BITS = 3;
+	public static final int QUALIFIER_MASK = (1 << QUALIFIER_BITS) - 1;
+	public static final int QUALIFIERS_PER_WORD = 64 / QUALIFIER_BITS;
+
+	/**
+	 * The kinds of summarized fields, in the order they are encoded
+	 */
+	public static final String[] FIELD_KINDS = new String[]{ XCSG.InstanceVariable, XCSG.ClassVariable };
+
+	/**
+	 * The kinds of summarized methods, in the order they are encoded
+	 */
+	public static final String[] METHOD_KINDS = new String[]{ XCSG.Constructor, XCSG.ClassMethod, XCSG.InstanceMethod };
+
+	// packed method record bits
+	public static final int METHOD_KIND_BITS = 2;
+	public static final int HAS_IDENTITY = 1 << 2;
+	public static final int HAS_RETURN = 1 << 3;
+	public static final int METHOD_QUALIFIERS_SHIFT = 4;
+	public static final int IDENTITY_QUALIFIERS_SHIFT = 7;
+	public static final int RETURN_QUALIFIERS_SHIFT = 10;
+	public static final int PARAMETER_COUNT_SHIFT = 13;
+	public static final int MAX_PARAMETERS = 0xFF;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private File file;
+	private ByteBuffer buffer;
+	private int stringCount;
+	private int stringOffsetsPosition;
+	private int stringDataPosition;
+	private String[] strings;
+	private int atlasVersion;
+	private int toolboxVersion;
+	private int fieldCount;
+	private int fieldsPosition;
+	private int methodCount;
+	private int methodsPosition;
+	private int parameterCount;
+	private int parameterWordsPosition;
+
+	private BinarySummaryReader(File file, ByteBuffer buffer){
+		this.file = file;
+		this.buffer = buffer;
+		if(buffer.getInt(0) != MAGIC){
+			throw new RuntimeException(file.getAbsolutePath() + " is not a binary immutability summary");
+		}
+		int version = buffer.getInt(4);
+		if(version != VERSION){
+			throw new RuntimeException("Unsupported binary summary version " + version + " in " + file.getAbsolutePath());
+		}
+		int position = 8;
+		stringCount = buffer.getInt(position);
+		int stringDataLength = buffer.getInt(position + 4);
+		stringOffsetsPosition = position + 8;
+		stringDataPosition = stringOffsetsPosition + ((stringCount + 1) * 4);
+		strings = new String[stringCount];
+		position = stringDataPosition + stringDataLength;
+		atlasVersion = buffer.getInt(position);
+		toolboxVersion = buffer.getInt(position + 4);
+		position += 8;
+		fieldCount = buffer.getInt(position);
+		fieldsPosition = position + 4;
+		position = fieldsPosition + (fieldCount * FIELD_RECORD_SIZE);
+		methodCount = buffer.getInt(position);
+		methodsPosition = position + 4;
+		position = methodsPosition + (methodCount * METHOD_RECORD_SIZE);
+		parameterCount = buffer.getInt(position);
+		parameterWordsPosition = position + 8;
+	}
+
+	/**
+	 * Memory maps the given binary summary file
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static BinarySummaryReader open(File file) throws IOException {
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			// the mapping remains valid after the channel is closed
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new BinarySummaryReader(file, buffer);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Returns true if the given file is named as a binary summary
+	 * @param file
+	 * @return
+	 */
+	public static boolean isBinarySummary(File file){
+		return file.getName().toLowerCase().endsWith("." + EXTENSION);
+	}
+
+	/**
+	 * Returns the summary file
+	 * @return
+	 */
+	public File getFile(){
+		return file;
+	}
+
+	/**
+	 * Returns the string with the given index in the string table
+	 * @param index
+	 * @return
+	 */
+	public String getString(int index){
+		String string = strings[index];
+		if(string == null){
+			int start = buffer.getInt(stringOffsetsPosition + (index * 4));
+			int end = buffer.getInt(stringOffsetsPosition + ((index + 1) * 4));
+			byte[] bytes = new byte[end - start];
+			ByteBuffer data = buffer.duplicate();
+			data.position(stringDataPosition + start);
+			data.get(bytes);
+			string = new String(bytes, UTF8);
+			strings[index] = string;
+		}
+		return string;
+	}
+
+	/**
+	 * Returns the number of strings in the string table
+	 * @return
+	 */
+	public int getStringCount(){
+		return stringCount;
+	}
+
+	/**
+	 * Returns the version of Atlas the summary was created with
+	 * @return
+	 */
+	public String getAtlasVersion(){
+		return getString(atlasVersion);
+	}
+
+	/**
+	 * Returns the version of the immutability toolbox the summary was created with
+	 * @return
+	 */
+	public String getToolboxVersion(){
+		return getString(toolboxVersion);
+	}
+
+	/**
+	 * Returns the number of summarized fields
+	 * @return
+	 */
+	public int getFieldCount(){
+		return fieldCount;
+	}
+
+	public String getFieldPackage(int field){
+		return getString(buffer.getInt(fieldsPosition + (field * FIELD_RECORD_SIZE)));
+	}
+
+	public String getFieldClass(int field){
+		return getString(buffer.getInt(fieldsPosition + (field * FIELD_RECORD_SIZE) + 4));
+	}
+
+	public String getFieldName(int field){
+		return getString(buffer.getInt(fieldsPosition + (field * FIELD_RECORD_SIZE) + 8));
+	}
+
+	/**
+	 * Returns the XCSG tag of the kind of the given field
+	 * @param field
+	 * @return
+	 */
+	public String getFieldKind(int field){
+		return FIELD_KINDS[buffer.getInt(fieldsPosition + (field * FIELD_RECORD_SIZE) + 12) & 1];
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the given field
+	 * @param field
+	 * @return
+	 */
+	public byte getFieldQualifiers(int field){
+		return (byte) ((buffer.getInt(fieldsPosition + (field * FIELD_RECORD_SIZE) + 12) >>> 1) & QUALIFIER_MASK);
+	}
+
+	/**
+	 * Returns the number of summarized methods
+	 * @return
+	 */
+	public int getMethodCount(){
+		return methodCount;
+	}
+
+	public String getMethodPackage(int method){
+		return getString(buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE)));
+	}
+
+	public String getMethodClass(int method){
+		return getString(buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE) + 4));
+	}
+
+	public String getMethodSignature(int method){
+		return getString(buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE) + 8));
+	}
+
+	/**
+	 * Returns the string table index of the signature of the given method
+	 * @param method
+	 * @return
+	 */
+	public int getMethodSignatureIndex(int method){
+		return buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE) + 8);
+	}
+
+	private int getMethodBits(int method){
+		return buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE) + 12);
+	}
+
+	/**
+	 * Returns the XCSG tag of the kind of the given method
+	 * @param method
+	 * @return
+	 */
+	public String getMethodKind(int method){
+		return METHOD_KINDS[getMethodBits(method) & ((1 << METHOD_KIND_BITS) - 1)];
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the given method
+	 * @param method
+	 * @return
+	 */
+	public byte getMethodQualifiers(int method){
+		return (byte) ((getMethodBits(method) >>> METHOD_QUALIFIERS_SHIFT) & QUALIFIER_MASK);
+	}
+
+	public boolean hasIdentity(int method){
+		return (getMethodBits(method) & HAS_IDENTITY) != 0;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the identity of the given method
+	 * @param method
+	 * @return
+	 */
+	public byte getIdentityQualifiers(int method){
+		return (byte) ((getMethodBits(method) >>> IDENTITY_QUALIFIERS_SHIFT) & QUALIFIER_MASK);
+	}
+
+	public boolean hasReturn(int method){
+		return (getMethodBits(method) & HAS_RETURN) != 0;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the return value of the given method
+	 * @param method
+	 * @return
+	 */
+	public byte getReturnQualifiers(int method){
+		return (byte) ((getMethodBits(method) >>> RETURN_QUALIFIERS_SHIFT) & QUALIFIER_MASK);
+	}
+
+	/**
+	 * Returns the number of parameters of the given method
+	 * @param method
+	 * @return
+	 */
+	public int getParameterCount(int method){
+		return (getMethodBits(method) >>> PARAMETER_COUNT_SHIFT) & MAX_PARAMETERS;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the parameter with the given index of the given method
+	 * @param method
+	 * @param parameterIndex
+	 * @return
+	 */
+	public byte getParameterQualifiers(int method, int parameterIndex){
+		int parameter = buffer.getInt(methodsPosition + (method * METHOD_RECORD_SIZE) + 16) + parameterIndex;
+		if(parameter >= parameterCount){
+			throw new RuntimeException("Parameter " + parameterIndex + " of method " + method + " is out of range in " + file.getAbsolutePath());
+		}
+		long word = buffer.getLong(parameterWordsPosition + ((parameter / QUALIFIERS_PER_WORD) * 8));
+		return (byte) ((word >>> ((parameter % QUALIFIERS_PER_WORD) * QUALIFIER_BITS)) & QUALIFIER_MASK);
+	}
+
+}
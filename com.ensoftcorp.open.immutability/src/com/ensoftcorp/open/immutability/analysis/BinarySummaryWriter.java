@@ -0,0 +1,209 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Builds a binary immutability summary (see BinarySummaryReader for the layout).
+ *
+ * Package, class, name and signature strings are interned into a string table
+ * and referenced by index, qualifier sets are stored as 3 bit masks (see
+ * ImmutabilityTypes.getMask()) packed into the fixed size records.
+ */
+public class BinarySummaryWriter {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private HashMap<String,Integer> stringIndexes = new HashMap<String,Integer>();
+	private ArrayList<byte[]> strings = new ArrayList<byte[]>();
+	private int stringDataLength = 0;
+
+	private int atlasVersion;
+	private int toolboxVersion;
+
+	private int[] fields = new int[1024];
+	private int fieldCount = 0;
+
+	private int[] methods = new int[1024];
+	private int methodCount = 0;
+
+	private long[] parameterWords = new long[128];
+	private int parameterCount = 0;
+
+	public BinarySummaryWriter(String atlasVersion, String toolboxVersion){
+		this.atlasVersion = addString(atlasVersion);
+		this.toolboxVersion = addString(toolboxVersion);
+	}
+
+	/**
+	 * Adds a string to the string table and returns its index
+	 * @param string
+	 * @return
+	 */
+	public int addString(String string){
+		Integer index = stringIndexes.get(string);
+		if(index == null){
+			byte[] bytes = string.getBytes(UTF8);
+			index = strings.size();
+			strings.add(bytes);
+			stringDataLength += bytes.length;
+			stringIndexes.put(string, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Adds a field summary
+	 * @param pkg
+	 * @param parentClass
+	 * @param name
+	 * @param kind The XCSG tag of the field kind (see BinarySummaryReader.FIELD_KINDS)
+	 * @param qualifiers
+	 */
+	public void addField(String pkg, String parentClass, String name, String kind, byte qualifiers){
+		if(fields.length < (fieldCount + 1) * 4){
+			fields = Arrays.copyOf(fields, fields.length * 2);
+		}
+		int record = fieldCount * 4;
+		fields[record] = addString(pkg);
+		fields[record + 1] = addString(parentClass);
+		fields[record + 2] = addString(name);
+		fields[record + 3] = getKind(BinarySummaryReader.FIELD_KINDS, kind) | ((qualifiers & BinarySummaryReader.QUALIFIER_MASK) << 1);
+		fieldCount++;
+	}
+
+	/**
+	 * Adds a method summary
+	 * @param pkg
+	 * @param parentClass
+	 * @param signature
+	 * @param kind The XCSG tag of the method kind (see BinarySummaryReader.METHOD_KINDS)
+	 * @param qualifiers
+	 * @param identityQualifiers The qualifiers of the identity or null if the method does not have an identity
+	 * @param returnQualifiers The qualifiers of the return value or null if the return value is not summarized
+	 * @param parameterQualifiers The qualifiers of each parameter by parameter index
+	 */
+	public void addMethod(String pkg, String parentClass, String signature, String kind, byte qualifiers,
+			Byte identityQualifiers, Byte returnQualifiers, byte[] parameterQualifiers){
+		if(parameterQualifiers.length > BinarySummaryReader.MAX_PARAMETERS){
+			throw new RuntimeException("Too many parameters to summarize method " + signature);
+		}
+		if(methods.length < (methodCount + 1) * 5){
+			methods = Arrays.copyOf(methods, methods.length * 2);
+		}
+		int bits = getKind(BinarySummaryReader.METHOD_KINDS, kind);
+		bits |= (qualifiers & BinarySummaryReader.QUALIFIER_MASK) << BinarySummaryReader.METHOD_QUALIFIERS_SHIFT;
+		if(identityQualifiers != null){
+			bits |= BinarySummaryReader.HAS_IDENTITY;
+			bits |= (identityQualifiers & BinarySummaryReader.QUALIFIER_MASK) << BinarySummaryReader.IDENTITY_QUALIFIERS_SHIFT;
+		}
+		if(returnQualifiers != null){
+			bits |= BinarySummaryReader.HAS_RETURN;
+			bits |= (returnQualifiers & BinarySummaryReader.QUALIFIER_MASK) << BinarySummaryReader.RETURN_QUALIFIERS_SHIFT;
+		}
+		bits |= parameterQualifiers.length << BinarySummaryReader.PARAMETER_COUNT_SHIFT;
+		int record = methodCount * 5;
+		methods[record] = addString(pkg);
+		methods[record + 1] = addString(parentClass);
+		methods[record + 2] = addString(signature);
+		methods[record + 3] = bits;
+		methods[record + 4] = parameterCount;
+		methodCount++;
+		for(byte parameterQualifier : parameterQualifiers){
+			addParameter(parameterQualifier);
+		}
+	}
+
+	private void addParameter(byte qualifiers){
+		int word = parameterCount / BinarySummaryReader.QUALIFIERS_PER_WORD;
+		if(word == parameterWords.length){
+			parameterWords = Arrays.copyOf(parameterWords, parameterWords.length * 2);
+		}
+		int shift = (parameterCount % BinarySummaryReader.QUALIFIERS_PER_WORD) * BinarySummaryReader.QUALIFIER_BITS;
+		parameterWords[word] |= ((long) (qualifiers & BinarySummaryReader.QUALIFIER_MASK)) << shift;
+		parameterCount++;
+	}
+
+	private static int getKind(String[] kinds, String kind){
+		for(int i=0; i<kinds.length; i++){
+			if(kinds[i].equals(kind)){
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown summary kind: " + kind);
+	}
+
+	/**
+	 * Returns the number of summarized fields
+	 * @return
+	 */
+	public int getFieldCount(){
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the number of summarized methods
+	 * @return
+	 */
+	public int getMethodCount(){
+		return methodCount;
+	}
+
+	/**
+	 * Writes the summary to the given file
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try {
+			output.writeInt(BinarySummaryReader.MAGIC);
+			output.writeInt(BinarySummaryReader.VERSION);
+
+			// string table
+			output.writeInt(strings.size());
+			output.writeInt(stringDataLength);
+			int offset = 0;
+			for(byte[] string : strings){
+				output.writeInt(offset);
+				offset += string.length;
+			}
+			output.writeInt(offset);
+			for(byte[] string : strings){
+				output.write(string);
+			}
+			output.writeInt(atlasVersion);
+			output.writeInt(toolboxVersion);
+
+			// fields
+			output.writeInt(fieldCount);
+			for(int i=0; i<fieldCount * 4; i++){
+				output.writeInt(fields[i]);
+			}
+
+			// methods
+			output.writeInt(methodCount);
+			for(int i=0; i<methodCount * 5; i++){
+				output.writeInt(methods[i]);
+			}
+
+			// parameters
+			int words = (parameterCount + BinarySummaryReader.QUALIFIERS_PER_WORD - 1) / BinarySummaryReader.QUALIFIERS_PER_WORD;
+			output.writeInt(parameterCount);
+			output.writeInt(words);
+			for(int i=0; i<words; i++){
+				output.writeLong(parameterWords[i]);
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+}
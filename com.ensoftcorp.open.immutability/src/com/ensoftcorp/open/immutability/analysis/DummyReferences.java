@@ -0,0 +1,164 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.ensoftcorp.atlas.core.db.graph.Edge;
+import com.ensoftcorp.atlas.core.db.graph.Graph;
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.commons.analysis.CommonQueries;
+
+/**
+ * The placeholder references added for the duration of an analysis run.
+ *
+ * Dummy return values of void methods and dummy assignments of unassigned callsites
+ * are typed like any other reference, so they are created as codemap nodes, but the
+ * relationships between the placeholders and the program (the return value that
+ * flows to each callsite of a void method and the callsite assigned to each dummy
+ * assignment) are kept in this overlay instead of being written to the codemap as
+ * edges. Every node created is recorded, so the placeholders can be removed without
+ * querying the universe for them.
+ */
+public class DummyReferences {
+
+	/**
+	 * The dummy return value of each void or malformed method
+	 */
+	private HashMap<Node,Node> returnValues = new HashMap<Node,Node>();
+
+	/**
+	 * The return value that flows to each callsite without an incoming return value edge
+	 */
+	private HashMap<Node,Node> callsiteReturnValues = new HashMap<Node,Node>();
+
+	/**
+	 * The callsite assigned to each dummy assignment
+	 */
+	private HashMap<Node,Node> assignedCallsites = new HashMap<Node,Node>();
+
+	/**
+	 * The nodes created in the codemap, in the order they were created
+	 */
+	private ArrayList<Node> createdNodes = new ArrayList<Node>();
+
+	/**
+	 * Creates a dummy return value for the given method
+	 * @param method
+	 * @return
+	 */
+	public Node addReturnValue(Node method){
+		Node returnValue = Graph.U.createNode();
+		returnValue.putAttr(XCSG.name, AnalysisUtilities.DUMMY_RETURN_NODE);
+		returnValue.tag(XCSG.ReturnValue);
+		returnValue.tag(AnalysisUtilities.DUMMY_RETURN_NODE);
+		createdNodes.add(returnValue);
+		// method bodies are queried for their return values, so the return value is contained by the method
+		Edge containsEdge = Graph.U.createEdge(method, returnValue);
+		containsEdge.tag(XCSG.Contains);
+		returnValues.put(method, returnValue);
+		return returnValue;
+	}
+
+	/**
+	 * Records that the return value of the given method flows to the given callsite
+	 * @param callsite
+	 * @param method
+	 * @return Returns the return value or null if the method does not have a return value
+	 */
+	public Node addCallsiteReturnValue(Node callsite, Node method){
+		Node returnValue = returnValues.get(method);
+		if(returnValue == null){
+			returnValue = Common.toQ(method).children().nodes(XCSG.ReturnValue).eval().nodes().one();
+		}
+		if(returnValue != null){
+			callsiteReturnValues.put(callsite, returnValue);
+		}
+		return returnValue;
+	}
+
+	/**
+	 * Creates a dummy assignment of the given callsite
+	 * @param callsite
+	 * @return
+	 */
+	public Node addAssignment(Node callsite){
+		Node assignment = Graph.U.createNode();
+		assignment.putAttr(XCSG.name, AnalysisUtilities.DUMMY_ASSIGNMENT_NODE);
+		assignment.tag(XCSG.Assignment);
+		assignment.tag(AnalysisUtilities.DUMMY_ASSIGNMENT_NODE);
+		createdNodes.add(assignment);
+		assignedCallsites.put(assignment, callsite);
+		return assignment;
+	}
+
+	/**
+	 * Returns the return value that flows to the given callsite or null
+	 * if the callsite has an incoming return value edge in the codemap
+	 * @param callsite
+	 * @return
+	 */
+	public Node getReturnValue(Node callsite){
+		return callsiteReturnValues.get(callsite);
+	}
+
+	/**
+	 * Returns the callsite assigned to the given dummy assignment or
+	 * null if the given node is not a dummy assignment of this overlay
+	 * @param assignment
+	 * @return
+	 */
+	public Node getAssignedCallsite(Node assignment){
+		return assignedCallsites.get(assignment);
+	}
+
+	/**
+	 * Returns the method containing the given reference, the method
+	 * containing a dummy assignment is the method containing its callsite
+	 * @param reference
+	 * @return
+	 */
+	public Node getContainingMethod(Node reference){
+		Node callsite = assignedCallsites.get(reference);
+		return CommonQueries.getContainingFunction(callsite != null ? callsite : reference);
+	}
+
+	/**
+	 * Returns the number of dummy return values
+	 * @return
+	 */
+	public int getReturnValueCount(){
+		return returnValues.size();
+	}
+
+	/**
+	 * Returns the number of callsites linked to a return value by the overlay
+	 * @return
+	 */
+	public int getCallsiteReturnValueCount(){
+		return callsiteReturnValues.size();
+	}
+
+	/**
+	 * Returns the number of dummy assignments
+	 * @return
+	 */
+	public int getAssignmentCount(){
+		return assignedCallsites.size();
+	}
+
+	/**
+	 * Removes the created nodes (and the edges connected to them) from the codemap
+	 */
+	public void clear(){
+		for(Node createdNode : createdNodes){
+			Graph.U.delete(createdNode);
+		}
+		createdNodes.clear();
+		returnValues.clear();
+		callsiteReturnValues.clear();
+		assignedCallsites.clear();
+	}
+
+}
@@ -3,6 +3,8 @@ package com.ensoftcorp.open.immutability.analysis;
 import java.text.DecimalFormat;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.db.set.AtlasSet;
@@ -10,6 +12,9 @@ import com.ensoftcorp.atlas.core.query.Q;
 import com.ensoftcorp.atlas.core.query.Query;
 import com.ensoftcorp.atlas.core.script.Common;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.incremental.Checkpoint;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics;
+import com.ensoftcorp.open.immutability.analysis.metrics.TypeTrace;
 import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
 import com.ensoftcorp.open.immutability.log.Log;
 import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
@@ -53,7 +58,32 @@ public abstract class ImmutabilityAnalysis {
 		} else {
 			throw new RuntimeException("No immutability analysis mode was specified!");
 		}
-		
+		return runAnalysis(analysis, monitor);
+	}
+	
+	/**
+	 * Resumes the reference immutability analysis from the latest checkpoint
+	 * @param monitor
+	 * @return Returns true if the analysis completed in a consistent state
+	 */
+	public static boolean resumeAnalysis(IProgressMonitor monitor){
+		if(!ImmutabilityPreferences.isInferenceAnalysisModeEnabled()){
+			throw new RuntimeException("Only the inference immutability analysis can be resumed!");
+		}
+		if(!Checkpoint.exists()){
+			throw new RuntimeException("There is no immutability analysis checkpoint to resume from!");
+		}
+		Log.info("Immutability analysis resumed");
+		return runAnalysis(new InferenceImmutabilityAnalysis(true), monitor);
+	}
+	
+	private static boolean runAnalysis(ImmutabilityAnalysis analysis, IProgressMonitor monitor){
+		AnalysisMetrics.reset();
+		if(ImmutabilityPreferences.isTraceTypeChangesEnabled()){
+			TypeTrace.enable(TypeTrace.DEFAULT_CAPACITY);
+		} else {
+			TypeTrace.disable();
+		}
 		long start = System.nanoTime();
 		boolean isSane = analysis.run(monitor);
 		long stop = System.nanoTime();
@@ -69,18 +99,33 @@ public abstract class ImmutabilityAnalysis {
 				String summary = "READONLY: " + numReadOnly + ", POLYREAD: " + numPolyRead + ", MUTABLE: " + numMutable  + ", PURE: " + numPure;
 				Log.info("Immutability analysis completed in " + FORMAT.format(runtime) + " ms\n" + summary);
 			}
+			Log.info(AnalysisMetrics.getReport());
+			if(TypeTrace.isEnabled()){
+				Log.info("Recorded " + TypeTrace.getRecordedEvents() + " qualifier set changes in the type trace");
+			}
 		}
 		return isSane;
 	}
 
 		
 	/**
-	 * Tags pure methods with "PURE"
+	 * Tags pure methods with "PURE", reporting a unit of work for each method
+	 * @param monitor
+	 * @throws OperationCanceledException if the monitor is canceled
 	 */
-	protected void tagPureMethods(){
+	protected void tagPureMethods(IProgressMonitor monitor){
 		AtlasSet<Node> methods = Query.universe().nodes(XCSG.Method).eval().nodes();
+		
+		// index the methods with mutable parameters or identities up front,
+		// instead of querying the children of each method
+		Q mutableReferences = Query.universe().nodes(XCSG.Parameter, XCSG.Identity).nodes(ImmutabilityTags.MUTABLE);
+		AtlasSet<Node> methodsWithMutableReferences = Query.universe().edges(XCSG.Contains).predecessors(mutableReferences).eval().nodes();
+		AtlasSet<Node> objectMethods = Common.typeSelect("java.lang", "Object").children().nodes(XCSG.Method).eval().nodes();
+		
+		SubMonitor progress = SubMonitor.convert(monitor, (int) methods.size());
 		for(Node method : methods){
-			if(isPureMethod(method)){
+			progress.split(1);
+			if(isPureMethod(method, methodsWithMutableReferences, objectMethods)){
 				method.tag(ImmutabilityTags.PURE_METHOD);
 			}
 			method.tags().remove(ImmutabilityTags.READONLY);
@@ -93,24 +138,20 @@ public abstract class ImmutabilityAnalysis {
 	 * Returns true if the method is pure
 	 * Assumes the maximal immutability qualifiers have already been extracted
 	 * @param method
+	 * @param methodsWithMutableReferences The methods with a mutable parameter or identity
+	 * @param objectMethods The methods of java.lang.Object
 	 */
-	private boolean isPureMethod(Node method){
+	private boolean isPureMethod(Node method, AtlasSet<Node> methodsWithMutableReferences, AtlasSet<Node> objectMethods){
 		if(!method.taggedWith(XCSG.Method)){
 			return false;
-		} else if(isPureMethodDefault(method)){
+		} else if(isPureMethodDefault(method, objectMethods)){
 			return true;
 		} else {
 			// from reference 1 section 3
 			// a method is pure if 
 			// 1) it does not mutate (not readonly or polyread) prestates reachable through parameters
 			// this includes the formal parameters and implicit "this" parameter
-			Q parameters = Common.toQ(method).children().nodes(XCSG.Parameter);
-			Q mutableParameters = parameters.nodes(ImmutabilityTags.MUTABLE);
-			if(mutableParameters.eval().nodes().size() > 0){
-				return false;
-			}
-			Q mutableIdentity = Common.toQ(method).children().nodes(XCSG.Identity).nodes(ImmutabilityTags.MUTABLE);
-			if(mutableIdentity.eval().nodes().size() > 0){
+			if(methodsWithMutableReferences.contains(method)){
 				return false;
 			}
 			
@@ -127,9 +168,10 @@ public abstract class ImmutabilityAnalysis {
 	/**
 	 * Returns true if the method is a default pure method
 	 * @param method
+	 * @param objectMethods The methods of java.lang.Object
 	 * @return
 	 */
-	private boolean isPureMethodDefault(Node method){
+	private boolean isPureMethodDefault(Node method, AtlasSet<Node> objectMethods){
 		// note by convention .equals, .hashCode, .toString, and .compareTo
 		// are pure methods, but this is not enforced in overridden methods
 		// so we are not assuming it to be universally true (unlike ReIm)
@@ -137,7 +179,7 @@ public abstract class ImmutabilityAnalysis {
 		// we could however consider some of the java.lang.Object native methods as pure
 		// Object's native methods include: getClass, clone, hashCode, notifyAll, notify, wait, registerNatives
 		if(method.taggedWith(XCSG.Java.nativeMethod)){
-			if(!Common.toQ(method).intersection(Common.typeSelect("java.lang", "Object").children()).eval().nodes().isEmpty()){
+			if(objectMethods.contains(method)){
 				if(method.getAttr(XCSG.name).equals("getClass")){
 					return true;
 				}
@@ -1,5 +1,8 @@
 package com.ensoftcorp.open.immutability.analysis;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
 
 /**
@@ -25,6 +28,56 @@ public enum ImmutabilityTypes {
 		return name;
 	}
 	
+	/**
+	 * Returns the bit used to represent this type in a packed qualifier set,
+	 * bits are ordered by the subtype relationship (MUTABLE=1, POLYREAD=2, READONLY=4)
+	 * @return
+	 */
+	public byte getMask(){
+		return (byte) (1 << ordinal());
+	}
+	
+	/**
+	 * Packs a set of types into a qualifier set bit mask
+	 * @param types
+	 * @return
+	 */
+	public static byte toMask(Set<ImmutabilityTypes> types){
+		byte mask = 0;
+		for(ImmutabilityTypes type : types){
+			mask |= type.getMask();
+		}
+		return mask;
+	}
+	
+	/**
+	 * Packs the given types into a qualifier set bit mask
+	 * @param types
+	 * @return
+	 */
+	public static byte toMask(ImmutabilityTypes... types){
+		byte mask = 0;
+		for(ImmutabilityTypes type : types){
+			mask |= type.getMask();
+		}
+		return mask;
+	}
+	
+	/**
+	 * Unpacks a qualifier set bit mask into a set of types
+	 * @param mask
+	 * @return
+	 */
+	public static EnumSet<ImmutabilityTypes> fromMask(byte mask){
+		EnumSet<ImmutabilityTypes> types = EnumSet.noneOf(ImmutabilityTypes.class);
+		for(ImmutabilityTypes type : values()){
+			if((mask & type.getMask()) != 0){
+				types.add(type);
+			}
+		}
+		return types;
+	}
+	
 	/**
 	 * Viewpoint adaptation is a concept from Universe Types, 
 	 * it deals with context-sensitivity issues.
@@ -0,0 +1,117 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+
+/**
+ * The qualifier sets imported from a summary file (see SummaryUtilities.importSummary).
+ *
+ * Imported qualifier sets seed the qualifier sets of the summarized references. When
+ * the summaries are trusted the summarized references are fixed boundary types that
+ * the fixed point computation never changes, and the assignments of fully summarized
+ * methods (methods whose identity, parameters and return value were all summarized)
+ * are not analyzed.
+ */
+public class ImportedSummaries {
+
+	private HashMap<Node,Byte> masks = new HashMap<Node,Byte>();
+	private HashSet<Node> summarizedMethods = new HashSet<Node>();
+	private boolean trusted = false;
+
+	/**
+	 * Records the imported qualifier set bit mask of the given reference
+	 * @param reference
+	 * @param mask
+	 */
+	public void put(Node reference, byte mask){
+		masks.put(reference, mask);
+	}
+
+	/**
+	 * Records that the given method and all of its references were summarized
+	 * @param method
+	 */
+	void addSummarizedMethod(Node method){
+		summarizedMethods.add(method);
+	}
+
+	/**
+	 * Configures whether the imported summaries are trusted boundary types
+	 * @param trusted
+	 */
+	public void setTrusted(boolean trusted){
+		this.trusted = trusted;
+	}
+
+	/**
+	 * Returns true if the imported summaries are trusted boundary types
+	 * @return
+	 */
+	public boolean isTrusted(){
+		return trusted;
+	}
+
+	/**
+	 * Returns the initial qualifier set bit mask of the given reference, the imported
+	 * qualifiers restricted to the given default qualifiers or the default qualifiers
+	 * if the reference was not summarized
+	 * @param reference
+	 * @param defaultMask
+	 * @return
+	 */
+	public byte getInitialMask(Node reference, byte defaultMask){
+		Byte summaryMask = masks.get(reference);
+		if(summaryMask == null){
+			return defaultMask;
+		}
+		byte mask = (byte) (summaryMask & defaultMask);
+		return mask == 0 ? defaultMask : mask;
+	}
+
+	/**
+	 * Returns true if the given reference has an imported qualifier set
+	 * @param reference
+	 * @return
+	 */
+	public boolean contains(Node reference){
+		return masks.containsKey(reference);
+	}
+
+	/**
+	 * Returns true if the given reference is a fixed boundary type, that is
+	 * the summaries are trusted and the reference was summarized
+	 * @param reference
+	 * @return
+	 */
+	public boolean isFixed(Node reference){
+		return trusted && masks.containsKey(reference);
+	}
+
+	/**
+	 * Returns true if the given method and all of its references were summarized
+	 * @param method
+	 * @return
+	 */
+	public boolean isSummarized(Node method){
+		return summarizedMethods.contains(method);
+	}
+
+	/**
+	 * Returns the number of references with an imported qualifier set
+	 * @return
+	 */
+	public int size(){
+		return masks.size();
+	}
+
+	/**
+	 * Returns the number of fully summarized methods
+	 * @return
+	 */
+	public int getSummarizedMethodCount(){
+		return summarizedMethods.size();
+	}
+
+}
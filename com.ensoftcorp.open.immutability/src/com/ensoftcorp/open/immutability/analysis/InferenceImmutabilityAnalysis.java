@@ -1,25 +1,20 @@
 package com.ensoftcorp.open.immutability.analysis;
 
-import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.addMutable;
-import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypes;
-import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.removeTypes;
-
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Set;
 
 import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.FileDialog;
 
-import com.ensoftcorp.atlas.core.db.graph.Edge;
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.db.set.AtlasHashSet;
 import com.ensoftcorp.atlas.core.db.set.AtlasSet;
@@ -27,13 +22,15 @@ import com.ensoftcorp.atlas.core.query.Q;
 import com.ensoftcorp.atlas.core.query.Query;
 import com.ensoftcorp.atlas.core.script.Common;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
-import com.ensoftcorp.open.commons.analysis.CommonQueries;
 import com.ensoftcorp.open.commons.ui.utilities.DisplayUtils;
-import com.ensoftcorp.open.immutability.analysis.checkers.BasicAssignmentChecker;
-import com.ensoftcorp.open.immutability.analysis.checkers.CallChecker;
-import com.ensoftcorp.open.immutability.analysis.checkers.FieldAssignmentChecker;
 import com.ensoftcorp.open.immutability.analysis.checkers.SanityChecks;
-import com.ensoftcorp.open.immutability.analysis.solvers.XEqualsYConstraintSolver;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintExtractor;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSolver;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSystem;
+import com.ensoftcorp.open.immutability.analysis.incremental.Checkpoint;
+import com.ensoftcorp.open.immutability.analysis.incremental.IncrementalAnalysis;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Operation;
 import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
 import com.ensoftcorp.open.immutability.log.Log;
 import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
@@ -47,6 +44,22 @@ public class InferenceImmutabilityAnalysis extends ImmutabilityAnalysis {
 	 */
 	private static final DecimalFormat FORMAT = new DecimalFormat("#.##"); 
 	
+	/**
+	 * If true the fixed point computation resumes from the latest checkpoint
+	 */
+	private boolean resume;
+	
+	public InferenceImmutabilityAnalysis(){
+		this(false);
+	}
+	
+	/**
+	 * @param resume If true the fixed point computation resumes from the latest checkpoint
+	 */
+	public InferenceImmutabilityAnalysis(boolean resume){
+		this.resume = resume;
+	}
+	
 	/**
 	 * Helper class to store a File object result
 	 */
@@ -65,7 +78,7 @@ public class InferenceImmutabilityAnalysis extends ImmutabilityAnalysis {
 				public void run() {
 					FileDialog dialog = new FileDialog(Display.getDefault().getActiveShell(), SWT.OPEN);
 					dialog.setFilterNames(new String[] { "Immutability Analysis Results", "All Files (*.*)" });
-					dialog.setFilterExtensions(new String[] { "*.xml", "*.*" });
+					dialog.setFilterExtensions(new String[] { "*.xml", "*.xml.gz", "*.imsum", "*.*" });
 					fileResult.file = new File(dialog.open());
 				}
 			});
@@ -84,7 +97,7 @@ public class InferenceImmutabilityAnalysis extends ImmutabilityAnalysis {
 				public void run() {
 					FileDialog dialog = new FileDialog(Display.getDefault().getActiveShell(), SWT.SAVE);
 					dialog.setFilterNames(new String[] { "Immutability Analysis Results", "All Files (*.*)" });
-					dialog.setFilterExtensions(new String[] { "*.xml", "*.*" });
+					dialog.setFilterExtensions(new String[] { "*.xml", "*.xml.gz", "*.imsum", "*.*" });
 					try {
 						String projectName = Query.universe().nodes(XCSG.Project).eval().nodes().one().getAttr(XCSG.name).toString();
 						dialog.setFileName(projectName + "-immutability.xml");
@@ -107,524 +120,195 @@ public class InferenceImmutabilityAnalysis extends ImmutabilityAnalysis {
 		JavaStopGap.addClassVariableAccessTags();
 		JimpleStopGap.addDataFlowDisplayNodeTags();
 		
-		AnalysisUtilities.addDummyReturnAssignments();
-
-		AtlasHashSet<Node> worklist = new AtlasHashSet<Node>();
-
-		// add all assignments to worklist
-		// treating parameter passes as assignments (for all purposes they are...)
-		// this includes dummy return assignments which are fillers for providing 
-		// context sensitivity when the return value of a call is unused
-		Q assignments = Query.universe().nodes(XCSG.Assignment, XCSG.ParameterPass);
-		assignments = Common.resolve(new NullProgressMonitor(), assignments);
-		for(Node assignment : assignments.eval().nodes()){
-			worklist.add(assignment);
-		}
-		
-		int iteration = 1;
-		while(true){
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Immutability analysis iteration: " + iteration);
-			long startIteration = System.nanoTime();
-			
-			boolean typesChanged = false;
-			for(Node workItem : worklist){
-				try {
-					if(applyInferenceRules(workItem)){
-						typesChanged = true;
-					}
-				} catch (Exception e){
-					Log.error("Error applying inference rules for work item: " + workItem.address().toAddressString() + "\n" + workItem.toString(), e);
-					throw e;
-				}
-			}
-			
-			long stopIteration = System.nanoTime();
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Immutability analysis iteration: " + iteration + " completed in " + FORMAT.format((stopIteration-startIteration)/1000.0/1000.0) + " ms");
-			
-			// the worklist consists of assignments (including stack assignments)
-			// in the worst case an iteration through the worklist only removes one type from one reference in an assignment
-			// since there are at most only 3 valid types for each reference, the algorithm must reach fixed point in
-			// O(3*n) iterations where n is the number of typed references used in the set of assignments
-			if(!typesChanged){
-				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Immutability analysis reached fixed point in " + iteration + " iterations");
-				break;
-			} else {
-				// fixed point has not been reached
-				// go for another pass
-				iteration++;
-			}
-		}
+		// the analysis options are fixed for the duration of the analysis
+		AnalysisConfiguration configuration = AnalysisConfiguration.fromPreferences();
+		AnalysisUtilities.setConfiguration(configuration);
+		AnalysisMetrics.setDetailed(configuration.isDetailedMetricsEnabled());
 		
-		if(ImmutabilityPreferences.isGenerateSummariesEnabled()){
-			// serialize immutability sets to Atlas tags
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Converting immutability sets into tags...");
-			convertImmutabilityTypesToTags();
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Converted immutability sets into tags.");
-			
-			// serialize field and method tags
-			if(outputFile != null){
-				try {
-					SummaryUtilities.exportSummary(outputFile);
-				} catch (Exception e){
-					Log.error("Could not save summaries.", e);
-					DisplayUtils.showError(e, "Could not save summaries.");
-				}
-			}
-		} else {
-			// flattens the type hierarchy to the maximal types
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Extracting maximal types...");
-			long startExtraction = System.nanoTime();
-			extractMaximalTypes();
-			long stopExtraction = System.nanoTime();
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Extracted maximal types in " + FORMAT.format((stopExtraction-startExtraction)/1000.0/1000.0) + " ms");
-			
-			// tags pure methods
-			// must be run after extractMaximalTypes
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applying method immutability tags...");
-			long startImmutabilityTagging = System.nanoTime();
-			tagPureMethods();
-			long stopImmutabilityTagging = System.nanoTime();
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applied method immutability tags in " + FORMAT.format((stopImmutabilityTagging-startImmutabilityTagging)/1000.0/1000.0) + " ms");
+		// summaries imported before the analysis seed (or if trusted fix) the qualifier sets of their references
+		ImportedSummaries importedSummaries = AnalysisUtilities.getImportedSummaries();
+		if(importedSummaries != null){
+			importedSummaries.setTrusted(configuration.isTrustedSummariesEnabled());
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Using " + importedSummaries.size() + " imported summaries (trusted=" + importedSummaries.isTrusted() + ")");
 		}
 		
 		boolean isSane = true;
-		if(ImmutabilityPreferences.isRunSanityChecksEnabled()){
-			Log.info("Running sanity checks...");
-			isSane = SanityChecks.run();
-			if(isSane){
-				Log.info("Sanity checks completed. Everything is sane.");
-			} else {
-				Log.warning("Sanity checks failed!");
+		SubMonitor progress = SubMonitor.convert(monitor, "Immutability Analysis", 100);
+		try {
+			progress.subTask("Adding dummy return assignments");
+			long startDummyAssignments = AnalysisMetrics.start();
+			AnalysisUtilities.addDummyReturnAssignments(progress.split(5));
+			AnalysisMetrics.record(Operation.ADD_DUMMY_ASSIGNMENTS, startDummyAssignments);
+			AnalysisUtilities.resetQualifierStore();
+			if(configuration.isLibrarySummariesEnabled()){
+				// library summaries are loaded as library references are encountered
+				AnalysisUtilities.setLibrarySummaries(new LibrarySummaries(LibrarySummaries.getDefaultPackDirectory()));
 			}
-		}
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Performing cleanup...");
-
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Removing Immutability Qualifier Sets...");
-		AtlasSet<Node> attributedNodes = Query.universe().selectNode(AnalysisUtilities.IMMUTABILITY_QUALIFIERS).eval().nodes();
-		AtlasHashSet<Node> attributedNodesToUnattribute = new AtlasHashSet<Node>(attributedNodes);
-		while(!attributedNodesToUnattribute.isEmpty()){
-			Node attributedNode = attributedNodesToUnattribute.one();
-			attributedNodesToUnattribute.remove(attributedNode);
-			attributedNode.removeAttr(AnalysisUtilities.IMMUTABILITY_QUALIFIERS);
-		}
-		
-		AnalysisUtilities.removeDummyReturnAssignments();
-		
-		// TODO: remove when there are appropriate alternatives
-		JimpleStopGap.removeDataFlowDisplayNodeTags();
-		JavaStopGap.removeClassVariableAccessTags();
-		
-		return isSane;
-	}
-
-	/**
-	 * Given a graph element, each inference rule (TNEW, TASSIGN, TWRITE, TREAD, TCALL) is checked
-	 * and unsatisfied qualifier types are removed or reduced (a new type may be added, but it will 
-	 * replace other types reducing the total number of types) from graph elements
-	 * 
-	 * @param workItem Returns true if any type qualifier sets changed
-	 * @return
-	 */
-	private static boolean applyInferenceRules(Node workItem) throws RuntimeException {
-		
-		boolean typesChanged = false;
-		
-		Q localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow);
-		Q interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow);
-		Q instanceVariableAccessedEdges = Query.universe().edges(XCSG.InstanceVariableAccessed);
-		Q identityPassedToEdges = Query.universe().edges(XCSG.IdentityPassedTo);
-
-		// consider data flow edges
-		// incoming edges represent a read relationship in an assignment
-		// outgoing edges represent a write relationship in an assignment
-		Node to = workItem;
-		AtlasSet<Edge> inEdges = localDataFlowEdges.reverseStep(Common.toQ(to)).eval().edges();
-		for(Edge edge : inEdges){
-			Node from = edge.from();
 
-			// process constraints for array component assignments
-			if(to.taggedWith(XCSG.ArrayWrite)){
-				for(Node toReference : AnalysisUtilities.parseReferences(to)){
-					// an assignment to an array component mutates the array
-					if(toReference.taggedWith(XCSG.ArrayComponents)){
-						Node arrayComponents = toReference;
-						Q arrayIdentityForEdges = Query.universe().edges(XCSG.ArrayIdentityFor);
-						Q arrayWrite = interproceduralDataFlowEdges.predecessors(Common.toQ(arrayComponents));
-						for(Node arrayIdentity : arrayIdentityForEdges.predecessors(arrayWrite).eval().nodes()){
-							if(ImmutabilityPreferences.isDebugLoggingEnabled()){
-								Log.info("Array components were updated which mutated array: " + arrayIdentity.getAttr(XCSG.name).toString());
-							}
-							// the array has been mutated
-							for(Node arrayReference : AnalysisUtilities.parseReferences(arrayIdentity)){
-								if(AnalysisUtilities.removeTypes(arrayReference, ImmutabilityTypes.READONLY)){
-									typesChanged = true;
-								}
-							}
-							// if the array is an instance variable then the object instance was mutated as well
-							if(arrayIdentity.taggedWith(XCSG.InstanceVariableValue)){
-								// TWRITE
-								// x.f[] = y
-								// Reference (x) -InstanceVariableAccessed-> InstanceVariableAccess (.f)
-								AtlasSet<Node> instanceVariablesAccessed = instanceVariableAccessedEdges.predecessors(Common.toQ(arrayIdentity)).eval().nodes();
-								for(Node instanceVariableAccessed : instanceVariablesAccessed){
-									for(Node x : AnalysisUtilities.parseReferences(instanceVariableAccessed)){
-										// x must be mutable
-										if (x.taggedWith(XCSG.InstanceVariable)) {
-											if (ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled()) {
-												addMutable(x); // doesn't count as a type change
-											}
-											if(ImmutabilityPreferences.isAllowDefaultMutableInstancesVariablesEnabled() || ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled()){
-												if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
-													if(ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled() && getTypes(x).isEmpty()){
-														addMutable(x);
-													}
-													typesChanged = true;
-												}
-											} else {
-												// vanilla paper description
-												if(removeTypes(x, ImmutabilityTypes.READONLY)){
-													typesChanged = true;
-												}
-											}
-										} else {
-											if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
-												typesChanged = true;
-											}
-										}
-		
-										// each instance containing x has been mutated as well
-										if(ImmutabilityPreferences.isContainerConsiderationEnabled()){
-											// TODO: should this be like a basic assignment constraint 
-											// between each parent container field or just all are not readonly???
-											// for now going with the latter since its easier to implement...
-											
-											for(Node container : AnalysisUtilities.getAccessedContainers(arrayIdentity)){
-												for(Node containerReference : AnalysisUtilities.parseReferences(container)){
-													if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
-														Log.info("A mutation to " + arrayIdentity.getAttr(XCSG.name).toString() + " mutated container " + containerReference.getAttr(XCSG.name).toString());
-													}
-													if(removeTypes(containerReference, ImmutabilityTypes.READONLY)){
-														typesChanged = true;
-													}
-												}
-											}
-										}
-									}
-								}
-							}
-							// if the array was a class variable then the method where the assignment happened is not pure
-							else if(arrayIdentity.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
-								// TSWRITE
-								// let, sf[] = x
-								AtlasSet<Node> sfReferences = AnalysisUtilities.parseReferences(arrayIdentity);
-								for(Node sf : sfReferences){
-									Node m = CommonQueries.getContainingFunction(arrayIdentity);
-									AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(from);
-									for(Node x : xReferences){
-										if(FieldAssignmentChecker.handleStaticFieldWrite(sf, x, m)){
-											typesChanged = true;
-										}
-									}
-								}
-							}
-							// local reference or parameter
-							else {
-								removeTypes(arrayIdentity, ImmutabilityTypes.POLYREAD);
-							}
-						}
-						continue; // no further constraints apply to this reference
-					}
-				}
-			}
+			// collect all assignments
+			// treating parameter passes as assignments (for all purposes they are...)
+			// this includes dummy return assignments which are fillers for providing 
+			// context sensitivity when the return value of a call is unused
+			Q assignments = Query.universe().nodes(XCSG.Assignment, XCSG.ParameterPass);
+			assignments = Common.resolve(progress.split(2), assignments);
 			
-			// process constraints for assignments to references
-			boolean involvesField = false;
-			boolean involvesCallsiteRHS = false;
+			// compile the inference rules that apply to each assignment into constraints
+			long startConstraintExtraction = System.nanoTime();
+			progress.subTask("Extracting constraints");
+			ConstraintSystem constraints = ConstraintExtractor.extract(assignments.eval().nodes(), configuration, progress.split(13));
+			long stopConstraintExtraction = System.nanoTime();
+			AnalysisMetrics.record(Operation.EXTRACT_CONSTRAINTS, startConstraintExtraction);
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Extracted " + constraints.size() + " constraints over " + constraints.getReferences().size() + " references in " + FORMAT.format((stopConstraintExtraction-startConstraintExtraction)/1000.0/1000.0) + " ms");
 			
-			// TWRITE
-			if(to.taggedWith(XCSG.InstanceVariableAssignment)){
-				// Type Rule 3 - TWRITE
-				// let, x.f = y
-				AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(from);
-				for(Node y : yReferences){
-					AtlasSet<Node> fReferences = AnalysisUtilities.parseReferences(to);
-					for(Node f : fReferences){
-						// Reference (x) -InstanceVariableAccessed-> InstanceVariableAssignment (f=)
-						Node instanceVariableAssignment = to; // (f=)
-						Node instanceVariableAccessed = instanceVariableAccessedEdges.predecessors(Common.toQ(instanceVariableAssignment)).eval().nodes().one();
-						AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(instanceVariableAccessed);
-						for(Node x : xReferences){
-							if(FieldAssignmentChecker.handleFieldWrite(x, f, y)){
-								typesChanged = true;
-							}
-							
-							if(ImmutabilityPreferences.isContainerConsiderationEnabled()){
-								if(to.taggedWith(XCSG.InstanceVariableAccess) && !getTypes(x).contains(ImmutabilityTypes.READONLY)){
-									// each instance containing x has been mutated as well
-									// TODO: should this be like a basic assignment constraint 
-									// between each parent container field or just all are not readonly???
-									// for now going with the latter since its easier to implement...
-									for(Node container : AnalysisUtilities.getAccessedContainers(to)){
-										for(Node containerReference : AnalysisUtilities.parseReferences(container)){
-											if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
-												Log.info("A mutation to " + to.getAttr(XCSG.name).toString() + " mutated container " + containerReference.getAttr(XCSG.name).toString());
-											}
-											if(removeTypes(containerReference, ImmutabilityTypes.READONLY)){
-												typesChanged = true;
-											}
-										}
-									}
-								}
-							}
-						}
-					}
+			ConstraintSolver solver = new ConstraintSolver(constraints, configuration);
+			IncrementalAnalysis incrementalAnalysis = null;
+			Checkpoint checkpoint = null;
+			if(resume){
+				// resume from the latest checkpoint of an interrupted run
+				checkpoint = new Checkpoint(constraints);
+				int iterations = checkpoint.restore();
+				if(iterations == Checkpoint.NOT_RESUMED){
+					// the checkpoint belongs to different options or constraints, solve from the defaults
+					Checkpoint.delete();
+				} else {
+					solver.setCompletedIterations(iterations);
+				}
+			} else if(configuration.isIncrementalAnalysisEnabled()){
+				// resume from the previous run's state if only some methods changed
+				incrementalAnalysis = new IncrementalAnalysis(constraints);
+				BitSet initialConstraints = incrementalAnalysis.restore();
+				if(initialConstraints != null){
+					solver.setInitialConstraints(initialConstraints);
 				}
-				involvesField = true;
 			}
-			
-			// TREAD
-			if(from.taggedWith(XCSG.InstanceVariableValue)){
-				// Type Rule 4 - TREAD
-				// let, x = y.f
-				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
-				for(Node x : xReferences){
-					AtlasSet<Node> fReferences = AnalysisUtilities.parseReferences(from);
-					for(Node f : fReferences){
-						// Reference (y) -InstanceVariableAccessed-> InstanceVariableValue (.f)
-						Node instanceVariableValue = from; // (.f)
-						Node instanceVariableAccessed = instanceVariableAccessedEdges.predecessors(Common.toQ(instanceVariableValue)).eval().nodes().one();
-						AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(instanceVariableAccessed);
-						for(Node y : yReferences){
-							if(FieldAssignmentChecker.handleFieldRead(x, y, f)){
-								typesChanged = true;
-							}
-						}
+			if(ImmutabilityPreferences.isCheckpointAnalysisEnabled()){
+				if(configuration.isAllowAddMutableInstanceVariablesEnabled()){
+					// adding types breaks the assumption that a checkpoint is an upper bound of the fixed point
+					Log.warning("Checkpoints are not supported when mutable types may be added to instance variables.");
+				} else {
+					if(checkpoint == null){
+						checkpoint = new Checkpoint(constraints, incrementalAnalysis);
 					}
+					solver.setIterationListener(checkpoint);
 				}
-				involvesField = true;
 			}
 			
-			// Type Rule 7 - TSREAD
-			// let, x = sf
-			if(from.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
-				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
-				for(Node x : xReferences){
-					Node m = CommonQueries.getContainingFunction(to);
-					AtlasSet<Node> sfReferences = AnalysisUtilities.parseReferences(from);
-					for(Node sf : sfReferences){
-						if(FieldAssignmentChecker.handleStaticFieldRead(x, sf, m)){
-							typesChanged = true;
-						}
-					}
+			// solve the constraints to a fixed point
+			solver.setProgressMonitor(progress.split(60));
+			long startSolving = AnalysisMetrics.start();
+			try {
+				solver.solve();
+				AnalysisMetrics.record(Operation.SOLVE_CONSTRAINTS, startSolving);
+			} catch (OperationCanceledException e){
+				if(checkpoint != null){
+					// qualifier sets only shrink, so a partially applied iteration can still be resumed
+					checkpoint.save(solver.getCompletedIterations());
 				}
-				involvesField = true;
+				throw e;
 			}
 			
-			// Type Rule 8 - TSWRITE
-			// let, sf = x
-			if(to.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
-				AtlasSet<Node> sfReferences = AnalysisUtilities.parseReferences(to);
-				for(Node sf : sfReferences){
-					Node m = CommonQueries.getContainingFunction(to);
-					AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(from);
-					for(Node x : xReferences){
-						if(FieldAssignmentChecker.handleStaticFieldWrite(sf, x, m)){
-							typesChanged = true;
-						}
-					}
-				}
-				involvesField = true;
-			}	
+			if(checkpoint != null){
+				// the fixed point was reached, there is nothing left to resume
+				Checkpoint.delete();
+			}
+			if(incrementalAnalysis != null){
+				incrementalAnalysis.save();
+			}
 			
-			// TCALL
-			if(from.taggedWith(XCSG.DynamicDispatchCallSite)){
-				// Type Rule 5 - TCALL
-				// let, x = y.m(z)
-				Node containingMethod = CommonQueries.getContainingFunction(to);
-				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
-				for(Node x : xReferences){
-					// I don't think we ever needed this, but adding it here for posterity 
-					// left possible hack here for posterity
-//					if(x.taggedWith(XCSG.InstanceVariable)){
-//						if (ImmutabilityPreferences.isAllowMutableInstancesVariablesEnabled()) {
-//							typesChanged = addMutable(x);
-//						}
-//					}
-					
-					Node callsite = from;
-//					// TODO: consider if this should be updated to use only the method signature
-//					// get the callsites invoked signature method
-//					Node method = Utilities.getInvokedMethodSignature(callsite);
-//					
-//					// Method (method) -Contains-> Identity
-//					Node identity = Common.toQ(method).children().nodes(XCSG.Identity).eval().nodes().one();
-//					
-//					// Method (method) -Contains-> ReturnValue (ret)
-//					Node ret = Common.toQ(method).children().nodes(XCSG.ReturnValue).eval().nodes().one();
-//					
-//					// IdentityPass (.this) -IdentityPassedTo-> CallSite (m)
-//					AtlasSet<Node> identityPassReferences = identityPassedToEdges.predecessors(Common.toQ(callsite)).eval().nodes();
-//					for(Node identityPass : identityPassReferences){
-//						// Receiver (r) -LocalDataFlow-> IdentityPass (.this)
-//						Node r = localDataFlowEdges.predecessors(Common.toQ(identityPass)).eval().nodes().one();
-//						AtlasSet<Node> yReferences = Utilities.parseReferences(r);
-//						for(Node y : yReferences){
-//							// Method (method) -Contains-> Parameter (p1, p2, ...)
-//							AtlasSet<Node> parameters = Common.toQ(method).children().nodes(XCSG.Parameter).eval().nodes();
-//							
-//							// ControlFlow -Contains-> CallSite
-//							// CallSite -Contains-> ParameterPassed (z1, z2, ...)
-//							AtlasSet<Node> parametersPassed = Common.toQ(callsite).parent().children().nodes(XCSG.ParameterPass).eval().nodes();
-//							
-//							// ParameterPassed (z1, z2, ...) -InterproceduralDataFlow-> Parameter (p1, p2, ...)
-//							// such that z1-InterproceduralDataFlow->p1, z2-InterproceduralDataFlow->p2, ...
-//							AtlasSet<Edge> parametersPassedEdges = interproceduralDataFlowEdges
-//									.betweenStep(Common.toQ(parametersPassed), Common.toQ(parameters)).eval().edges();
-//							
-//							if(CallChecker.handleCall(x, y, identity, method, ret, parametersPassedEdges, containingMethod)){
-//								typesChanged = true;
-//							}
-//						}
-//					}
-
-					// IdentityPass (.this) -IdentityPassedTo-> CallSite (m)
-					AtlasSet<Node> identityPassReferences = identityPassedToEdges.predecessors(Common.toQ(callsite)).eval().nodes();
-					for(Node identityPass : identityPassReferences){
-						// Receiver (receiver) -LocalDataFlow-> IdentityPass (.this)
-						Node reciever = localDataFlowEdges.predecessors(Common.toQ(identityPass)).eval().nodes().one();
-						AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(reciever);
-						for(Node y : yReferences){
-//							// if y is an instance variable it may need a mutable type
-//							if(y.taggedWith(XCSG.InstanceVariable)){
-//								if (ImmutabilityPreferences.isSetMutableInstancesVariablesEnabled()) {
-//									if(setMutable(y)){
-//										typesChanged = true;
-//									}
-//								}
-//							}
-							
-							// ReturnValue (ret) -InterproceduralDataFlow-> CallSite (m)
-							Node ret = interproceduralDataFlowEdges.predecessors(Common.toQ(callsite)).eval().nodes().one();
-
-							// Method (method) -Contains-> ReturnValue (ret)
-							Node method = Common.toQ(ret).parent().eval().nodes().one();
-							
-							// Method (method) -Contains-> Identity
-							// there should only be one identity node, but in case the graph is malformed this will act as an early prevention measure
-							// TODO: assert this property through a sanity check before running this computation
-							AtlasSet<Node> identities = Common.toQ(method).children().nodes(XCSG.Identity).eval().nodes();
-							for(Node identity : identities){
-								// Method (method) -Contains-> Parameter (p1, p2, ...)
-								AtlasSet<Node> parameters = Common.toQ(method).children().nodes(XCSG.Parameter).eval().nodes();
-								
-								// ControlFlow -Contains-> CallSite
-								// CallSite -Contains-> ParameterPassed (z1, z2, ...)
-								AtlasSet<Node> parametersPassed = Common.toQ(callsite).parent().children().nodes(XCSG.ParameterPass).eval().nodes();
-								
-								// ParameterPassed (z1, z2, ...) -InterproceduralDataFlow-> Parameter (p1, p2, ...)
-								// such that z1-InterproceduralDataFlow->p1, z2-InterproceduralDataFlow->p2, ...
-								AtlasSet<Edge> parametersPassedEdges = Query.universe().edges(XCSG.InterproceduralDataFlow)
-										.betweenStep(Common.toQ(parametersPassed), Common.toQ(parameters)).eval().edges();
-								
-								if(CallChecker.handleCall(x, y, identity, method, ret, parametersPassedEdges, containingMethod)){
-									typesChanged = true;
-								}
-								
-								if(ImmutabilityPreferences.isContainerConsiderationEnabled()){
-									if(reciever.taggedWith(XCSG.InstanceVariableAccess) && !getTypes(y).contains(ImmutabilityTypes.READONLY)){
-										// each instance containing x has been mutated as well
-										// TODO: should this be like a basic assignment constraint 
-										// between each parent container field or just all are not readonly???
-										// for now going with the latter since its easier to implement...
-										for(Node container : AnalysisUtilities.getAccessedContainers(reciever)){
-											for(Node containerReference : AnalysisUtilities.parseReferences(container)){
-												if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
-													Log.info("A mutation to " + reciever.getAttr(XCSG.name).toString() + " mutated container " + containerReference.getAttr(XCSG.name).toString());
-												}
-												if(removeTypes(containerReference, ImmutabilityTypes.READONLY)){
-													typesChanged = true;
-												}
-											}
-										}
-									}
-								}
-							}
-						}
+			if(ImmutabilityPreferences.isGenerateSummariesEnabled()){
+				// serialize immutability sets to Atlas tags
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Converting immutability sets into tags...");
+				progress.subTask("Converting immutability sets into tags");
+				long startTagConversion = AnalysisMetrics.start();
+				convertImmutabilityTypesToTags(progress.split(15));
+				AnalysisMetrics.record(Operation.CONVERT_TYPES_TO_TAGS, startTagConversion);
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Converted immutability sets into tags.");
+			
+				// serialize field and method tags
+				if(outputFile != null){
+					try {
+						SummaryUtilities.exportSummary(outputFile);
+					} catch (Exception e){
+						Log.error("Could not save summaries.", e);
+						DisplayUtils.showError(e, "Could not save summaries.");
 					}
 				}
-				involvesCallsiteRHS = true;
-			}
-			
-			// TSCALL
-			if(from.taggedWith(XCSG.StaticDispatchCallSite)){
-				// Type Rule 8 - TSCALL
-				// let, x = m(z)
-				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
-				for(Node x : xReferences){
-					Node callsite = from;
-
-					Node method = AnalysisUtilities.getInvokedMethodSignature(callsite);
-
-					// ReturnValue (ret) -InterproceduralDataFlow-> CallSite (m)
-					Node ret = interproceduralDataFlowEdges.predecessors(Common.toQ(callsite)).eval().nodes().one();
-					
-					// Method (method) -Contains-> Parameter (p1, p2, ...)
-					AtlasSet<Node> parameters = Common.toQ(method).children().nodes(XCSG.Parameter).eval().nodes();
-					
-					// ControlFlow -Contains-> CallSite
-					// CallSite -Contains-> ParameterPassed (z1, z2, ...)
-					AtlasSet<Node> parametersPassed = Common.toQ(callsite).parent().children().nodes(XCSG.ParameterPass).eval().nodes();
-					
-					// ParameterPassed (z1, z2, ...) -InterproceduralDataFlow-> Parameter (p1, p2, ...)
-					// such that z1-InterproceduralDataFlow->p1, z2-InterproceduralDataFlow->p2, ...
-					AtlasSet<Edge> parametersPassedEdges = Query.universe().edges(XCSG.InterproceduralDataFlow)
-							.betweenStep(Common.toQ(parametersPassed), Common.toQ(parameters)).eval().edges();
-
-					if(CallChecker.handleStaticCall(x, callsite, method, ret, parametersPassedEdges)){
-						typesChanged = true;
+				
+				// serialize the package summaries loaded by later analyses of programs using this code as a library
+				if(ImmutabilityPreferences.isExportSummaryPackEnabled()){
+					try {
+						SummaryUtilities.exportSummaryPack(LibrarySummaries.getDefaultPackDirectory());
+					} catch (Exception e){
+						Log.error("Could not save summary pack.", e);
+						DisplayUtils.showError(e, "Could not save summary pack.");
 					}
 				}
-				involvesCallsiteRHS = true;
+			} else {
+				// flattens the type hierarchy to the maximal types
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Extracting maximal types...");
+				long startExtraction = System.nanoTime();
+				progress.subTask("Extracting maximal types");
+				extractMaximalTypes(progress.split(10));
+				long stopExtraction = System.nanoTime();
+				AnalysisMetrics.record(Operation.EXTRACT_MAXIMAL_TYPES, startExtraction);
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Extracted maximal types in " + FORMAT.format((stopExtraction-startExtraction)/1000.0/1000.0) + " ms");
+			
+				// tags pure methods
+				// must be run after extractMaximalTypes
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applying method immutability tags...");
+				long startImmutabilityTagging = System.nanoTime();
+				progress.subTask("Tagging pure methods");
+				tagPureMethods(progress.split(5));
+				long stopImmutabilityTagging = System.nanoTime();
+				AnalysisMetrics.record(Operation.TAG_PURE_METHODS, startImmutabilityTagging);
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applied method immutability tags in " + FORMAT.format((stopImmutabilityTagging-startImmutabilityTagging)/1000.0/1000.0) + " ms");
 			}
 			
-			// Type Rule 2 - TASSIGN
-			// let x = y
-			if((!involvesField && !involvesCallsiteRHS) || to.taggedWith(XCSG.ParameterPass)){
-				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
-				for(Node x : xReferences){
-					AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(from);;
-					for(Node y : yReferences){
-						if(BasicAssignmentChecker.handleAssignment(x, y)){
-							typesChanged = true;
-						}
-					}
+			if(ImmutabilityPreferences.isRunSanityChecksEnabled()){
+				Log.info("Running sanity checks...");
+				progress.subTask("Running sanity checks");
+				long startSanityChecks = AnalysisMetrics.start();
+				isSane = SanityChecks.run(progress.split(5));
+				AnalysisMetrics.record(Operation.SANITY_CHECKS, startSanityChecks);
+				if(isSane){
+					Log.info("Sanity checks completed. Everything is sane.");
+				} else {
+					Log.warning("Sanity checks failed!");
 				}
 			}
+		} finally {
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Performing cleanup...");
+
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Removing Immutability Qualifier Sets...");
+			AnalysisUtilities.resetQualifierStore();
+			AnalysisUtilities.setLibrarySummaries(null);
+			AnalysisUtilities.setImportedSummaries(null);
+			AnalysisUtilities.setConfiguration(null);
+			
+			AnalysisUtilities.removeDummyReturnAssignments();
+			
+			// TODO: remove when there are appropriate alternatives
+			JimpleStopGap.removeDataFlowDisplayNodeTags();
+			JavaStopGap.removeClassVariableAccessTags();
+			progress.done();
 		}
-	
-		return typesChanged;
+		
+		return isSane;
 	}
-	
+
 	/**
 	 * Converts the immutability types to tags for partial program analysis
+	 * @param monitor
 	 */
-	private void convertImmutabilityTypesToTags(){
-		Q typesToExtract = Query.universe().selectNode(AnalysisUtilities.IMMUTABILITY_QUALIFIERS);
-		AtlasSet<Node> attributedNodes = Common.resolve(new NullProgressMonitor(), typesToExtract.eval()).nodes();
-		for(Node attributedNode : attributedNodes){
-			Set<ImmutabilityTypes> types = getTypes(attributedNode);
-			if(types.isEmpty()){
-				attributedNode.tag(ImmutabilityTags.UNTYPED);
-			} else {
-				for(ImmutabilityTypes type : types){
-					attributedNode.tag(type.toString());
-				}
-			}
-		}
-		
+	private void convertImmutabilityTypesToTags(IProgressMonitor monitor){
+		SubMonitor progress = SubMonitor.convert(monitor, 2);
+		QualifierStore store = AnalysisUtilities.getQualifierStore();
+		QualifierTags.tagQualifierSets(store, progress.split(1));
+		AtlasSet<Node> attributedNodes = store.getReferenceNodes();
 		AtlasSet<Node> itemsToTrack = getUntrackedItems(attributedNodes);
+		SubMonitor untrackedProgress = progress.split(1).setWorkRemaining((int) itemsToTrack.size());
 		for(Node untouchedTrackedItem : itemsToTrack){
+			untrackedProgress.split(1);
 			Set<ImmutabilityTypes> defaultTypes = AnalysisUtilities.getDefaultTypes(untouchedTrackedItem);
 			for(ImmutabilityTypes type : defaultTypes){
 				untouchedTrackedItem.tag(type.toString());
@@ -646,24 +330,17 @@ public class InferenceImmutabilityAnalysis extends ImmutabilityAnalysis {
 	/**
 	 * Flattens the remaining immutability qualifiers to the maximal type
 	 * and applies the maximal type as a tag
+	 * @param monitor
 	 */
-	private void extractMaximalTypes(){
-		Q typesToExtract = Query.universe().selectNode(AnalysisUtilities.IMMUTABILITY_QUALIFIERS);
-		AtlasSet<Node> attributedNodes = Common.resolve(new NullProgressMonitor(), typesToExtract.eval()).nodes();
-		for(Node attributedNode : attributedNodes){
-			Set<ImmutabilityTypes> types = getTypes(attributedNode);
-			ArrayList<ImmutabilityTypes> orderedTypes = new ArrayList<ImmutabilityTypes>(types.size());
-			orderedTypes.addAll(types);
-			if(orderedTypes.isEmpty()){
-				attributedNode.tag(ImmutabilityTags.UNTYPED);
-			} else {
-				Collections.sort(orderedTypes);
-				ImmutabilityTypes maximalType = orderedTypes.get(orderedTypes.size()-1);
-				attributedNode.tag(maximalType.toString());
-			}
-		}
+	private void extractMaximalTypes(IProgressMonitor monitor){
+		SubMonitor progress = SubMonitor.convert(monitor, 2);
+		QualifierStore store = AnalysisUtilities.getQualifierStore();
+		QualifierTags.tagMaximalTypes(store, progress.split(1));
+		AtlasSet<Node> attributedNodes = store.getReferenceNodes();
 		AtlasSet<Node> itemsToTrack = getUntrackedItems(attributedNodes);
+		SubMonitor untrackedProgress = progress.split(1).setWorkRemaining((int) itemsToTrack.size());
 		for(Node untouchedTrackedItem : itemsToTrack){
+			untrackedProgress.split(1);
 			ImmutabilityTypes maximalType = getDefaultMaximalType(untouchedTrackedItem);
 			untouchedTrackedItem.tag(maximalType.toString());
 		}
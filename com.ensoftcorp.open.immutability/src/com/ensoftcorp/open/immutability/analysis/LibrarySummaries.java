@@ -0,0 +1,280 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.Activator;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * Loads the summaries of library fields and methods on demand from a summary pack.
+ *
+ * A summary pack is a directory with one binary summary shard per package (see
+ * SummaryUtilities.exportSummaryPack). A shard is only opened the first time a
+ * field or method of its package is encountered, so only the packages a program
+ * actually uses are read. The qualifier sets of summarized library references
+ * are initialized from their summaries and the bodies of summarized library
+ * methods are not analyzed.
+ */
+public class LibrarySummaries {
+
+	/**
+	 * The name of the default summary pack directory in the plugin state location
+	 */
+	public static final String PACK_DIRECTORY = "summaries";
+
+	/**
+	 * The summary of a method in a loaded shard
+	 */
+	private static class SummarizedMethod {
+		private BinarySummaryReader shard;
+		private int record;
+
+		private SummarizedMethod(BinarySummaryReader shard, int record){
+			this.shard = shard;
+			this.record = record;
+		}
+	}
+
+	private static final SummarizedMethod NOT_SUMMARIZED = new SummarizedMethod(null, -1);
+
+	/**
+	 * The records of a loaded shard indexed by their kind, class and name or signature
+	 */
+	private static class Shard {
+		private BinarySummaryReader summary;
+		private HashMap<String,Integer> fields = new HashMap<String,Integer>();
+		private HashMap<String,Integer> methods = new HashMap<String,Integer>();
+
+		private Shard(BinarySummaryReader summary){
+			this.summary = summary;
+			for(int field=0; field<summary.getFieldCount(); field++){
+				fields.put(getKey(summary.getFieldKind(field), summary.getFieldClass(field), summary.getFieldName(field)), field);
+			}
+			for(int method=0; method<summary.getMethodCount(); method++){
+				methods.put(getKey(summary.getMethodKind(method), summary.getMethodClass(method), summary.getMethodSignature(method)), method);
+			}
+		}
+	}
+
+	private File directory;
+	private HashSet<Node> libraryPackages = new HashSet<Node>();
+	private HashMap<Node,Node> typePackages = new HashMap<Node,Node>();
+	private HashMap<String,Shard> shards = new HashMap<String,Shard>();
+	private HashMap<Node,SummarizedMethod> methods = new HashMap<Node,SummarizedMethod>();
+
+	private int summarizedMethods = 0;
+	private int summarizedFields = 0;
+
+	/**
+	 * Loads library summaries from the given summary pack directory
+	 * @param directory
+	 */
+	public LibrarySummaries(File directory){
+		this.directory = directory;
+		for(Node pkg : Query.universe().nodes(XCSG.Library).contained().nodes(XCSG.Package).eval().nodes()){
+			libraryPackages.add(pkg);
+		}
+		if(!directory.isDirectory()){
+			Log.warning("Library summary pack " + directory.getAbsolutePath() + " does not exist, library summaries will not be loaded.");
+		}
+	}
+
+	/**
+	 * Returns the default summary pack directory
+	 * @return
+	 */
+	public static File getDefaultPackDirectory(){
+		return Activator.getDefault().getStateLocation().append(PACK_DIRECTORY).toFile();
+	}
+
+	/**
+	 * Returns the shard file of the given package in the given summary pack directory
+	 * @param directory
+	 * @param pkg
+	 * @return
+	 */
+	public static File getShardFile(File directory, String pkg){
+		String name = pkg.isEmpty() ? "_default" : pkg.replaceAll("[^A-Za-z0-9._$-]", "_");
+		return new File(directory, name + "." + BinarySummaryReader.EXTENSION);
+	}
+
+	private static String getKey(String kind, String parentClass, String name){
+		return kind + "|" + parentClass + "|" + name;
+	}
+
+	/**
+	 * Returns the initial qualifier set bit mask of the given reference, the summarized
+	 * qualifiers of library fields, methods, identities, parameters and return values
+	 * restricted to the given default qualifiers, otherwise the default qualifiers
+	 * @param reference
+	 * @param defaultMask
+	 * @return
+	 */
+	public synchronized byte getInitialMask(Node reference, byte defaultMask){
+		int summaryMask = 0;
+		if(reference.taggedWith(XCSG.Field)){
+			summaryMask = getFieldMask(reference);
+		} else if(reference.taggedWith(XCSG.Method)){
+			SummarizedMethod method = getSummarizedMethod(reference);
+			if(method != NOT_SUMMARIZED){
+				summaryMask = method.shard.getMethodQualifiers(method.record);
+			}
+		} else if(reference.taggedWith(XCSG.Identity) || reference.taggedWith(XCSG.Parameter) || reference.taggedWith(XCSG.ReturnValue)){
+			Node parent = Common.toQ(reference).parent().eval().nodes().one();
+			if(parent != null && parent.taggedWith(XCSG.Method)){
+				SummarizedMethod method = getSummarizedMethod(parent);
+				if(method != NOT_SUMMARIZED){
+					summaryMask = getMethodReferenceMask(method, reference);
+				}
+			}
+		}
+		byte mask = (byte) (summaryMask & defaultMask);
+		if(mask == 0){
+			if(summaryMask != 0 && ImmutabilityPreferences.isDebugLoggingEnabled()){
+				Log.info("Ignoring library summary that is disjoint from the default types of " + reference.address().toAddressString());
+			}
+			return defaultMask;
+		}
+		return mask;
+	}
+
+	private int getMethodReferenceMask(SummarizedMethod method, Node reference){
+		BinarySummaryReader shard = method.shard;
+		if(reference.taggedWith(XCSG.Identity)){
+			return shard.hasIdentity(method.record) ? shard.getIdentityQualifiers(method.record) : 0;
+		} else if(reference.taggedWith(XCSG.ReturnValue)){
+			return shard.hasReturn(method.record) ? shard.getReturnQualifiers(method.record) : 0;
+		} else {
+			Object parameterIndex = reference.getAttr(XCSG.parameterIndex);
+			if(parameterIndex != null){
+				int index = Integer.parseInt(parameterIndex.toString());
+				if(index >= 0 && index < shard.getParameterCount(method.record)){
+					return shard.getParameterQualifiers(method.record, index);
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns true if the given method is a library method with a loaded summary,
+	 * the summary shard of the method's package is loaded if it has not been loaded
+	 * @param method
+	 * @return
+	 */
+	public synchronized boolean isSummarized(Node method){
+		return getSummarizedMethod(method) != NOT_SUMMARIZED;
+	}
+
+	private SummarizedMethod getSummarizedMethod(Node method){
+		SummarizedMethod summarizedMethod = methods.get(method);
+		if(summarizedMethod == null){
+			summarizedMethod = NOT_SUMMARIZED;
+			String kind = SummaryRecords.getMethodKind(method);
+			Object signature = method.getAttr(JavaStopGap.SIGNATURE);
+			Node parentClass = Common.toQ(method).parent().eval().nodes().one();
+			if(kind != null && signature != null && parentClass != null){
+				Shard shard = getShard(parentClass);
+				if(shard != null){
+					Integer record = shard.methods.get(getKey(kind, parentClass.getAttr(XCSG.name).toString(), signature.toString()));
+					if(record != null){
+						summarizedMethod = new SummarizedMethod(shard.summary, record);
+						summarizedMethods++;
+					}
+				}
+			}
+			methods.put(method, summarizedMethod);
+		}
+		return summarizedMethod;
+	}
+
+	private int getFieldMask(Node field){
+		String kind = SummaryRecords.getFieldKind(field);
+		Node parentClass = Common.toQ(field).parent().eval().nodes().one();
+		if(kind != null && parentClass != null){
+			Shard shard = getShard(parentClass);
+			if(shard != null){
+				Integer record = shard.fields.get(getKey(kind, parentClass.getAttr(XCSG.name).toString(), field.getAttr(XCSG.name).toString()));
+				if(record != null){
+					summarizedFields++;
+					return shard.summary.getFieldQualifiers(record);
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the shard of the library package of the given type or null
+	 * @param type
+	 * @return
+	 */
+	private Shard getShard(Node type){
+		Node pkg;
+		if(typePackages.containsKey(type)){
+			pkg = typePackages.get(type);
+		} else {
+			pkg = Common.toQ(type).containers().nodes(XCSG.Package).eval().nodes().one();
+			typePackages.put(type, pkg);
+		}
+		if(pkg == null || !libraryPackages.contains(pkg)){
+			return null;
+		}
+		String pkgName = pkg.getAttr(XCSG.name).toString();
+		if(shards.containsKey(pkgName)){
+			return shards.get(pkgName);
+		}
+		Shard shard = null;
+		File shardFile = getShardFile(directory, pkgName);
+		if(shardFile.exists()){
+			try {
+				shard = new Shard(BinarySummaryReader.open(shardFile));
+				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Loaded library summaries of package " + pkgName);
+			} catch (IOException e){
+				Log.warning("Could not load library summaries of package " + pkgName + " from " + shardFile.getAbsolutePath(), e);
+			}
+		}
+		shards.put(pkgName, shard);
+		return shard;
+	}
+
+	/**
+	 * Returns the number of summary shards that were loaded
+	 * @return
+	 */
+	public synchronized int getLoadedShardCount(){
+		int loaded = 0;
+		for(Shard shard : shards.values()){
+			if(shard != null){
+				loaded++;
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * Returns the number of library methods with a loaded summary
+	 * @return
+	 */
+	public synchronized int getSummarizedMethodCount(){
+		return summarizedMethods;
+	}
+
+	/**
+	 * Returns the number of library fields initialized from a summary
+	 * @return
+	 */
+	public synchronized int getSummarizedFieldCount(){
+		return summarizedFields;
+	}
+
+}
@@ -0,0 +1,333 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+import com.ensoftcorp.open.jimple.commons.wishful.JimpleStopGap;
+
+/**
+ * Classifies the nodes seen by the analysis into compact kind codes.
+ *
+ * A node is classified once with a single pass over its tags and the kind is cached,
+ * so reference parsing, default qualifier initialization and the inference rules
+ * can dispatch on the kind instead of repeating chains of tag lookups. Typable
+ * references (see AnalysisUtilities.isTypable) have a typable kind, nodes that must
+ * be resolved to typable references (see AnalysisUtilities.parseReferences) have a
+ * parsed kind.
+ */
+public class NodeKinds {
+
+	/////////////////////// typable kinds ///////////////////////
+
+	/**
+	 * Dummy assignment or return value nodes
+	 */
+	public static final byte DUMMY = 1;
+
+	/**
+	 * The null literal
+	 */
+	public static final byte NULL = 2;
+
+	/**
+	 * Literals and types (type literals)
+	 */
+	public static final byte LITERAL = 3;
+
+	/**
+	 * Object and array instantiations
+	 */
+	public static final byte INSTANTIATION = 4;
+
+	/**
+	 * Method return values
+	 */
+	public static final byte RETURN_VALUE = 5;
+
+	/**
+	 * Formal parameters
+	 */
+	public static final byte PARAMETER = 6;
+
+	/**
+	 * Method identities (this)
+	 */
+	public static final byte IDENTITY = 7;
+
+	/**
+	 * Instance variables (fields)
+	 */
+	public static final byte INSTANCE_VARIABLE = 8;
+
+	/**
+	 * Class variables (static fields)
+	 */
+	public static final byte CLASS_VARIABLE = 9;
+
+	/**
+	 * Methods
+	 */
+	public static final byte METHOD = 10;
+
+	/**
+	 * Results of operators
+	 */
+	public static final byte OPERATOR = 11;
+
+	/**
+	 * Array components
+	 */
+	public static final byte ARRAY_COMPONENTS = 12;
+
+	/**
+	 * Caught exceptions
+	 */
+	public static final byte CAUGHT_VALUE = 13;
+
+	/**
+	 * Elements taken from collections (for each loops)
+	 */
+	public static final byte ELEMENT_FROM_COLLECTION = 14;
+
+	/**
+	 * Parameter passes
+	 */
+	public static final byte PARAMETER_PASS = 15;
+
+	/**
+	 * Assignments to local references
+	 */
+	public static final byte LOCAL_ASSIGNMENT = 16;
+
+	/////////////////////// parsed kinds ///////////////////////
+
+	/**
+	 * Casts, resolved to the references being cast
+	 */
+	public static final byte CAST = 32;
+
+	/**
+	 * Jimple data flow display nodes, resolved to the references they display
+	 */
+	public static final byte DATAFLOW_DISPLAY_NODE = 33;
+
+	/**
+	 * Callsites, resolved to the return value of the invoked method
+	 */
+	public static final byte CALLSITE = 34;
+
+	/**
+	 * Instance and class variable assignments, resolved to the assigned field
+	 */
+	public static final byte VARIABLE_ASSIGNMENT = 35;
+
+	/**
+	 * Instance variable values, resolved to the read field
+	 */
+	public static final byte INSTANCE_VARIABLE_VALUE = 36;
+
+	/**
+	 * Class variable values, resolved to the read static field
+	 */
+	public static final byte CLASS_VARIABLE_VALUE = 37;
+
+	/**
+	 * Array writes, resolved to the written array components
+	 */
+	public static final byte ARRAY_WRITE = 38;
+
+	/**
+	 * Array reads, resolved to the read array components
+	 */
+	public static final byte ARRAY_READ = 39;
+
+	/**
+	 * Any other node that is not typable
+	 */
+	public static final byte UNHANDLED = 40;
+
+	/**
+	 * The kind of nodes that are not typable, returned by classifyReference
+	 */
+	public static final byte NOT_TYPABLE = 0;
+
+	private static final byte FIRST_PARSED_KIND = CAST;
+
+	/**
+	 * The classified nodes, kinds only depend on tags so the cache is only
+	 * invalidated when dummy nodes are added or removed
+	 */
+	private static ConcurrentHashMap<Node,Byte> kinds = new ConcurrentHashMap<Node,Byte>();
+
+	/**
+	 * Discards the cached node kinds
+	 */
+	public static void clearCache(){
+		kinds = new ConcurrentHashMap<Node,Byte>();
+	}
+
+	/**
+	 * Returns the kind of the given node, classifying the node if it has not been seen before
+	 * @param node
+	 * @return
+	 */
+	public static byte getKind(Node node){
+		ConcurrentHashMap<Node,Byte> cache = kinds;
+		Byte kind = cache.get(node);
+		if(kind == null){
+			kind = classify(node);
+			cache.put(node, kind);
+		}
+		return kind;
+	}
+
+	/**
+	 * Returns the typable kind of the given node or NOT_TYPABLE, unlike getKind
+	 * this returns the typable kind of casts, callsites and display nodes that
+	 * are otherwise always resolved to the references they represent
+	 * @param node
+	 * @return
+	 */
+	public static byte getReferenceKind(Node node){
+		byte kind = getKind(node);
+		if(kind == CAST || kind == DATAFLOW_DISPLAY_NODE || kind == CALLSITE){
+			return classifyReference(node);
+		}
+		return isTypable(kind) ? kind : NOT_TYPABLE;
+	}
+
+	/**
+	 * Returns true if the given kind is a typable reference kind
+	 * @param kind
+	 * @return
+	 */
+	public static boolean isTypable(byte kind){
+		return kind != NOT_TYPABLE && kind < FIRST_PARSED_KIND;
+	}
+
+	/**
+	 * Returns true if nodes of the given kind must be resolved to typable references
+	 * @param kind
+	 * @return
+	 */
+	public static boolean needsProcessing(byte kind){
+		return kind >= FIRST_PARSED_KIND;
+	}
+
+	/**
+	 * Classifies the given node, nodes that need processing are classified
+	 * by how they are resolved, all other nodes by their typable kind
+	 * @param node
+	 * @return
+	 */
+	private static byte classify(Node node){
+		boolean forcedProcessing = node.taggedWith(JimpleStopGap.DATAFLOW_DISPLAY_NODE)
+				|| node.taggedWith(XCSG.Cast)
+				|| node.taggedWith(XCSG.CallSite);
+		if(!forcedProcessing){
+			byte kind = classifyReference(node);
+			if(kind != NOT_TYPABLE){
+				return kind;
+			}
+		}
+
+		// in the order the references are resolved
+		if(node.taggedWith(XCSG.Cast)){
+			return CAST;
+		}
+		if(node.taggedWith(JimpleStopGap.DATAFLOW_DISPLAY_NODE)){
+			return DATAFLOW_DISPLAY_NODE;
+		}
+		if(node.taggedWith(XCSG.CallSite)){
+			return CALLSITE;
+		}
+		if(node.taggedWith(XCSG.InstanceVariableAssignment) || node.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
+			return VARIABLE_ASSIGNMENT;
+		}
+		if(node.taggedWith(XCSG.InstanceVariableValue)){
+			return INSTANCE_VARIABLE_VALUE;
+		}
+		if(node.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
+			return CLASS_VARIABLE_VALUE;
+		}
+		if(node.taggedWith(XCSG.ArrayWrite)){
+			return ARRAY_WRITE;
+		}
+		if(node.taggedWith(XCSG.ArrayRead)){
+			return ARRAY_READ;
+		}
+		return UNHANDLED;
+	}
+
+	/**
+	 * Returns the typable kind of the given node or NOT_TYPABLE, the typable
+	 * kinds are checked in the order that determines a node's default types
+	 * @param node
+	 * @return
+	 */
+	public static byte classifyReference(Node node){
+		// invalid types
+		if(node.taggedWith(XCSG.InstanceVariableAccess) || node.taggedWith(JavaStopGap.CLASS_VARIABLE_ACCESS)){
+			return NOT_TYPABLE;
+		}
+		if(node.taggedWith(XCSG.ArrayAccess)){
+			return NOT_TYPABLE;
+		}
+
+		// valid types
+		if(node.taggedWith(AnalysisUtilities.DUMMY_ASSIGNMENT_NODE) || node.taggedWith(AnalysisUtilities.DUMMY_RETURN_NODE)){
+			return DUMMY;
+		}
+		if(node.taggedWith(XCSG.Null)){
+			return NULL;
+		}
+		if(node.taggedWith(XCSG.Literal) || node.taggedWith(XCSG.Type)){
+			return LITERAL;
+		}
+		if(node.taggedWith(XCSG.Instantiation) || node.taggedWith(XCSG.ArrayInstantiation)){
+			return INSTANTIATION;
+		}
+		if(node.taggedWith(XCSG.ReturnValue)){
+			return RETURN_VALUE;
+		}
+		if(node.taggedWith(XCSG.Parameter)){
+			return PARAMETER;
+		}
+		if(node.taggedWith(XCSG.Identity)){
+			return IDENTITY;
+		}
+		if(node.taggedWith(XCSG.InstanceVariable)){
+			return INSTANCE_VARIABLE;
+		}
+		if(node.taggedWith(XCSG.ClassVariable)){
+			return CLASS_VARIABLE;
+		}
+		if(node.taggedWith(XCSG.Method)){
+			return METHOD;
+		}
+		if(node.taggedWith(XCSG.Operator)){
+			return OPERATOR;
+		}
+		if(node.taggedWith(XCSG.ArrayComponents)){
+			return ARRAY_COMPONENTS;
+		}
+		if(node.taggedWith(XCSG.CaughtValue)){
+			return CAUGHT_VALUE;
+		}
+		if(node.taggedWith(XCSG.ElementFromCollection)){
+			return ELEMENT_FROM_COLLECTION;
+		}
+		if(node.taggedWith(XCSG.ParameterPass)){
+			return PARAMETER_PASS;
+		}
+		if(node.taggedWith(XCSG.Assignment)){
+			if(!node.taggedWith(XCSG.InstanceVariableAssignment) && !node.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
+				return LOCAL_ASSIGNMENT;
+			}
+		}
+		return NOT_TYPABLE;
+	}
+
+}
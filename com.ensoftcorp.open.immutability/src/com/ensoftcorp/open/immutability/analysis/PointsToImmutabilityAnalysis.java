@@ -40,6 +40,8 @@ public class PointsToImmutabilityAnalysis extends ImmutabilityAnalysis {
 //			Q context = SetDefinitions.app(); // only consider mutations inside the application
 			Q context = Query.universe();
 			
+			AnalysisUtilities.resetQualifierStore();
+			
 			Q specialInstantiations = Query.universe().nodes(XCSG.Java.EnumConstant).difference(Query.universe().nodes(XCSG.Null));
 			Q objectInstantiations = Query.universe().nodes(XCSG.Instantiation, XCSG.ArrayInstantiation).union(specialInstantiations);
 			Q instanceVariableWrittenEdges = Query.universe().edges(XCSG.InstanceVariableWritten);
@@ -75,10 +77,13 @@ public class PointsToImmutabilityAnalysis extends ImmutabilityAnalysis {
 			// must be run after extractMaximalTypes
 			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applying method immutability tags...");
 			long startImmutabilityTagging = System.nanoTime();
-			tagPureMethods();
+			tagPureMethods(monitor);
 			long stopImmutabilityTagging = System.nanoTime();
 			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Applied method immutability tags in " + FORMAT.format((stopImmutabilityTagging-startImmutabilityTagging)/1000.0/1000.0) + " ms");
 			
+			// discard the immutability qualifier sets
+			AnalysisUtilities.resetQualifierStore();
+			
 			// sanity checks
 			boolean isSane = true;
 			
@@ -132,7 +137,7 @@ public class PointsToImmutabilityAnalysis extends ImmutabilityAnalysis {
 	 */
 	private void extractMaximalTypes(){
 		Q methods = Query.universe().nodes(XCSG.Method);
-		Q typesToExtract = Query.universe().selectNode(AnalysisUtilities.IMMUTABILITY_QUALIFIERS).difference(methods);
+		Q typesToExtract = Common.toQ(AnalysisUtilities.getQualifierStore().getReferenceNodes()).difference(methods);
 		AtlasSet<Node> attributedNodes = Common.resolve(new NullProgressMonitor(), typesToExtract.eval()).nodes();
 		for(Node attributedNode : attributedNodes){
 			Set<ImmutabilityTypes> types = getTypes(attributedNode);
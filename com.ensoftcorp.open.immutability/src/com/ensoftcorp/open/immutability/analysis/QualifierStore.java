@@ -0,0 +1,258 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasHashSet;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.open.immutability.analysis.constraints.References;
+
+/**
+ * A dense store of the potential immutability qualifiers of each typed reference.
+ * Each reference is assigned a compact id and its qualifier set is packed as a 
+ * bit mask (see ImmutabilityTypes.getMask()) into one byte lane of an atomic int, 
+ * so no per-reference objects or graph attributes are needed during the analysis.
+ * 
+ * Qualifier sets are updated with compare-and-set so references may be 
+ * read and updated concurrently by the parallel constraint solver.
+ */
+public class QualifierStore {
+
+	/**
+	 * Each page holds 2^PAGE_BITS qualifier sets, pages are never moved once allocated
+	 */
+	private static final int PAGE_BITS = 14;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	
+	/**
+	 * Qualifier sets are packed 4 to an int, one per byte lane
+	 */
+	private static final int LANES = 4;
+	private static final int LANE_MASK = 0xFF;
+	
+	private References references = new References();
+	private volatile AtomicIntegerArray[] pages = new AtomicIntegerArray[]{ newPage() };
+	
+	/**
+	 * The node kind of each reference (see NodeKinds), paged like the qualifier sets
+	 */
+	private volatile byte[][] kindPages = new byte[][]{ new byte[PAGE_SIZE] };
+	
+	/**
+	 * Whether each reference is a fixed boundary type, paged like the qualifier sets
+	 */
+	private volatile boolean[][] fixedPages = new boolean[][]{ new boolean[PAGE_SIZE] };
+	
+	private static AtomicIntegerArray newPage(){
+		return new AtomicIntegerArray(PAGE_SIZE / LANES);
+	}
+	
+	/**
+	 * Returns the table of reference ids used by this store
+	 * @return
+	 */
+	public References getReferences(){
+		return references;
+	}
+	
+	/**
+	 * Returns the id of the given reference, initializing the reference to its 
+	 * default (or summarized) qualifier set if it has not been stored before
+	 * @param reference
+	 * @return
+	 */
+	public int getId(Node reference){
+		int id = references.findId(reference);
+		if(id == References.NONE){
+			byte mask = AnalysisUtilities.getInitialTypesMask(reference);
+			byte kind = NodeKinds.getReferenceKind(reference);
+			boolean fixed = AnalysisUtilities.isFixedType(reference);
+			synchronized(this){
+				id = references.findId(reference);
+				if(id == References.NONE){
+					// the qualifier set is stored before the id is published 
+					// so concurrent readers never observe an uninitialized set
+					id = references.size();
+					ensureCapacity(id);
+					setMask(id, mask);
+					kindPages[id >>> PAGE_BITS][id & PAGE_MASK] = kind;
+					fixedPages[id >>> PAGE_BITS][id & PAGE_MASK] = fixed;
+					references.getId(reference);
+				}
+			}
+		}
+		return id;
+	}
+	
+	private void ensureCapacity(int id){
+		int page = id >>> PAGE_BITS;
+		if(page >= pages.length){
+			AtomicIntegerArray[] grown = Arrays.copyOf(pages, Math.max(pages.length * 2, page + 1));
+			for(int i=pages.length; i<grown.length; i++){
+				grown[i] = newPage();
+			}
+			pages = grown;
+			byte[][] grownKinds = Arrays.copyOf(kindPages, grown.length);
+			for(int i=kindPages.length; i<grownKinds.length; i++){
+				grownKinds[i] = new byte[PAGE_SIZE];
+			}
+			kindPages = grownKinds;
+			boolean[][] grownFixed = Arrays.copyOf(fixedPages, grown.length);
+			for(int i=fixedPages.length; i<grownFixed.length; i++){
+				grownFixed[i] = new boolean[PAGE_SIZE];
+			}
+			fixedPages = grownFixed;
+		}
+	}
+	
+	/**
+	 * Returns true if the given reference has a stored qualifier set
+	 * @param reference
+	 * @return
+	 */
+	public boolean contains(Node reference){
+		return references.findId(reference) != References.NONE;
+	}
+	
+	/**
+	 * Returns the qualifier set bit mask of the given reference
+	 * @param reference
+	 * @return
+	 */
+	public byte getMask(Node reference){
+		return getMask(getId(reference));
+	}
+	
+	/**
+	 * Returns the qualifier set bit mask of the reference with the given id
+	 * @param id
+	 * @return
+	 */
+	public byte getMask(int id){
+		int word = pages[id >>> PAGE_BITS].get((id & PAGE_MASK) / LANES);
+		return (byte) ((word >>> getShift(id)) & LANE_MASK);
+	}
+	
+	/**
+	 * Returns the node kind (see NodeKinds) of the reference with the given id
+	 * @param id
+	 * @return
+	 */
+	public byte getKind(int id){
+		return kindPages[id >>> PAGE_BITS][id & PAGE_MASK];
+	}
+	
+	/**
+	 * Returns true if the reference with the given id is a fixed boundary type,
+	 * the qualifier sets of fixed references are never updated
+	 * @param id
+	 * @return
+	 */
+	public boolean isFixed(int id){
+		return fixedPages[id >>> PAGE_BITS][id & PAGE_MASK];
+	}
+	
+	/**
+	 * Sets the qualifier set bit mask of the reference with the given id
+	 * @param id
+	 * @param mask
+	 */
+	public void setMask(int id, byte mask){
+		update(id, (byte) ~0, mask);
+	}
+	
+	/**
+	 * Atomically removes the types in the given bit mask from the 
+	 * qualifier set of the reference with the given id
+	 * @param id
+	 * @param typesToRemove
+	 * @return Returns the qualifier set bit masks before and after the removal (see getBefore and getAfter)
+	 */
+	public int removeMask(int id, byte typesToRemove){
+		return update(id, typesToRemove, (byte) 0);
+	}
+	
+	/**
+	 * Atomically adds the types in the given bit mask to the 
+	 * qualifier set of the reference with the given id
+	 * @param id
+	 * @param typesToAdd
+	 * @return Returns the qualifier set bit masks before and after the addition (see getBefore and getAfter)
+	 */
+	public int addMask(int id, byte typesToAdd){
+		return update(id, (byte) 0, typesToAdd);
+	}
+	
+	/**
+	 * Returns the qualifier set bit mask before an update
+	 * @param update The result of removeMask or addMask
+	 * @return
+	 */
+	public static byte getBefore(int update){
+		return (byte) (update & LANE_MASK);
+	}
+	
+	/**
+	 * Returns the qualifier set bit mask after an update, the mask is unchanged
+	 * if the update had no effect or the reference is a fixed boundary type
+	 * @param update The result of removeMask or addMask
+	 * @return
+	 */
+	public static byte getAfter(int update){
+		return (byte) ((update >>> 8) & LANE_MASK);
+	}
+	
+	/**
+	 * Clears the cleared bits and then sets the set bits of a qualifier set with compare-and-set
+	 * @param id
+	 * @param cleared
+	 * @param set
+	 * @return Returns the qualifier set bit masks before (low byte) and after (second byte) the update
+	 */
+	private int update(int id, byte cleared, byte set){
+		AtomicIntegerArray page = pages[id >>> PAGE_BITS];
+		int index = (id & PAGE_MASK) / LANES;
+		int shift = getShift(id);
+		if(fixedPages[id >>> PAGE_BITS][id & PAGE_MASK]){
+			// trusted summaries are boundary types of the fixed point, they never change
+			int mask = (page.get(index) >>> shift) & LANE_MASK;
+			return mask | (mask << 8);
+		}
+		int clearedBits = (cleared & LANE_MASK) << shift;
+		int setBits = (set & LANE_MASK) << shift;
+		while(true){
+			int word = page.get(index);
+			int result = (word & ~clearedBits) | setBits;
+			if(result == word || page.compareAndSet(index, word, result)){
+				return ((word >>> shift) & LANE_MASK) | (((result >>> shift) & LANE_MASK) << 8);
+			}
+		}
+	}
+	
+	private static int getShift(int id){
+		return (id % LANES) * 8;
+	}
+	
+	/**
+	 * Returns the number of stored references
+	 * @return
+	 */
+	public int size(){
+		return references.size();
+	}
+	
+	/**
+	 * Returns the set of references with a stored qualifier set
+	 * @return
+	 */
+	public AtlasSet<Node> getReferenceNodes(){
+		AtlasSet<Node> nodes = new AtlasHashSet<Node>();
+		for(int id=0; id<references.size(); id++){
+			nodes.add(references.getNode(id));
+		}
+		return nodes;
+	}
+	
+}
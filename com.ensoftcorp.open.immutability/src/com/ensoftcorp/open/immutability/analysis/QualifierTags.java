@@ -0,0 +1,126 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.EnumSet;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.open.immutability.analysis.constraints.References;
+import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
+
+/**
+ * Materializes the solved qualifier sets of a qualifier store as tags.
+ *
+ * There are only eight possible qualifier set bit masks, so the tags of each mask
+ * are computed once up front (the maximal type of a mask is its highest bit, since
+ * the bits are ordered by the subtype relationship) and the stored references are
+ * grouped by mask in a single pass over the store before the tags are applied one
+ * group at a time.
+ */
+public class QualifierTags {
+
+	private static final int MASKS = 1 << ImmutabilityTypes.values().length;
+
+	private static final String[] MAXIMAL_TAGS = new String[MASKS];
+	private static final String[][] QUALIFIER_SET_TAGS = new String[MASKS][];
+
+	static {
+		ImmutabilityTypes[] types = ImmutabilityTypes.values();
+		for(int mask=0; mask<MASKS; mask++){
+			if(mask == 0){
+				MAXIMAL_TAGS[mask] = ImmutabilityTags.UNTYPED;
+				QUALIFIER_SET_TAGS[mask] = new String[]{ ImmutabilityTags.UNTYPED };
+			} else {
+				// MUTABLE <: POLYREAD <: READONLY, so the highest bit is the maximal type
+				MAXIMAL_TAGS[mask] = types[31 - Integer.numberOfLeadingZeros(mask)].toString();
+				EnumSet<ImmutabilityTypes> maskTypes = ImmutabilityTypes.fromMask((byte) mask);
+				String[] tags = new String[maskTypes.size()];
+				int index = 0;
+				for(ImmutabilityTypes type : maskTypes){
+					tags[index++] = type.toString();
+				}
+				QUALIFIER_SET_TAGS[mask] = tags;
+			}
+		}
+	}
+
+	/**
+	 * Returns the tag of the maximal type of the given qualifier set bit mask
+	 * or the untyped tag if the qualifier set is empty
+	 * @param mask
+	 * @return
+	 */
+	public static String getMaximalTag(byte mask){
+		return MAXIMAL_TAGS[mask & (MASKS - 1)];
+	}
+
+	/**
+	 * Tags each reference in the given store with the maximal type of its qualifier set
+	 * @param store
+	 * @param monitor
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static void tagMaximalTypes(QualifierStore store, IProgressMonitor monitor){
+		int[][] groups = groupByMask(store);
+		SubMonitor progress = SubMonitor.convert(monitor, store.size());
+		References references = store.getReferences();
+		for(int mask=0; mask<MASKS; mask++){
+			int[] group = groups[mask];
+			progress.split(group.length);
+			String tag = MAXIMAL_TAGS[mask];
+			for(int id : group){
+				references.getNode(id).tag(tag);
+			}
+		}
+	}
+
+	/**
+	 * Tags each reference in the given store with each type of its qualifier set
+	 * @param store
+	 * @param monitor
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static void tagQualifierSets(QualifierStore store, IProgressMonitor monitor){
+		int[][] groups = groupByMask(store);
+		SubMonitor progress = SubMonitor.convert(monitor, store.size());
+		References references = store.getReferences();
+		for(int mask=0; mask<MASKS; mask++){
+			int[] group = groups[mask];
+			progress.split(group.length);
+			for(String tag : QUALIFIER_SET_TAGS[mask]){
+				for(int id : group){
+					references.getNode(id).tag(tag);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the ids of the stored references grouped by their qualifier set bit mask
+	 * @param store
+	 * @return
+	 */
+	private static int[][] groupByMask(QualifierStore store){
+		int size = store.size();
+		byte[] masks = new byte[size];
+		int[] counts = new int[MASKS];
+		for(int id=0; id<size; id++){
+			byte mask = (byte) (store.getMask(id) & (MASKS - 1));
+			masks[id] = mask;
+			counts[mask]++;
+		}
+		int[][] groups = new int[MASKS][];
+		for(int mask=0; mask<MASKS; mask++){
+			groups[mask] = new int[counts[mask]];
+			counts[mask] = 0;
+		}
+		for(int id=0; id<size; id++){
+			byte mask = masks[id];
+			groups[mask][counts[mask]++] = id;
+		}
+		return groups;
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.ensoftcorp.atlas.core.db.graph.Edge;
+import com.ensoftcorp.atlas.core.db.graph.Graph;
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasHashSet;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.atlas.core.query.Q;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * An index of the summarizable fields and methods of the codemap by the keys
+ * used in summary files (package, class, kind and name or signature) and of the
+ * identity, return value and parameters of each indexed method.
+ *
+ * The index is built with one containment query per package, so importing a
+ * summary resolves each record with hash lookups instead of running a series of
+ * universe queries for every record.
+ */
+public class SummaryIndex {
+
+	private static final AtlasSet<Node> EMPTY = new AtlasHashSet<Node>();
+
+	private HashMap<String,AtlasSet<Node>> members = new HashMap<String,AtlasSet<Node>>();
+	private HashMap<Node,Node> identities = new HashMap<Node,Node>();
+	private HashMap<Node,Node> returnValues = new HashMap<Node,Node>();
+	private HashMap<Node,Node[]> parameters = new HashMap<Node,Node[]>();
+
+	/**
+	 * Indexes the fields and methods of the current codemap
+	 */
+	public SummaryIndex(){
+		Q containsEdges = Query.universe().edges(XCSG.Contains);
+		for(Node pkg : Query.universe().nodes(XCSG.Package).eval().nodes()){
+			String pkgName = pkg.getAttr(XCSG.name).toString();
+			Q structure = Common.toQ(pkg).contained().nodes(XCSG.Type, XCSG.Field, XCSG.Method, XCSG.Identity, XCSG.ReturnValue, XCSG.Parameter);
+			Graph containment = structure.induce(containsEdges).eval();
+			for(Edge containsEdge : containment.edges()){
+				Node parent = containsEdge.from();
+				Node child = containsEdge.to();
+				if(parent.taggedWith(XCSG.Type)){
+					if(child.taggedWith(XCSG.Field)){
+						indexMember(pkgName, parent, child, BinarySummaryReader.FIELD_KINDS, child.getAttr(XCSG.name));
+					} else if(child.taggedWith(XCSG.Method)){
+						indexMember(pkgName, parent, child, BinarySummaryReader.METHOD_KINDS, child.getAttr(JavaStopGap.SIGNATURE));
+					}
+				} else if(parent.taggedWith(XCSG.Method)){
+					if(child.taggedWith(XCSG.Identity)){
+						identities.put(parent, child);
+					} else if(child.taggedWith(XCSG.ReturnValue) && !child.taggedWith(AnalysisUtilities.DUMMY_RETURN_NODE)){
+						returnValues.put(parent, child);
+					} else if(child.taggedWith(XCSG.Parameter)){
+						indexParameter(parent, child);
+					}
+				}
+			}
+		}
+	}
+
+	private void indexMember(String pkg, Node parentClass, Node member, String[] kinds, Object name){
+		if(name == null){
+			return;
+		}
+		for(String kind : kinds){
+			if(member.taggedWith(kind)){
+				String key = getKey(kind, pkg, parentClass.getAttr(XCSG.name).toString(), name.toString());
+				AtlasSet<Node> matches = members.get(key);
+				if(matches == null){
+					matches = new AtlasHashSet<Node>();
+					members.put(key, matches);
+				}
+				matches.add(member);
+			}
+		}
+	}
+
+	private void indexParameter(Node method, Node parameter){
+		Object parameterIndex = parameter.getAttr(XCSG.parameterIndex);
+		if(parameterIndex == null){
+			return;
+		}
+		int index = Integer.parseInt(parameterIndex.toString());
+		if(index < 0){
+			return;
+		}
+		Node[] methodParameters = parameters.get(method);
+		if(methodParameters == null){
+			methodParameters = new Node[index + 1];
+		} else if(methodParameters.length <= index){
+			methodParameters = Arrays.copyOf(methodParameters, index + 1);
+		}
+		methodParameters[index] = parameter;
+		parameters.put(method, methodParameters);
+	}
+
+	private static String getKey(String kind, String pkg, String parentClass, String name){
+		return kind + "|" + pkg + "|" + parentClass + "|" + name;
+	}
+
+	/**
+	 * Returns the fields of the given kind and name in the given class
+	 * @param kind The XCSG tag of the field kind
+	 * @param pkg
+	 * @param parentClass
+	 * @param name
+	 * @return
+	 */
+	public AtlasSet<Node> getFields(String kind, String pkg, String parentClass, String name){
+		AtlasSet<Node> fields = members.get(getKey(kind, pkg, parentClass, name));
+		return fields == null ? EMPTY : fields;
+	}
+
+	/**
+	 * Returns the methods of the given kind and signature in the given class
+	 * @param kind The XCSG tag of the method kind
+	 * @param pkg
+	 * @param parentClass
+	 * @param signature
+	 * @return
+	 */
+	public AtlasSet<Node> getMethods(String kind, String pkg, String parentClass, String signature){
+		AtlasSet<Node> methods = members.get(getKey(kind, pkg, parentClass, signature));
+		return methods == null ? EMPTY : methods;
+	}
+
+	/**
+	 * Returns the identity of the given method or null
+	 * @param method
+	 * @return
+	 */
+	public Node getIdentity(Node method){
+		return identities.get(method);
+	}
+
+	/**
+	 * Returns the return value of the given method or null
+	 * @param method
+	 * @return
+	 */
+	public Node getReturnValue(Node method){
+		return returnValues.get(method);
+	}
+
+	/**
+	 * Returns the number of parameter indexes of the given method
+	 * @param method
+	 * @return
+	 */
+	public int getParameterCount(Node method){
+		Node[] methodParameters = parameters.get(method);
+		return methodParameters == null ? 0 : methodParameters.length;
+	}
+
+	/**
+	 * Returns the parameter with the given index of the given method or null
+	 * @param method
+	 * @param index
+	 * @return
+	 */
+	public Node getParameter(Node method, int index){
+		Node[] methodParameters = parameters.get(method);
+		if(methodParameters == null || index < 0 || index >= methodParameters.length){
+			return null;
+		}
+		return methodParameters[index];
+	}
+
+}
@@ -0,0 +1,401 @@
+package com.ensoftcorp.open.immutability.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.ensoftcorp.atlas.core.db.graph.Edge;
+import com.ensoftcorp.atlas.core.db.graph.Graph;
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.atlas.core.query.Q;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * The summary records of the tagged fields and methods of the codemap.
+ *
+ * The records of a package are computed from a single containment query of the
+ * package instead of parent, container and child queries for each member, the
+ * packages are partitioned across a ForkJoinPool and the records are sorted, so
+ * summaries are written sequentially in a deterministic order.
+ */
+public class SummaryRecords {
+
+	/**
+	 * The number of packages below which a partition is not split further
+	 */
+	private static final int PARTITION_THRESHOLD = 8;
+
+	/**
+	 * The qualifier bit set for nodes tagged as untyped (above the qualifier set bit mask)
+	 */
+	public static final int UNTYPED = 1 << BinarySummaryReader.QUALIFIER_BITS;
+
+	/**
+	 * The kinds of summarized fields and methods, in order of precedence
+	 */
+	private static final String[] FIELD_KINDS = new String[]{ XCSG.ClassVariable, XCSG.InstanceVariable };
+	private static final String[] METHOD_KINDS = new String[]{ XCSG.Constructor, XCSG.ClassMethod, XCSG.InstanceMethod };
+
+	private static final String[] IMMUTABILITY_TAGS = new String[]{
+		ImmutabilityTags.READONLY, ImmutabilityTags.POLYREAD, ImmutabilityTags.MUTABLE, ImmutabilityTags.UNTYPED
+	};
+
+	/**
+	 * The summary of a field or method
+	 */
+	public static class Record implements Comparable<Record> {
+		private String kind;
+		private String pkg;
+		private String parentClass;
+		private String name;
+		private Node node;
+		private int qualifiers;
+		private Integer identityQualifiers = null;
+		private Integer returnQualifiers = null;
+		private Integer[] parameterQualifiers = new Integer[0];
+
+		private Record(String kind, String pkg, String parentClass, String name, Node node){
+			this.kind = kind;
+			this.pkg = pkg;
+			this.parentClass = parentClass;
+			this.name = name;
+			this.node = node;
+			this.qualifiers = SummaryRecords.getQualifiers(node);
+		}
+
+		/**
+		 * Returns the XCSG tag of the kind of the summarized field or method
+		 * @return
+		 */
+		public String getKind(){
+			return kind;
+		}
+
+		public String getPackage(){
+			return pkg;
+		}
+
+		public String getParentClass(){
+			return parentClass;
+		}
+
+		/**
+		 * Returns the name of a field or the signature of a method
+		 * @return
+		 */
+		public String getName(){
+			return name;
+		}
+
+		public Node getNode(){
+			return node;
+		}
+
+		public int getQualifiers(){
+			return qualifiers;
+		}
+
+		/**
+		 * Returns the qualifiers of the identity or null if the method does not have an identity
+		 * @return
+		 */
+		public Integer getIdentityQualifiers(){
+			return identityQualifiers;
+		}
+
+		/**
+		 * Returns the qualifiers of the return value or null if the method does not have a return value
+		 * @return
+		 */
+		public Integer getReturnQualifiers(){
+			return returnQualifiers;
+		}
+
+		/**
+		 * Returns the qualifiers of the parameters by parameter index, missing parameters are null
+		 * @return
+		 */
+		public Integer[] getParameterQualifiers(){
+			return parameterQualifiers;
+		}
+
+		private void setParameterQualifiers(int index, Integer qualifiers){
+			if(parameterQualifiers.length <= index){
+				Integer[] resized = new Integer[index + 1];
+				System.arraycopy(parameterQualifiers, 0, resized, 0, parameterQualifiers.length);
+				parameterQualifiers = resized;
+			}
+			parameterQualifiers[index] = qualifiers;
+		}
+
+		@Override
+		public int compareTo(Record record) {
+			int result = pkg.compareTo(record.pkg);
+			if(result == 0){
+				result = parentClass.compareTo(record.parentClass);
+			}
+			if(result == 0){
+				result = name.compareTo(record.name);
+			}
+			if(result == 0){
+				result = kind.compareTo(record.kind);
+			}
+			return result;
+		}
+	}
+
+	private ArrayList<Record> fields = new ArrayList<Record>();
+	private ArrayList<Record> methods = new ArrayList<Record>();
+
+	private SummaryRecords(){}
+
+	/**
+	 * Computes the summary records of the tagged fields and methods in the codemap
+	 * @return
+	 */
+	public static SummaryRecords compute(){
+		AtlasSet<Node> packageNodes = Query.universe().nodes(XCSG.Package).eval().nodes();
+		Node[] packages = new Node[(int) packageNodes.size()];
+		int index = 0;
+		for(Node pkg : packageNodes){
+			packages[index++] = pkg;
+		}
+		RecordTask task = new RecordTask(packages, 0, packages.length, Query.universe().edges(XCSG.Contains));
+		SummaryRecords records;
+		if(packages.length > PARTITION_THRESHOLD){
+			ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+			try {
+				records = pool.invoke(task);
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			records = task.compute();
+		}
+		Collections.sort(records.fields);
+		Collections.sort(records.methods);
+
+		// members that are not contained in a package type can not be summarized
+		long taggedFields = Query.universe().nodes(XCSG.Field).nodes(IMMUTABILITY_TAGS).eval().nodes().size();
+		if(taggedFields > records.fields.size()){
+			Log.warning("Skipping " + (taggedFields - records.fields.size()) + " fields without a known field type, parent class or package.");
+		}
+		long taggedMethods = Query.universe().nodes(XCSG.Method).nodes(IMMUTABILITY_TAGS).eval().nodes().size();
+		if(taggedMethods > records.methods.size()){
+			Log.warning("Skipping " + (taggedMethods - records.methods.size()) + " methods without a known method type, parent class or package.");
+		}
+		return records;
+	}
+
+	/**
+	 * Returns the field records sorted by package, class, name and kind
+	 * @return
+	 */
+	public List<Record> getFields(){
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * Returns the method records sorted by package, class, signature and kind
+	 * @return
+	 */
+	public List<Record> getMethods(){
+		return Collections.unmodifiableList(methods);
+	}
+
+	private SummaryRecords merge(SummaryRecords records){
+		fields.addAll(records.fields);
+		methods.addAll(records.methods);
+		return this;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the immutability tags of the given node,
+	 * with the UNTYPED bit set if the node is tagged as untyped
+	 * @param node
+	 * @return
+	 */
+	public static int getQualifiers(Node node){
+		int qualifiers = 0;
+		if(node.taggedWith(ImmutabilityTags.READONLY)){
+			qualifiers |= ImmutabilityTypes.READONLY.getMask();
+		}
+		if(node.taggedWith(ImmutabilityTags.POLYREAD)){
+			qualifiers |= ImmutabilityTypes.POLYREAD.getMask();
+		}
+		if(node.taggedWith(ImmutabilityTags.MUTABLE)){
+			qualifiers |= ImmutabilityTypes.MUTABLE.getMask();
+		}
+		if(node.taggedWith(ImmutabilityTags.UNTYPED)){
+			qualifiers |= UNTYPED;
+		}
+		return qualifiers;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask of the given qualifiers
+	 * @param qualifiers
+	 * @return
+	 */
+	public static byte getMask(int qualifiers){
+		return (byte) (qualifiers & BinarySummaryReader.QUALIFIER_MASK);
+	}
+
+	/**
+	 * Returns the comma separated immutability tags of the given qualifiers
+	 * @param qualifiers
+	 * @return
+	 */
+	public static String toString(int qualifiers){
+		String prefix = "";
+		String immutabilityTags = "";
+		if((qualifiers & ImmutabilityTypes.READONLY.getMask()) != 0){
+			immutabilityTags += ImmutabilityTags.READONLY;
+			prefix = ",";
+		}
+		if((qualifiers & ImmutabilityTypes.POLYREAD.getMask()) != 0){
+			immutabilityTags += (prefix + ImmutabilityTags.POLYREAD);
+			prefix = ",";
+		}
+		if((qualifiers & ImmutabilityTypes.MUTABLE.getMask()) != 0){
+			immutabilityTags += (prefix + ImmutabilityTags.MUTABLE);
+			prefix = ",";
+		}
+		if((qualifiers & UNTYPED) != 0){
+			immutabilityTags += (prefix + ImmutabilityTags.UNTYPED);
+		}
+		return immutabilityTags;
+	}
+
+	private static boolean isTagged(Node node){
+		for(String tag : IMMUTABILITY_TAGS){
+			if(node.taggedWith(tag)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the XCSG tag of the summarized kind of the given field or null
+	 * @param field
+	 * @return
+	 */
+	static String getFieldKind(Node field){
+		return getKind(field, FIELD_KINDS);
+	}
+
+	/**
+	 * Returns the XCSG tag of the summarized kind of the given method or null
+	 * @param method
+	 * @return
+	 */
+	static String getMethodKind(Node method){
+		return getKind(method, METHOD_KINDS);
+	}
+
+	private static String getKind(Node member, String[] kinds){
+		for(String kind : kinds){
+			if(member.taggedWith(kind)){
+				return kind;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the records of a partition of the packages
+	 */
+	private static class RecordTask extends RecursiveTask<SummaryRecords> {
+		private static final long serialVersionUID = 1L;
+
+		private Node[] packages;
+		private int start;
+		private int end;
+		private Q containsEdges;
+
+		private RecordTask(Node[] packages, int start, int end, Q containsEdges){
+			this.packages = packages;
+			this.start = start;
+			this.end = end;
+			this.containsEdges = containsEdges;
+		}
+
+		@Override
+		protected SummaryRecords compute() {
+			if(end - start > PARTITION_THRESHOLD){
+				int middle = (start + end) >>> 1;
+				RecordTask left = new RecordTask(packages, start, middle, containsEdges);
+				RecordTask right = new RecordTask(packages, middle, end, containsEdges);
+				left.fork();
+				SummaryRecords records = right.compute();
+				return left.join().merge(records);
+			}
+			SummaryRecords records = new SummaryRecords();
+			for(int i=start; i<end; i++){
+				addRecords(packages[i], records);
+			}
+			return records;
+		}
+
+		private void addRecords(Node pkg, SummaryRecords records){
+			String pkgName = pkg.getAttr(XCSG.name).toString();
+			Q structure = Common.toQ(pkg).contained().nodes(XCSG.Type, XCSG.Field, XCSG.Method, XCSG.Identity, XCSG.ReturnValue, XCSG.Parameter);
+			Graph containment = structure.induce(containsEdges).eval();
+
+			// summarize the tagged members of each type
+			HashMap<Node,Record> methodRecords = new HashMap<Node,Record>();
+			for(Edge containsEdge : containment.edges()){
+				Node parent = containsEdge.from();
+				Node member = containsEdge.to();
+				if(!parent.taggedWith(XCSG.Type) || !isTagged(member)){
+					continue;
+				}
+				String parentClass = parent.getAttr(XCSG.name).toString();
+				if(member.taggedWith(XCSG.Field)){
+					String kind = getFieldKind(member);
+					if(kind == null){
+						Log.warning("Skipping method for unknown field type for field: " + member.address().toAddressString());
+						continue;
+					}
+					records.fields.add(new Record(kind, pkgName, parentClass, member.getAttr(XCSG.name).toString(), member));
+				} else if(member.taggedWith(XCSG.Method)){
+					String kind = getMethodKind(member);
+					if(kind == null){
+						Log.warning("Skipping method, because of unknown method type for method: " + member.address().toAddressString());
+						continue;
+					}
+					Record record = new Record(kind, pkgName, parentClass, member.getAttr(JavaStopGap.SIGNATURE).toString(), member);
+					records.methods.add(record);
+					methodRecords.put(member, record);
+				}
+			}
+
+			// summarize the identity, parameters and return value of each summarized method
+			for(Edge containsEdge : containment.edges()){
+				Record record = methodRecords.get(containsEdge.from());
+				if(record == null){
+					continue;
+				}
+				Node child = containsEdge.to();
+				if(child.taggedWith(XCSG.Identity)){
+					record.identityQualifiers = getQualifiers(child);
+				} else if(child.taggedWith(XCSG.Parameter)){
+					record.setParameterQualifiers(Integer.parseInt(child.getAttr(XCSG.parameterIndex).toString()), getQualifiers(child));
+				} else if(child.taggedWith(XCSG.ReturnValue) && !child.taggedWith(AnalysisUtilities.DUMMY_RETURN_NODE)){
+					record.returnQualifiers = getQualifiers(child);
+				}
+			}
+		}
+	}
+
+}
@@ -1,13 +1,22 @@
 package com.ensoftcorp.open.immutability.analysis;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
@@ -21,17 +30,19 @@ import org.osgi.framework.Version;
 
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.db.set.AtlasSet;
-import com.ensoftcorp.atlas.core.query.Q;
-import com.ensoftcorp.atlas.core.query.Query;
-import com.ensoftcorp.atlas.core.script.Common;
-import com.ensoftcorp.atlas.core.xcsg.XCSG;
 import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
 import com.ensoftcorp.open.immutability.log.Log;
 import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
-import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
 
 public class SummaryUtilities {
 	
+	/**
+	 * The extension of gzip compressed XML summaries
+	 */
+	public static final String COMPRESSED_EXTENSION = "gz";
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
 	private static Field field;
 	
 	private static class Field {
@@ -79,6 +90,16 @@ public class SummaryUtilities {
 		}
 	}
 	
+	/**
+	 * The index used to resolve the records of the summary being imported
+	 */
+	private static SummaryIndex index = null;
+	
+	/**
+	 * The imported qualifier sets of the summary being imported
+	 */
+	private static ImportedSummaries importedSummaries = null;
+	
 	private static int fieldsImported = 0;
 	private static int fieldsSummarized = 0;
 	private static int methodsImported = 0;
@@ -87,19 +108,68 @@ public class SummaryUtilities {
 	private static Version atlasVersion = Platform.getBundle("com.ensoftcorp.atlas.core").getVersion();
 	private static Version immutabilityToolboxVersion = Platform.getBundle("com.ensoftcorp.open.immutability").getVersion();
 	
+	/**
+	 * Imports an XML summary or a binary summary (files with the 
+	 * BinarySummaryReader.EXTENSION extension)
+	 * @param inputXMLFile
+	 * @throws FileNotFoundException
+	 * @throws XMLStreamException
+	 */
 	public static void importSummary(File inputXMLFile) throws FileNotFoundException, XMLStreamException {
 		fieldsImported = 0;
 		fieldsSummarized = 0;
 		methodsImported = 0;
 		methodsSummarized = 0;
 		Log.info("Importing summary: " + inputXMLFile.getAbsolutePath());
-		XMLInputFactory xmlif = XMLInputFactory.newInstance();
-		XMLStreamReader xmlr = xmlif.createXMLStreamReader(new FileReader(inputXMLFile));
-		while (xmlr.hasNext()) {
-			processEvent(xmlr);
-			xmlr.next();
+		index = new SummaryIndex();
+		importedSummaries = AnalysisUtilities.getImportedSummaries();
+		if(importedSummaries == null){
+			importedSummaries = new ImportedSummaries();
+		}
+		try {
+			if(BinarySummaryReader.isBinarySummary(inputXMLFile)){
+				try {
+					importBinarySummary(BinarySummaryReader.open(inputXMLFile));
+				} catch (FileNotFoundException e){
+					throw e;
+				} catch (IOException e){
+					throw new RuntimeException("Could not read binary summary " + inputXMLFile.getAbsolutePath(), e);
+				}
+			} else {
+				Reader reader;
+				if(isCompressedSummary(inputXMLFile)){
+					try {
+						reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(inputXMLFile), BUFFER_SIZE));
+					} catch (FileNotFoundException e){
+						throw e;
+					} catch (IOException e){
+						throw new RuntimeException("Could not read compressed summary " + inputXMLFile.getAbsolutePath(), e);
+					}
+				} else {
+					reader = new BufferedReader(new FileReader(inputXMLFile), BUFFER_SIZE);
+				}
+				try {
+					XMLInputFactory xmlif = XMLInputFactory.newInstance();
+					XMLStreamReader xmlr = xmlif.createXMLStreamReader(reader);
+					while (xmlr.hasNext()) {
+						processEvent(xmlr);
+						xmlr.next();
+					}
+					xmlr.close();
+				} finally {
+					try {
+						reader.close();
+					} catch (IOException e){
+						Log.warning("Could not close summary " + inputXMLFile.getAbsolutePath());
+					}
+				}
+			}
+			// imported qualifier sets seed the qualifier sets of the next analysis
+			AnalysisUtilities.setImportedSummaries(importedSummaries);
+		} finally {
+			index = null;
+			importedSummaries = null;
 		}
-		xmlr.close();
 		String message = "Imported " + fieldsImported + "/" + fieldsSummarized + " field summaries.";
 		message += "\nImported " + methodsImported + "/" + methodsSummarized + " method summaries.";
 		Log.info("Summary imported.\n" + message);
@@ -194,13 +264,128 @@ public class SummaryUtilities {
 		}
 	}
 	
+	/**
+	 * Imports the summaries of a binary summary, records are read in place
+	 * @param summary
+	 */
+	private static void importBinarySummary(BinarySummaryReader summary){
+		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Summary created with Atlas " + summary.getAtlasVersion() + " and immutability toolbox " + summary.getToolboxVersion());
+		for(int field=0; field<summary.getFieldCount(); field++){
+			fieldsSummarized++;
+			AtlasSet<Node> fieldNodes = getFieldNodes(summary.getFieldKind(field), summary.getFieldPackage(field), summary.getFieldClass(field), summary.getFieldName(field));
+			if(fieldNodes.isEmpty()){
+				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("No matching field for imported field " + summary.getFieldPackage(field) + "." + summary.getFieldClass(field) + "." + summary.getFieldName(field));
+			} else if(fieldNodes.size() > 1){
+				Log.warning("Multiple matches for imported field " + summary.getFieldPackage(field) + "." + summary.getFieldClass(field) + "." + summary.getFieldName(field));
+			}
+			for(Node fieldNode : fieldNodes){
+				fieldsImported++;
+				setImmutabilityQualifierSet(fieldNode, summary.getFieldQualifiers(field));
+			}
+		}
+		for(int method=0; method<summary.getMethodCount(); method++){
+			methodsSummarized++;
+			AtlasSet<Node> methodNodes = getMethodNodes(summary.getMethodKind(method), summary.getMethodPackage(method), summary.getMethodClass(method), summary.getMethodSignature(method));
+			if(methodNodes.isEmpty()){
+				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("No matching method for imported method " + summary.getMethodPackage(method) + "." + summary.getMethodClass(method) + " " + summary.getMethodSignature(method));
+			} else if(methodNodes.size() > 1){
+				Log.warning("Multiple matches for imported method " + summary.getMethodPackage(method) + "." + summary.getMethodClass(method) + " " + summary.getMethodSignature(method));
+			}
+			for(Node methodNode : methodNodes){
+				methodsImported++;
+				tagMethod(summary, method, methodNode);
+			}
+		}
+	}
+	
+	/**
+	 * Applies the summary of the given binary summary method record to the given method
+	 * @param summary
+	 * @param method
+	 * @param methodNode
+	 */
+	static void tagMethod(BinarySummaryReader summary, int method, Node methodNode){
+		setImmutabilityQualifierSet(methodNode, summary.getMethodQualifiers(method));
+		if(summary.hasIdentity(method)){
+			Node identityNode = index.getIdentity(methodNode);
+			if(identityNode != null){
+				setImmutabilityQualifierSet(identityNode, summary.getIdentityQualifiers(method));
+			} else {
+				Log.warning("Missing identity node for method: " +  methodNode.address().toAddressString());
+			}
+		}
+		if(summary.hasReturn(method)){
+			Node returnNode = index.getReturnValue(methodNode);
+			if(returnNode != null){
+				setImmutabilityQualifierSet(returnNode, summary.getReturnQualifiers(method));
+			} else {
+				Log.warning("Missing return value node for method: " +  methodNode.address().toAddressString());
+			}
+		}
+		int parameters = summary.getParameterCount(method);
+		for(int parameter=0; parameter<parameters; parameter++){
+			Node parameterNode = index.getParameter(methodNode, parameter);
+			if(parameterNode != null){
+				setImmutabilityQualifierSet(parameterNode, summary.getParameterQualifiers(method, parameter));
+			} else {
+				Log.warning("Missing parameter node (index=" + parameter + ") for method: " +  methodNode.address().toAddressString());
+			}
+		}
+		addSummarizedMethod(methodNode);
+	}
+	
+	/**
+	 * Records the given method as fully summarized if the method, its identity,
+	 * return value and each of its parameters have imported qualifier sets
+	 * @param methodNode
+	 */
+	private static void addSummarizedMethod(Node methodNode){
+		if(!importedSummaries.contains(methodNode)){
+			return;
+		}
+		Node identityNode = index.getIdentity(methodNode);
+		if(identityNode != null && !importedSummaries.contains(identityNode)){
+			return;
+		}
+		Node returnNode = index.getReturnValue(methodNode);
+		if(returnNode != null && !importedSummaries.contains(returnNode)){
+			return;
+		}
+		for(int parameter=0; parameter<index.getParameterCount(methodNode); parameter++){
+			Node parameterNode = index.getParameter(methodNode, parameter);
+			if(parameterNode != null && !importedSummaries.contains(parameterNode)){
+				return;
+			}
+		}
+		importedSummaries.addSummarizedMethod(methodNode);
+	}
+	
+	/**
+	 * Returns the methods of the given kind and signature in the given class
+	 * @param type The XCSG tag of the method kind
+	 * @param pkg
+	 * @param parentClass
+	 * @param signature
+	 * @return
+	 */
+	static AtlasSet<Node> getMethodNodes(String type, String pkg, String parentClass, String signature){
+		return index.getMethods(type, pkg, parentClass, signature);
+	}
+	
+	/**
+	 * Returns the fields of the given kind and name in the given class
+	 * @param type The XCSG tag of the field kind
+	 * @param pkg
+	 * @param parentClass
+	 * @param name
+	 * @return
+	 */
+	static AtlasSet<Node> getFieldNodes(String type, String pkg, String parentClass, String name){
+		return index.getFields(type, pkg, parentClass, name);
+	}
+	
 	private static void tagMethod(Method method) {
-		Q packages = Query.universe().nodes(XCSG.Package).selectNode(XCSG.name, method.pkg);
-		Q parents = packages.contained().nodes(XCSG.Type).selectNode(XCSG.name, method.parentClass);
-		Q methods = parents.children().nodes(method.type);
-		methods = methods.selectNode(JavaStopGap.SIGNATURE, method.signature);
-		
-		AtlasSet<Node> methodNodes = methods.eval().nodes();
+		AtlasSet<Node> methodNodes = getMethodNodes(method.type, method.pkg, method.parentClass, method.signature);
 		
 		if(methodNodes.isEmpty()){
 			if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("No matching method for imported method.\n" + method.toString());
@@ -212,7 +397,7 @@ public class SummaryUtilities {
 			methodsImported++;
 			setImmutabilityQualifierSet(methodNode, method.immutabilityQualifiers);
 			if(method.identityImmutabilityQualifiers != null){
-				Node identityNode = Common.toQ(methodNode).children().nodesTaggedWithAll(XCSG.Identity).eval().nodes().one();
+				Node identityNode = index.getIdentity(methodNode);
 				if(identityNode != null){
 					setImmutabilityQualifierSet(identityNode, method.identityImmutabilityQualifiers);
 				} else {
@@ -220,32 +405,27 @@ public class SummaryUtilities {
 				}
 			}
 			if(method.returnImmutabilityQualifiers != null){
-				Node returnNode = Common.toQ(methodNode).children().nodesTaggedWithAll(XCSG.ReturnValue).eval().nodes().one();
+				Node returnNode = index.getReturnValue(methodNode);
 				if(returnNode != null){
 					setImmutabilityQualifierSet(returnNode, method.returnImmutabilityQualifiers);
 				} else {
 					Log.warning("Missing return value node for method: " +  methodNode.address().toAddressString());
 				}
 			}
-			Q methodParameters = Common.toQ(methodNode).children().nodes(XCSG.Parameter);
 			for(Method.Parameter parameter : method.parameters){
-				Node parameterNode = methodParameters.selectNode(XCSG.parameterIndex, parameter.index).eval().nodes().one();
+				Node parameterNode = index.getParameter(methodNode, parameter.index);
 				if(parameterNode != null){
 					setImmutabilityQualifierSet(parameterNode, parameter.immutabilityQualifiers);
 				} else {
 					Log.warning("Missing parameter node (index=" + parameter.index + ") for method: " +  methodNode.address().toAddressString());
 				}
 			}
+			addSummarizedMethod(methodNode);
 		}
 	}
 	
 	private static void tagField(Field field) {
-		Q packages = Query.universe().nodes(XCSG.Package).selectNode(XCSG.name, field.pkg);
-		Q parents = packages.contained().nodes(XCSG.Type).selectNode(XCSG.name, field.parentClass);
-		Q fields = parents.children().nodes(field.type);
-		fields = fields.selectNode(XCSG.name, field.name);
-		
-		AtlasSet<Node> fieldNodes = fields.eval().nodes();
+		AtlasSet<Node> fieldNodes = getFieldNodes(field.type, field.pkg, field.parentClass, field.name);
 		
 		if(fieldNodes.isEmpty()){
 			if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("No matching field for imported field.\n" + field.toString());
@@ -274,156 +454,171 @@ public class SummaryUtilities {
 				node.tag(ImmutabilityTags.UNTYPED);
 			}
 		}
+		if(!qualifiers.isEmpty()){
+			importedSummaries.put(node, ImmutabilityTypes.toMask(qualifiers));
+		}
 		return qualifiers;
 	}
 
+	/**
+	 * Sets the type qualifier set of a node from a qualifier set bit mask,
+	 * an empty qualifier set is imported as untyped
+	 * @param node
+	 * @param qualifiers
+	 * @return
+	 */
+	static Set<ImmutabilityTypes> setImmutabilityQualifierSet(Node node, byte qualifiers) {
+		if(qualifiers == 0){
+			Log.warning("Importing untyped qualifier for node: " + node.address().toAddressString());
+			node.tag(ImmutabilityTags.UNTYPED);
+		} else {
+			importedSummaries.put(node, qualifiers);
+		}
+		return ImmutabilityTypes.fromMask(qualifiers);
+	}
+
+	/**
+	 * Exports an XML summary, a compressed XML summary (files with the
+	 * COMPRESSED_EXTENSION extension) or a binary summary (files with the 
+	 * BinarySummaryReader.EXTENSION extension)
+	 * @param outputXMLFile
+	 * @throws FileNotFoundException
+	 * @throws XMLStreamException
+	 */
 	public static void exportSummary(File outputXMLFile) throws FileNotFoundException, XMLStreamException {
 		fieldsSummarized=0;
 		methodsSummarized=0;
 		Log.info("Exporting summary: " + outputXMLFile.getAbsolutePath());
-		XMLOutputFactory output = XMLOutputFactory.newInstance();
-		XMLStreamWriter writer = output.createXMLStreamWriter(new FileOutputStream(outputXMLFile));
-		writer.writeStartDocument();
-		
-		writer.writeStartElement("immutability");
-		writer.writeAttribute("atlas", atlasVersion.getMajor() + "." + atlasVersion.getMinor() + "." + atlasVersion.getMicro());
-		writer.writeAttribute("immutability-toolbox", immutabilityToolboxVersion.getMajor() + "." + immutabilityToolboxVersion.getMinor() + "." + immutabilityToolboxVersion.getMicro());
-		
-		for(Node field : Query.universe().nodes(XCSG.Field).nodes(ImmutabilityTags.READONLY, ImmutabilityTags.POLYREAD, ImmutabilityTags.MUTABLE, ImmutabilityTags.UNTYPED).eval().nodes()){
-			try {
-				serializeField(field, writer);
-			} catch (Exception e){
-				Log.error("Error serializing field: " + field.address().toAddressString(), e);
-				throw e;
-			}
-			writer.flush();
-			fieldsSummarized++;
-		}
-		
-		for(Node method : Query.universe().nodes(XCSG.Method).nodes(ImmutabilityTags.READONLY, ImmutabilityTags.POLYREAD, ImmutabilityTags.MUTABLE, ImmutabilityTags.UNTYPED).eval().nodes()){
-			try {
-				serializeMethod(method, writer);
-			} catch (Exception e){
-				Log.error("Error serializing method: " + method.address().toAddressString(), e);
-				throw e;
+		SummaryRecords records = SummaryRecords.compute();
+		try {
+			if(BinarySummaryReader.isBinarySummary(outputXMLFile)){
+				exportBinarySummary(records.getFields(), records.getMethods(), outputXMLFile);
+			} else {
+				exportXMLSummary(records, outputXMLFile);
 			}
-			writer.flush();
-			methodsSummarized++;
+		} catch (FileNotFoundException e){
+			throw e;
+		} catch (IOException e){
+			throw new RuntimeException("Could not write summary " + outputXMLFile.getAbsolutePath(), e);
 		}
 		
-		writer.writeEndElement();
-		
-		writer.writeEndDocument();
-		writer.flush();
-		writer.close();
-		
 		String message = "Summarized: " + fieldsSummarized + " fields, " + methodsSummarized + " methods.";
 		Log.info("Summary exported.\n" + message);
 	}
 	
-	private static void serializeField(Node field, XMLStreamWriter writer) throws XMLStreamException {
-		writer.writeStartElement("field");
-		
-		if(field.taggedWith(XCSG.ClassVariable)){
-			writer.writeAttribute("type", XCSG.ClassVariable);
-		} else if(field.taggedWith(XCSG.InstanceVariable)){
-			writer.writeAttribute("type", XCSG.InstanceVariable);
-		} else {
-			Log.warning("Skipping method for unknown field type for field: " + field.address().toAddressString());
-			return;
-		}
-		
-		Node parentClass = Common.toQ(field).parent().eval().nodes().one();
-		if(parentClass == null){
-			Log.warning("Skipping filed, because field " + field.address().toAddressString() + " does not have a parent!");
-			return;
-		}
-		
-		Node pkg = Common.toQ(field).containers().nodes(XCSG.Package).eval().nodes().one();
-		if(pkg == null){
-			Log.warning("Package for field " + field.address().toAddressString() + " does not exist!");
-			return;
+	/**
+	 * Returns true if the given file is named as a compressed summary
+	 * @param file
+	 * @return
+	 */
+	public static boolean isCompressedSummary(File file){
+		return file.getName().toLowerCase().endsWith("." + COMPRESSED_EXTENSION);
+	}
+	
+	private static void exportXMLSummary(SummaryRecords records, File outputXMLFile) throws IOException, XMLStreamException {
+		OutputStream stream = new BufferedOutputStream(new FileOutputStream(outputXMLFile), BUFFER_SIZE);
+		try {
+			if(isCompressedSummary(outputXMLFile)){
+				stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+			}
+			XMLOutputFactory output = XMLOutputFactory.newInstance();
+			XMLStreamWriter writer = output.createXMLStreamWriter(stream);
+			writer.writeStartDocument();
+			
+			writer.writeStartElement("immutability");
+			writer.writeAttribute("atlas", atlasVersion.getMajor() + "." + atlasVersion.getMinor() + "." + atlasVersion.getMicro());
+			writer.writeAttribute("immutability-toolbox", immutabilityToolboxVersion.getMajor() + "." + immutabilityToolboxVersion.getMinor() + "." + immutabilityToolboxVersion.getMicro());
+			
+			for(SummaryRecords.Record field : records.getFields()){
+				try {
+					serializeField(field, writer);
+				} catch (XMLStreamException e){
+					Log.error("Error serializing field: " + field.getNode().address().toAddressString(), e);
+					throw e;
+				}
+				fieldsSummarized++;
+			}
+			
+			for(SummaryRecords.Record method : records.getMethods()){
+				try {
+					serializeMethod(method, writer);
+				} catch (XMLStreamException e){
+					Log.error("Error serializing method: " + method.getNode().address().toAddressString(), e);
+					throw e;
+				}
+				methodsSummarized++;
+			}
+			
+			writer.writeEndElement();
+			
+			writer.writeEndDocument();
+			writer.close();
+		} finally {
+			stream.close();
 		}
+	}
+	
+	private static void serializeField(SummaryRecords.Record field, XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement("field");
+		writer.writeAttribute("type", field.getKind());
+		writer.writeAttribute("package", field.getPackage());
+		writer.writeAttribute("class", field.getParentClass());
+		writer.writeAttribute("name", field.getName());
 		
-		writer.writeAttribute("package", pkg.getAttr(XCSG.name).toString());
-		writer.writeAttribute("class", parentClass.getAttr(XCSG.name).toString());
-		writer.writeAttribute("name", field.getAttr(XCSG.name).toString());
-		
-		String fieldImmutabilityTags = stringifyImmutabilityTags(field);
+		String fieldImmutabilityTags = SummaryRecords.toString(field.getQualifiers());
 		if(fieldImmutabilityTags.equals("")){
-			Log.warning("Missing type qualifier tags on field: " + field.address().toAddressString());
+			Log.warning("Missing type qualifier tags on field: " + field.getNode().address().toAddressString());
 		}
 		writer.writeAttribute("immutability", fieldImmutabilityTags);
 		writer.writeEndElement();
 	}
 
-	private static void serializeMethod(Node method, XMLStreamWriter writer) throws XMLStreamException {
+	private static void serializeMethod(SummaryRecords.Record method, XMLStreamWriter writer) throws XMLStreamException {
 		// write method
 		writer.writeStartElement("method");
-		writer.writeAttribute("signature", method.getAttr(JavaStopGap.SIGNATURE).toString());
-		
-		if(method.taggedWith(XCSG.Constructor)){
-			writer.writeAttribute("type", XCSG.Constructor);
-		} else if(method.taggedWith(XCSG.ClassMethod)){
-			writer.writeAttribute("type", XCSG.ClassMethod);
-		} else if(method.taggedWith(XCSG.InstanceMethod)){
-			writer.writeAttribute("type", XCSG.InstanceMethod);
-		} else {
-			Log.warning("Skipping method, because of unknown method type for method: " + method.address().toAddressString());
-			return;
-		}
-		
-		Node parentClass = Common.toQ(method).parent().eval().nodes().one();
-		if(parentClass == null){
-			Log.warning("Skipping method because method " + method.address().toAddressString() + " does not have a parent!");
-			return;
-		}
-		
-		Node pkg = Common.toQ(method).containers().nodes(XCSG.Package).eval().nodes().one();
-		if(pkg == null){
-			Log.warning("Skipping, method because package for method " + method.address().toAddressString() + " does not exist!");
-			return;
-		}
-		
-		writer.writeAttribute("package", pkg.getAttr(XCSG.name).toString());
-		writer.writeAttribute("class", parentClass.getAttr(XCSG.name).toString());
-		String methodImmutabilityTags = stringifyImmutabilityTags(method);
+		writer.writeAttribute("signature", method.getName());
+		writer.writeAttribute("type", method.getKind());
+		writer.writeAttribute("package", method.getPackage());
+		writer.writeAttribute("class", method.getParentClass());
+		String methodImmutabilityTags = SummaryRecords.toString(method.getQualifiers());
 		if(methodImmutabilityTags.equals("")){
-			Log.warning("Missing type qualifier tags on method: " + method.address().toAddressString());
+			Log.warning("Missing type qualifier tags on method: " + method.getNode().address().toAddressString());
 		}
 		writer.writeAttribute("immutability", methodImmutabilityTags);
 		
 		// write this node (if one exists)
-		Node thisNode = Common.toQ(method).children().nodesTaggedWithAll(XCSG.Identity).eval().nodes().one();
-		if(thisNode != null){
+		if(method.getIdentityQualifiers() != null){
 			writer.writeStartElement("this");
-			String thisImmutabilityTags = stringifyImmutabilityTags(thisNode);
+			String thisImmutabilityTags = SummaryRecords.toString(method.getIdentityQualifiers());
 			if(thisImmutabilityTags.equals("")){
-				Log.warning("Missing type qualifier tags on this node: " + thisNode.address().toAddressString());
+				Log.warning("Missing type qualifier tags on this node of method: " + method.getNode().address().toAddressString());
 			}
 			writer.writeAttribute("immutability", thisImmutabilityTags);
 			writer.writeEndElement();
 		}
 		
 		// write parameters
-		for(Node parameter : Common.toQ(method).children().nodesTaggedWithAll(XCSG.Parameter).eval().nodes()){
+		Integer[] parameters = method.getParameterQualifiers();
+		for(int index=0; index<parameters.length; index++){
+			if(parameters[index] == null){
+				continue;
+			}
 			writer.writeStartElement("parameter");
-			writer.writeAttribute("index", parameter.getAttr(XCSG.parameterIndex).toString());
-			String parameterImmutabilityTags = stringifyImmutabilityTags(method);
+			writer.writeAttribute("index", Integer.toString(index));
+			String parameterImmutabilityTags = SummaryRecords.toString(parameters[index]);
 			if(parameterImmutabilityTags.equals("")){
-				Log.warning("Missing type qualifier tags on parameter: " + parameter.address().toAddressString());
+				Log.warning("Missing type qualifier tags on parameter " + index + " of method: " + method.getNode().address().toAddressString());
 			}
 			writer.writeAttribute("immutability", parameterImmutabilityTags);
 			writer.writeEndElement();
 		}
 		
 		// write return node (if one exists)
-		Node returnNode = Common.toQ(method).children().nodesTaggedWithAll(XCSG.ReturnValue).eval().nodes().one();
-		if(returnNode != null && !returnNode.taggedWith(AnalysisUtilities.DUMMY_RETURN_NODE)){
+		if(method.getReturnQualifiers() != null){
 			writer.writeStartElement("return");
-			String returnImmutabilityTags = stringifyImmutabilityTags(returnNode);
+			String returnImmutabilityTags = SummaryRecords.toString(method.getReturnQualifiers());
 			if(returnImmutabilityTags.equals("")){
-				Log.warning("Missing type qualifier tags on return node: " + returnNode.address().toAddressString());
+				Log.warning("Missing type qualifier tags on return node of method: " + method.getNode().address().toAddressString());
 			}
 			writer.writeAttribute("immutability", returnImmutabilityTags);
 			writer.writeEndElement();	
@@ -432,25 +627,93 @@ public class SummaryUtilities {
 		writer.writeEndElement();
 	}
 
-	private static String stringifyImmutabilityTags(Node node) {
-		String prefix = "";
-		String immutabilityTags = "";
-		if(node.taggedWith(ImmutabilityTags.READONLY)){
-			immutabilityTags += ImmutabilityTags.READONLY;
-			prefix = ",";
+	/**
+	 * Exports a library summary pack (see LibrarySummaries) to the given directory,
+	 * a binary summary shard is written for each summarized package
+	 * @param directory
+	 * @throws IOException
+	 */
+	public static void exportSummaryPack(File directory) throws IOException {
+		fieldsSummarized=0;
+		methodsSummarized=0;
+		Log.info("Exporting summary pack: " + directory.getAbsolutePath());
+		if(!directory.isDirectory() && !directory.mkdirs()){
+			throw new IOException("Could not create summary pack directory " + directory.getAbsolutePath());
 		}
-		if(node.taggedWith(ImmutabilityTags.POLYREAD)){
-			immutabilityTags += (prefix + ImmutabilityTags.POLYREAD);
-			prefix = ",";
+		SummaryRecords records = SummaryRecords.compute();
+		
+		// records are sorted by package, so the records of each package are contiguous
+		List<SummaryRecords.Record> fields = records.getFields();
+		List<SummaryRecords.Record> methods = records.getMethods();
+		int field = 0;
+		int method = 0;
+		int shards = 0;
+		while(field < fields.size() || method < methods.size()){
+			String pkg;
+			if(method == methods.size() || (field < fields.size() && fields.get(field).getPackage().compareTo(methods.get(method).getPackage()) <= 0)){
+				pkg = fields.get(field).getPackage();
+			} else {
+				pkg = methods.get(method).getPackage();
+			}
+			int fieldEnd = field;
+			while(fieldEnd < fields.size() && fields.get(fieldEnd).getPackage().equals(pkg)){
+				fieldEnd++;
+			}
+			int methodEnd = method;
+			while(methodEnd < methods.size() && methods.get(methodEnd).getPackage().equals(pkg)){
+				methodEnd++;
+			}
+			exportBinarySummary(fields.subList(field, fieldEnd), methods.subList(method, methodEnd), LibrarySummaries.getShardFile(directory, pkg));
+			field = fieldEnd;
+			method = methodEnd;
+			shards++;
 		}
-		if(node.taggedWith(ImmutabilityTags.MUTABLE)){
-			immutabilityTags += (prefix + ImmutabilityTags.MUTABLE);
-			prefix = ",";
+		
+		String message = "Summarized: " + fieldsSummarized + " fields, " + methodsSummarized + " methods in " + shards + " packages.";
+		Log.info("Summary pack exported.\n" + message);
+	}
+	
+	private static void exportBinarySummary(List<SummaryRecords.Record> fields, List<SummaryRecords.Record> methods, File outputFile) throws IOException {
+		BinarySummaryWriter summary = new BinarySummaryWriter(
+				atlasVersion.getMajor() + "." + atlasVersion.getMinor() + "." + atlasVersion.getMicro(),
+				immutabilityToolboxVersion.getMajor() + "." + immutabilityToolboxVersion.getMinor() + "." + immutabilityToolboxVersion.getMicro());
+		
+		for(SummaryRecords.Record field : fields){
+			byte qualifiers = SummaryRecords.getMask(field.getQualifiers());
+			if(qualifiers == 0){
+				Log.warning("Missing type qualifier tags on field: " + field.getNode().address().toAddressString());
+			}
+			summary.addField(field.getPackage(), field.getParentClass(), field.getName(), field.getKind(), qualifiers);
+			fieldsSummarized++;
 		}
-		if(node.taggedWith(ImmutabilityTags.UNTYPED)){
-			immutabilityTags += (prefix + ImmutabilityTags.UNTYPED);
+		
+		for(SummaryRecords.Record method : methods){
+			byte qualifiers = SummaryRecords.getMask(method.getQualifiers());
+			if(qualifiers == 0){
+				Log.warning("Missing type qualifier tags on method: " + method.getNode().address().toAddressString());
+			}
+			Byte identityQualifiers = null;
+			if(method.getIdentityQualifiers() != null){
+				identityQualifiers = SummaryRecords.getMask(method.getIdentityQualifiers());
+			}
+			Byte returnQualifiers = null;
+			if(method.getReturnQualifiers() != null){
+				returnQualifiers = SummaryRecords.getMask(method.getReturnQualifiers());
+			}
+			// parameters are stored by parameter index, missing parameters are untyped
+			Integer[] parameters = method.getParameterQualifiers();
+			byte[] parameterQualifiers = new byte[parameters.length];
+			for(int index=0; index<parameters.length; index++){
+				if(parameters[index] != null){
+					parameterQualifiers[index] = SummaryRecords.getMask(parameters[index]);
+				}
+			}
+			summary.addMethod(method.getPackage(), method.getParentClass(), method.getName(), method.getKind(), 
+					qualifiers, identityQualifiers, returnQualifiers, parameterQualifiers);
+			methodsSummarized++;
 		}
-		return immutabilityTags;
+		
+		summary.write(outputFile);
 	}
 	
 }
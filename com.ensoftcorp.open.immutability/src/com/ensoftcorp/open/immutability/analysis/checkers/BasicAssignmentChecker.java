@@ -1,13 +1,14 @@
 package com.ensoftcorp.open.immutability.analysis.checkers;
 
+import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getConfiguration;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypes;
 
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.NodeKinds;
 import com.ensoftcorp.open.immutability.analysis.solvers.XFieldAdaptYGreaterThanEqualZConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYConstraintSolver;
 import com.ensoftcorp.open.immutability.log.Log;
-import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
 
 public class BasicAssignmentChecker {
 
@@ -30,23 +31,53 @@ public class BasicAssignmentChecker {
 			return false;
 		}
 		
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+		if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", y:" + getTypes(y).toString();
 			Log.info("TASSIGN (x=y, x=" + x.getAttr(XCSG.name) + ", y=" + y.getAttr(XCSG.name) + ")\n" + values);
 		}
 		
-		if(y.taggedWith(XCSG.InstanceVariable) && ImmutabilityPreferences.isFieldAdaptationsEnabled()){
+		if(getConfiguration().isFieldAdaptationsEnabled() && NodeKinds.getKind(y) == NodeKinds.INSTANCE_VARIABLE){
 			// treat x :> y, as x fadapt y :> y
-			if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+			if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 				Log.info("Processing Instance Variable Assignment Constraint x fadapt y :> y");
 			}
 			return XFieldAdaptYGreaterThanEqualZConstraintSolver.satisify(x, y, y);
 		} else {
-			if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+			if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 				Log.info("Processing Constraint x :> y");
 			}
 			return XGreaterThanEqualYConstraintSolver.satisify(x, y);
 		}
 	}
 	
+	/**
+	 * Solves and satisfies constraints for Type Rule 2 - TASSIGN when field adaptations are enabled
+	 * Let, x = y
+	 * 
+	 * @param x The reference being written to
+	 * @param y The reference be read from
+	 * @return
+	 */
+	public static boolean handleFieldAdaptedAssignment(Node x, Node y) {
+		return handleFieldAdaptedAssignment(x, y, NodeKinds.getKind(y));
+	}
+	
+	/**
+	 * Solves and satisfies constraints for Type Rule 2 - TASSIGN when field adaptations are enabled
+	 * Let, x = y
+	 * 
+	 * @param x The reference being written to
+	 * @param y The reference be read from
+	 * @param yKind The node kind of y (see NodeKinds)
+	 * @return
+	 */
+	public static boolean handleFieldAdaptedAssignment(Node x, Node y, byte yKind) {
+		if(yKind == NodeKinds.INSTANCE_VARIABLE){
+			// treat x :> y, as x fadapt y :> y
+			return XFieldAdaptYGreaterThanEqualZConstraintSolver.satisify(x, y, y);
+		} else {
+			return XGreaterThanEqualYConstraintSolver.satisify(x, y);
+		}
+	}
+	
 }
@@ -1,40 +1,38 @@
 package com.ensoftcorp.open.immutability.analysis.checkers;
 
+import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getConfiguration;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypes;
-import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.removeTypes;
 
-import com.ensoftcorp.atlas.core.db.graph.Edge;
 import com.ensoftcorp.atlas.core.db.graph.Node;
-import com.ensoftcorp.atlas.core.db.set.AtlasSet;
-import com.ensoftcorp.atlas.core.query.Q;
-import com.ensoftcorp.atlas.core.query.Query;
-import com.ensoftcorp.atlas.core.script.Common;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
-import com.ensoftcorp.open.commons.analysis.CommonQueries;
 import com.ensoftcorp.open.commons.xcsg.Undocumented;
 import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
-import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.constraints.CallSiteDescriptor;
 import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYMethodAdaptZConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XMethodAdaptYGreaterThanEqualZConstraintSolver;
 import com.ensoftcorp.open.immutability.log.Log;
-import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
 
 public class CallChecker {
 
 	/**
+	 * Type Rule 5 - TCALL
 	 * Let, x=y.m(z)
+	 * 
+	 * Note: constraints between an overriding and overridden method are 
+	 * handled separately by handleOverride
+	 * 
 	 * @param x
 	 * @param y
 	 * @param identity
-	 * @param method
-	 * @param ret
-	 * @param parametersPassedEdges
-	 * @param containingMethod 
+	 * @param callsite The descriptor of the callsite (method, ret, z1->p1, z2->p2, ...)
 	 * @return
 	 */
-	public static boolean handleCall(Node x, Node y, Node identity, Node method, Node ret, AtlasSet<Edge> parametersPassedEdges, Node containingMethod) {
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+	public static boolean handleCall(Node x, Node y, Node identity, CallSiteDescriptor callsite) {
+		Node method = callsite.getMethod();
+		Node ret = callsite.getReturnValue();
+		Node containingMethod = callsite.getContainingMethod();
+		if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", y:" + getTypes(y).toString() + ", this:" + getTypes(identity).toString() + ", return:" + getTypes(ret).toString() + ", m':" + getTypes(containingMethod).toString();
 			Log.info("TCALL (x=y.m(z), x=" + x.getAttr(XCSG.name) + ", y=" + y.getAttr(XCSG.name) + ", m=" + method.getAttr(Undocumented.SIGNATURE) + ")\n" + values);
 		}
@@ -48,7 +46,7 @@ public class CallChecker {
 		/////////////////////// end qx madapt qret <: qx ///////////////////////  
 		
 		/////////////////////// start qy <: qx madapt qthis /////////////////////// 
-		if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
+		if(getConfiguration().isDebugLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", y:" + getTypes(y).toString() + ", this:" + getTypes(identity).toString();
 			Log.info("Process TCALL Identity Constraint qy <: qx madapt qthis\n" + values);
 		}
@@ -58,70 +56,33 @@ public class CallChecker {
 		/////////////////////// end qy <: qx madapt qthis ///////////////////////
 
 		/////////////////////// start qz <: qx madapt qp ///////////////////////
-		if(processParameterConstraints(x, parametersPassedEdges)){
+		if(processParameterConstraints(x, callsite.getParametersPassed(), callsite.getParameters())){
 			typesChanged = true;
 		}
 		/////////////////////// end qz <: qx madapt qp /////////////////////////
 		
-		// check if method overrides another method (of course this will be empty for static methods)
-		Q overridesEdges = Query.universe().edges(XCSG.Overrides);
-		Node overriddenMethod = overridesEdges.successors(Common.toQ(method)).eval().nodes().one();
-		if(overriddenMethod != null){
-			if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) Log.info("TCALL (Overridden Method)");
-			
-			// Method (method) -Contains-> ReturnValue (ret)
-			Node overriddenRet = Common.toQ(overriddenMethod).children().nodes(XCSG.ReturnValue).eval().nodes().one();
-			
-			// constraint: overriddenReturn <: return
-			if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Process Override Return Constraint overriddenReturn <: return");
-			
-			if(XGreaterThanEqualYConstraintSolver.satisify(ret, overriddenRet)){
-				typesChanged = true;
-			}
-			
-			// Method (method) -Contains-> Identity
-			Node overriddenMethodIdentity = Common.toQ(overriddenMethod).children().nodes(XCSG.Identity).eval().nodes().one();
-
-			// constraint: this <: overriddenThis 
-			if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Process Override Identity Constraint this <: overriddenThis");
-			
-			if(XGreaterThanEqualYConstraintSolver.satisify(overriddenMethodIdentity, identity)){
-				typesChanged = true;
-			}
-
-			// Method (method) -Contains-> Parameter (p1, p2, ...)
-			AtlasSet<Node> overriddenMethodParameters = Common.toQ(overriddenMethod).children().nodes(XCSG.Parameter).eval().nodes();
-			
-			// get the parameters of the method
-			AtlasSet<Node> parameters = Common.toQ(parametersPassedEdges).nodes(XCSG.Parameter).eval().nodes();
-					
-			// for each parameter and overridden parameter pair
-			// constraint: p <: pOverriden
-			if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Process Override Parameter Constraint p <: pOverriden");
-			long numParams = parameters.size();
-			long numOverriddenParams = overriddenMethodParameters.size();
-			if(numParams == numOverriddenParams){
-				if(numOverriddenParams > 0){
-					for(int i=0; i<numOverriddenParams; i++){
-						Node p = Common.toQ(parameters).selectNode(XCSG.parameterIndex, i).eval().nodes().one();
-						Node pOverridden = Common.toQ(overriddenMethodParameters).selectNode(XCSG.parameterIndex, i).eval().nodes().one();
-
-						if(XGreaterThanEqualYConstraintSolver.satisify(pOverridden, p)){
-							typesChanged = true;
-						}
-					}
-				}
-			} else {
-				// note it seems that some Jimple methods are missing the parameter passed to edges 
-				// which is causing us not to find the parameters for the base method
-				// this should not happen and is a bug in Atlas!
-				Log.warning("Missing parameters for Method: " + method.address().toAddressString() 
-						+ " or Overriden Method: " + overriddenMethod.address().toAddressString(), 
-						new RuntimeException("Parameter counts do not match!"));
-			}
+		return typesChanged;
+	}
+	
+	/**
+	 * Solves and satisfies the constraints between an overriding and overridden method
+	 * 
+	 * overriddenReturn <: return
+	 * this <: overriddenThis
+	 * p <: pOverridden
+	 * 
+	 * @param x The overriding return value or overridden identity or parameter
+	 * @param y The overridden return value or overriding identity or parameter
+	 * @return
+	 */
+	public static boolean handleOverride(Node x, Node y) {
+		if(getConfiguration().isInferenceRuleLoggingEnabled()) {
+			String values = "x:" + getTypes(x).toString() + ", y:" + getTypes(y).toString();
+			Log.info("TCALL (Overridden Method, x=" + x.getAttr(XCSG.name) + ", y=" + y.getAttr(XCSG.name) + ")\n" + values);
 		}
 		
-		return typesChanged;
+		// constraint: y <: x
+		return XGreaterThanEqualYConstraintSolver.satisify(x, y);
 	}
 	
 	/**
@@ -129,14 +90,15 @@ public class CallChecker {
 	 * let, x = m(z)
 	 * 
 	 * @param x
-	 * @param method
-	 * @param ret
-	 * @param parametersPassedEdges
+	 * @param callsite The descriptor of the callsite (method, ret, z1->p1, z2->p2, ..., containing method)
 	 * @return
 	 */
-	public static boolean handleStaticCall(Node x, Node callsite, Node method, Node ret, AtlasSet<Edge> parametersPassedEdges) {
+	public static boolean handleStaticCall(Node x, CallSiteDescriptor callsite) {
+		Node method = callsite.getMethod();
+		Node ret = callsite.getReturnValue();
+		Node containingMethod = callsite.getContainingMethod();
 		
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+		if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 			Log.info("TSCALL (x=y.m(z), x=" + x.getAttr(XCSG.name) + ", m=" + method.getAttr(Undocumented.SIGNATURE) + ")");
 		}
 		
@@ -149,14 +111,13 @@ public class CallChecker {
 		/////////////////////// end qx madapt qret <: qx ///////////////////////// 
 
 		/////////////////////// start qz <: qx madapt qp /////////////////////////
-		if(processParameterConstraints(x, parametersPassedEdges)){
+		if(processParameterConstraints(x, callsite.getParametersPassed(), callsite.getParameters())){
 			typesChanged = true;
 		}
 		/////////////////////// end qz <: qx madapt qp ///////////////////////////
 		
 		/////////////////////// start qm' <: qx madapt qm /////////////////////////
 		// m' is the method that contains the callsite m()
-		Node containingMethod = CommonQueries.getContainingFunction(callsite);
 		if(processStaticDispatchConstraints(x, method, containingMethod)){
 			typesChanged = true;
 		}
@@ -166,7 +127,7 @@ public class CallChecker {
 	}
 
 	private static boolean processStaticDispatchConstraints(Node x, Node method, Node containingMethod) {
-		if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
+		if(getConfiguration().isDebugLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", m:" + getTypes(method).toString() + ", m':" + getTypes(containingMethod).toString();
 			Log.info("Process Static Dispatch Constraint qm' <: qx madapt qm\n" + values);
 		}
@@ -178,21 +139,26 @@ public class CallChecker {
 	
 	/**
 	 * qz <: qx madapt qp
+	 * 
+	 * Note: mutations of containers through a parameter are extracted 
+	 * as separate container constraints
+	 * 
 	 * @param x
-	 * @param parametersPassedEdges
+	 * @param parametersPassed
+	 * @param parameters
 	 * @return
 	 */
-	private static boolean processParameterConstraints(Node x, AtlasSet<Edge> parametersPassedEdges) {
-		if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.info("Process Parameter Constraint qz <: qx madapt qp");
+	private static boolean processParameterConstraints(Node x, Node[] parametersPassed, Node[] parameters) {
+		if(getConfiguration().isDebugLoggingEnabled()) Log.info("Process Parameter Constraint qz <: qx madapt qp");
 
 		boolean typesChanged = false;
 		
 		// for each z,p pair process s(x), s(z), and s(p)
-		for(Edge parametersPassedEdge : parametersPassedEdges){
-			Node z = parametersPassedEdge.from();
-			Node p = parametersPassedEdge.to();
+		for(int i=0; i<parametersPassed.length; i++){
+			Node z = parametersPassed[i];
+			Node p = parameters[i];
 			
-			if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
+			if(getConfiguration().isDebugLoggingEnabled()) {
 				Log.info("x = m(z->p), x:" + AnalysisUtilities.getTypes(x).toString() 
 						+ ", z:" + AnalysisUtilities.getTypes(z).toString() 
 						+ ", p:" + AnalysisUtilities.getTypes(p).toString());
@@ -203,33 +169,6 @@ public class CallChecker {
 			if(XMethodAdaptYGreaterThanEqualZConstraintSolver.satisify(x, p, z)){
 				typesChanged = true;
 			}
-			
-			
-			// TODO: case mutation to parameter mutates a field which is a part of a container
-			if(ImmutabilityPreferences.isContainerConsiderationEnabled()){
-				if(!getTypes(p).contains(ImmutabilityTypes.READONLY)){
-					Q localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow);
-					for(Node paramValue : localDataFlowEdges.predecessors(Common.toQ(z)).eval().nodes()){
-						if(paramValue.taggedWith(XCSG.InstanceVariableAccess)){
-							Node instanceVariableAccess = paramValue;
-							// each instance containing x has been mutated as well
-							// TODO: should this be like a basic assignment constraint 
-							// between each parent container field or just all are not readonly???
-							// for now going with the latter since its easier to implement...
-							for(Node container : AnalysisUtilities.getAccessedContainers(instanceVariableAccess)){
-								for(Node containerReference : AnalysisUtilities.parseReferences(container)){
-									if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
-										Log.info("A mutation to " + paramValue.getAttr(XCSG.name).toString() + " mutated container " + containerReference.getAttr(XCSG.name).toString());
-									}
-									if(removeTypes(containerReference, ImmutabilityTypes.READONLY)){
-										typesChanged = true;
-									}
-								}
-							}
-						}
-					}
-				}
-			}
 		}
 		
 		return typesChanged;
@@ -242,7 +181,7 @@ public class CallChecker {
 	 * @return
 	 */
 	private static boolean processReturnAssignmentConstraints(Node x, Node ret) {
-		if(ImmutabilityPreferences.isDebugLoggingEnabled()) {
+		if(getConfiguration().isDebugLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", return:" + getTypes(ret).toString();
 			Log.info("Process TCALL Return Constraint qx madapt qret <: qx\n" + values);
 		}
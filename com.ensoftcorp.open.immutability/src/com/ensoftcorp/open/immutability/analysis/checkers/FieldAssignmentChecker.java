@@ -1,13 +1,16 @@
 package com.ensoftcorp.open.immutability.analysis.checkers;
 
+import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getConfiguration;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.addMutable;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypes;
+import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypesMask;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.removeTypes;
 //import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.setMutable;
 
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
 import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.NodeKinds;
 import com.ensoftcorp.open.immutability.analysis.solvers.XEqualsYConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XFieldAdaptYGreaterThanEqualZConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYConstraintSolver;
@@ -15,7 +18,6 @@ import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYField
 import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYMethodAdaptZConstraintSolver;
 import com.ensoftcorp.open.immutability.analysis.solvers.XMethodAdaptYGreaterThanEqualZConstraintSolver;
 import com.ensoftcorp.open.immutability.log.Log;
-import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
 
 public class FieldAssignmentChecker {
 
@@ -30,7 +32,7 @@ public class FieldAssignmentChecker {
 	 */
 	public static boolean handleFieldWrite(Node x, Node f, Node y) {
 
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()) {
+		if(getConfiguration().isInferenceRuleLoggingEnabled()) {
 			String values = "x:" + getTypes(x).toString() + ", f:" + getTypes(f).toString() + ", y:" + getTypes(y).toString();
 			Log.info("TWRITE (x.f=y, x=" + x.getAttr(XCSG.name) + ", f=" + f.getAttr(XCSG.name) + ", y=" + y.getAttr(XCSG.name) + ")\n" + values);
 		}
@@ -38,41 +40,138 @@ public class FieldAssignmentChecker {
 		boolean typesChanged = false;
 		
 		// x must be mutable
-		if (x.taggedWith(XCSG.InstanceVariable)) {
-			if (ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled()) {
-				addMutable(x); // doesn't count as a type change
-			}
-			if(ImmutabilityPreferences.isAllowDefaultMutableInstancesVariablesEnabled() || ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled()){
-				if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
-					if(ImmutabilityPreferences.isAllowAddMutableInstanceVariablesEnabled() && getTypes(x).isEmpty()){
-						addMutable(x);
-					}
-					typesChanged = true;
-				}
-			} else {
-				// vanilla paper description
-				if(removeTypes(x, ImmutabilityTypes.READONLY)){
-					typesChanged = true;
-				}
+		if(handleMutation(x)){
+			typesChanged = true;
+		}
+		
+		if(getConfiguration().isFieldAdaptationsEnabled()){
+			if(handleFieldAdaptedWrite(f, y)){
+				typesChanged = true;
 			}
 		} else {
-			if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
+			if(handleMethodAdaptedWrite(x, f, y)){
 				typesChanged = true;
 			}
 		}
 		
-		if(ImmutabilityPreferences.isFieldAdaptationsEnabled()){
-			// qy <: MUTABLE fadapt qf
-			// = MUTABLE fadapt qf :> qy
-			// FSE 2012 implementation
-			if(XFieldAdaptYGreaterThanEqualZConstraintSolver.satisify(ImmutabilityTypes.MUTABLE, f, y)){
+		return typesChanged;
+	}
+	
+	/**
+	 * Solves and satisfies the field adapted write constraint of TWRITE (FSE 2012 implementation)
+	 * Let, x.f = y
+	 * 
+	 * @param f The field of the receiver object being written to
+	 * @param y The reference being read from
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleFieldAdaptedWrite(Node f, Node y) {
+		// qy <: MUTABLE fadapt qf
+		// = MUTABLE fadapt qf :> qy
+		return XFieldAdaptYGreaterThanEqualZConstraintSolver.satisify(ImmutabilityTypes.MUTABLE, f, y);
+	}
+	
+	/**
+	 * Solves and satisfies the method adapted write constraint of TWRITE (vanilla OOPSLA 2012 implementation)
+	 * Let, x.f = y
+	 * 
+	 * @param x The receiver object
+	 * @param f The field of the receiver object being written to
+	 * @param y The reference being read from
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleMethodAdaptedWrite(Node x, Node f, Node y) {
+		// qy <: MUTABLE fadapt qf
+		// = MUTABLE madapt qf :> qy
+		return XMethodAdaptYGreaterThanEqualZConstraintSolver.satisify(x, f, y);
+	}
+	
+	/**
+	 * Solves and satisfies the constraint that a mutated receiver object must be mutable
+	 * 
+	 * @param x The receiver object
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleMutation(Node x) {
+		if(getConfiguration().isAllowAddMutableInstanceVariablesEnabled()){
+			return handleAddMutableMutation(x);
+		} else if(getConfiguration().isAllowDefaultMutableInstancesVariablesEnabled()){
+			return handleDefaultMutableMutation(x);
+		} else {
+			return handleVanillaMutation(x);
+		}
+	}
+	
+	/**
+	 * Solves and satisfies the mutation constraint as described in the paper,
+	 * a mutated instance variable is only required to not be readonly
+	 * 
+	 * @param x The receiver object
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleVanillaMutation(Node x) {
+		return handleVanillaMutation(x, NodeKinds.getKind(x));
+	}
+	
+	/**
+	 * Solves and satisfies the mutation constraint as described in the paper,
+	 * a mutated instance variable is only required to not be readonly
+	 * 
+	 * @param x The receiver object
+	 * @param xKind The node kind of the receiver object (see NodeKinds)
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleVanillaMutation(Node x, byte xKind) {
+		if (xKind == NodeKinds.INSTANCE_VARIABLE) {
+			return removeTypes(x, ImmutabilityTypes.READONLY.getMask());
+		} else {
+			return XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE);
+		}
+	}
+	
+	/**
+	 * Solves and satisfies the mutation constraint when instance variables 
+	 * may include mutable types by default, the receiver must be mutable
+	 * 
+	 * @param x The receiver object
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleDefaultMutableMutation(Node x) {
+		return XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE);
+	}
+	
+	/**
+	 * Solves and satisfies the mutation constraint when mutable types may be
+	 * added to instance variables, the receiver must be mutable
+	 * 
+	 * @param x The receiver object
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleAddMutableMutation(Node x) {
+		return handleAddMutableMutation(x, NodeKinds.getKind(x));
+	}
+	
+	/**
+	 * Solves and satisfies the mutation constraint when mutable types may be
+	 * added to instance variables, the receiver must be mutable
+	 * 
+	 * @param x The receiver object
+	 * @param xKind The node kind of the receiver object (see NodeKinds)
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleAddMutableMutation(Node x, byte xKind) {
+		boolean typesChanged = false;
+		
+		if (xKind == NodeKinds.INSTANCE_VARIABLE) {
+			addMutable(x); // doesn't count as a type change
+			if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
+				if(getTypesMask(x) == 0){
+					addMutable(x);
+				}
 				typesChanged = true;
 			}
 		} else {
-			// qy <: MUTABLE fadapt qf
-			// = MUTABLE madapt qf :> qy
-			// vanilla OOPSLA 2012 implementation
-			if(XMethodAdaptYGreaterThanEqualZConstraintSolver.satisify(x, f, y)){
+			if(XEqualsYConstraintSolver.satisfy(x, ImmutabilityTypes.MUTABLE)){
 				typesChanged = true;
 			}
 		}
@@ -80,6 +179,37 @@ public class FieldAssignmentChecker {
 		return typesChanged;
 	}
 	
+	/**
+	 * Solves and satisfies the constraint that each instance containing a 
+	 * mutated reference has been mutated as well
+	 * 
+	 * TODO: should this be like a basic assignment constraint between each 
+	 * parent container field or just all are not readonly???
+	 * for now going with the latter since its easier to implement...
+	 * 
+	 * @param x The mutated reference, if null the mutation is unconditional, else the 
+	 * containers are only mutated if x is not readonly
+	 * @param access The field access (or array) that was mutated
+	 * @param containerReferences The references to the containers of the access
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleContainerMutation(Node x, Node access, Node[] containerReferences) {
+		if(x != null && (getTypesMask(x) & ImmutabilityTypes.READONLY.getMask()) != 0){
+			return false;
+		}
+		
+		boolean typesChanged = false;
+		for(Node containerReference : containerReferences){
+			if(getConfiguration().isDebugLoggingEnabled()) {
+				Log.info("A mutation to " + access.getAttr(XCSG.name).toString() + " mutated container " + containerReference.getAttr(XCSG.name).toString());
+			}
+			if(removeTypes(containerReference, ImmutabilityTypes.READONLY.getMask())){
+				typesChanged = true;
+			}
+		}
+		return typesChanged;
+	}
+	
 	/**
 	 * Solves and satisfies constraints for Type Rule 4 - TREAD
 	 * Let, x = y.f
@@ -90,25 +220,19 @@ public class FieldAssignmentChecker {
 	 * @return Returns true if the graph element's ImmutabilityTypes have changed
 	 */
 	public static boolean handleFieldRead(Node x, Node y, Node f) {
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()){
+		if(getConfiguration().isInferenceRuleLoggingEnabled()){
 			String values = "x:" + getTypes(x).toString() + ", f:" + getTypes(f).toString() + ", y:" + getTypes(y).toString();
 			Log.info("TREAD (x=y.f, x=" + x.getAttr(XCSG.name) + ", y=" + y.getAttr(XCSG.name) + ", f=" + f.getAttr(XCSG.name) + ")\n" + values);
 		}
 		
 		boolean typesChanged = false;
 		
-		if(ImmutabilityPreferences.isFieldAdaptationsEnabled()){
-			// qy adapt qf <: qx
-			// = qx :> qy adapt qf
-			// FSE 2012 version
-			if(XGreaterThanEqualYFieldAdaptZConstraintSolver.satisify(x, y, f)){
+		if(getConfiguration().isFieldAdaptationsEnabled()){
+			if(handleFieldAdaptedRead(x, y, f)){
 				typesChanged = true;
 			}
 		} else {
-			// qy adapt qf <: qx
-			// = qx :> qy adapt qf
-			// vanilla OOPSLA 2012 version
-			if(XGreaterThanEqualYMethodAdaptZConstraintSolver.satisify(x, y, f)){
+			if(handleMethodAdaptedRead(x, y, f)){
 				typesChanged = true;
 			}
 		}
@@ -116,6 +240,36 @@ public class FieldAssignmentChecker {
 		return typesChanged;
 	}
 	
+	/**
+	 * Solves and satisfies the field adapted constraint of TREAD (FSE 2012 version)
+	 * Let, x = y.f
+	 * 
+	 * @param x The reference being written to
+	 * @param y The receiver object
+	 * @param f The field of the receiver object being read from
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleFieldAdaptedRead(Node x, Node y, Node f) {
+		// qy adapt qf <: qx
+		// = qx :> qy adapt qf
+		return XGreaterThanEqualYFieldAdaptZConstraintSolver.satisify(x, y, f);
+	}
+	
+	/**
+	 * Solves and satisfies the method adapted constraint of TREAD (vanilla OOPSLA 2012 version)
+	 * Let, x = y.f
+	 * 
+	 * @param x The reference being written to
+	 * @param y The receiver object
+	 * @param f The field of the receiver object being read from
+	 * @return Returns true if the graph element's ImmutabilityTypes have changed
+	 */
+	public static boolean handleMethodAdaptedRead(Node x, Node y, Node f) {
+		// qy adapt qf <: qx
+		// = qx :> qy adapt qf
+		return XGreaterThanEqualYMethodAdaptZConstraintSolver.satisify(x, y, f);
+	}
+	
 	/**
 	 * Solves and satisfies constraints for Type Rule 6, - TSWRITE
 	 * Let, sf = x
@@ -127,7 +281,7 @@ public class FieldAssignmentChecker {
 	 * @return
 	 */
 	public static boolean handleStaticFieldWrite(Node sf, Node x, Node m) {
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()){
+		if(getConfiguration().isInferenceRuleLoggingEnabled()){
 			String values = "x:" + getTypes(x).toString() + ", sf:" + getTypes(sf).toString() + ", m:" + getTypes(m).toString();
 			Log.info("TSWRITE (sf=x in m, sf=" + sf.getAttr(XCSG.name) + ", x=" + x.getAttr(XCSG.name) + ", m=" + m.getAttr(XCSG.name) + ")\n" + values);
 		}
@@ -145,7 +299,7 @@ public class FieldAssignmentChecker {
 	 * @return
 	 */
 	public static boolean handleStaticFieldRead(Node x, Node sf, Node m) {
-		if(ImmutabilityPreferences.isInferenceRuleLoggingEnabled()){
+		if(getConfiguration().isInferenceRuleLoggingEnabled()){
 			String values = "x:" + getTypes(x).toString() + ", sf:" + getTypes(sf).toString() + ", m:" + getTypes(m).toString();
 			Log.info("TSREAD (x=sf in m, x=" + x.getAttr(XCSG.name) + ", sf=" + sf.getAttr(XCSG.name) + ", m=" + m.getAttr(XCSG.name) + ")\n" + values);
 		}
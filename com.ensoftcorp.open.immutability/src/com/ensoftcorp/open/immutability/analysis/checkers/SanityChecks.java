@@ -1,116 +1,243 @@
 package com.ensoftcorp.open.immutability.analysis.checkers;
 
-import java.util.Set;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.atlas.core.db.set.AtlasSet;
-import com.ensoftcorp.atlas.core.query.Q;
 import com.ensoftcorp.atlas.core.query.Query;
 import com.ensoftcorp.atlas.core.script.Common;
 import com.ensoftcorp.atlas.core.xcsg.XCSG;
 import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
 import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.NodeKinds;
+import com.ensoftcorp.open.immutability.analysis.checkers.SanityReport.Invariant;
 import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
 import com.ensoftcorp.open.immutability.log.Log;
 import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
 
+/**
+ * Checks the invariants of the immutability results.
+ *
+ * The nodes that could violate an invariant are collected with a single query
+ * and every invariant is evaluated for each node in one pass, partitioned across
+ * a ForkJoinPool. The default types of a node only depend on its reference kind,
+ * so they are computed once per kind instead of once per node.
+ */
 public class SanityChecks {
 
-	public static boolean run(){
-		boolean resultsAreSane = true;
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking for untyped references...");
-		resultsAreSane &= !hasUntypedReferences();
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking for conservation of types (types cannot be gained)...");
-		resultsAreSane &= !gainedTypes(XCSG.Null, XCSG.Literal, 
-									   XCSG.Instantiation, XCSG.ArrayInstantiation, 
-									   XCSG.MasterReturn, XCSG.Identity, XCSG.Parameter,
-									   XCSG.InstanceVariable, XCSG.ClassVariable,
-									   XCSG.Method);
-		
-		// this check is expensive and often wrong...type of edges pull in a lot of things
-//		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking that known readonly types are typed as readonly...");
-//		resultsAreSane &= !defaultReadonlyTypesAreReadonly();
-		
-		if(!ImmutabilityPreferences.isGenerateSummariesEnabled()){
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking for double tagged immutability types...");
-			resultsAreSane &= !isDoubleTagged();
-			
-			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking that methods are not tagged with immutability types...");
-			resultsAreSane &= !methodsDoNotHaveImmutabilityTypes();
-		}
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking all fields are typed...");
-		resultsAreSane &= !allFieldsAreTagged();
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking all parameters are typed...");
-		resultsAreSane &= !allParametersAreTagged();
-		
-		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking all identities are typed...");
-		resultsAreSane &= !allIdentititesAreTagged();
+	/**
+	 * The number of nodes below which a partition is not split further
+	 */
+	private static final int PARTITION_THRESHOLD = 4096;
+	
+	/**
+	 * The nodes whose types are compared to their default types
+	 */
+	private static final String[] DEFAULT_TYPED = new String[]{
+		XCSG.Null, XCSG.Literal, 
+		XCSG.Instantiation, XCSG.ArrayInstantiation, 
+		XCSG.MasterReturn, XCSG.Identity, XCSG.Parameter,
+		XCSG.InstanceVariable, XCSG.ClassVariable,
+		XCSG.Method
+	};
+	
+	private static final byte READONLY = ImmutabilityTypes.READONLY.getMask();
+	private static final byte POLYREAD = ImmutabilityTypes.POLYREAD.getMask();
+	private static final byte MUTABLE = ImmutabilityTypes.MUTABLE.getMask();
 
-		return resultsAreSane;
+	public static boolean run(){
+		return run(new NullProgressMonitor());
 	}
-
-	private static boolean allIdentititesAreTagged() {
-		// each field should be tagged
-		long missingTags = 0;
-		Q identities = Query.universe().nodes(XCSG.Identity);
-		for(Node identity : identities.eval().nodes()){
-			if(!(identity.taggedWith(ImmutabilityTags.READONLY) || identity.taggedWith(ImmutabilityTags.POLYREAD) || identity.taggedWith(ImmutabilityTags.MUTABLE))){
-				missingTags++;
-			}
+	
+	/**
+	 * Runs the sanity checks and logs the violated invariants
+	 * @param monitor
+	 * @return Returns true if the results are sane
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static boolean run(IProgressMonitor monitor){
+		SanityReport report = check(monitor);
+		if(report.isSane()){
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info(report.toString());
+		} else {
+			Log.warning(report.toString());
 		}
-		boolean hasMissingTags = missingTags > 0;
-		if(hasMissingTags) Log.warning("There are " + missingTags + " identity that are not tagged.");
-		return hasMissingTags;
+		return report.isSane();
 	}
 	
-	private static boolean allParametersAreTagged() {
-		// each field should be tagged
-		long missingTags = 0;
-		Q parameters = Query.universe().nodes(XCSG.Parameter);
-		for(Node parameter : parameters.eval().nodes()){
-			if(!(parameter.taggedWith(ImmutabilityTags.READONLY) || parameter.taggedWith(ImmutabilityTags.POLYREAD) || parameter.taggedWith(ImmutabilityTags.MUTABLE))){
-				missingTags++;
+	/**
+	 * Checks the invariants of the immutability results
+	 * 
+	 * Checked invariants:
+	 * there are no untyped references,
+	 * types cannot be gained (nodes are only tagged with their default types),
+	 * fields, parameters and identities are typed,
+	 * and for whole program analysis (summaries are not generated)
+	 * nodes are not tagged with two or more types and methods are not typed.
+	 * 
+	 * @param monitor
+	 * @return
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static SanityReport check(IProgressMonitor monitor){
+		SubMonitor progress = SubMonitor.convert(monitor, 2);
+		
+		// the nodes that may violate one of the invariants
+		String[] tags = new String[DEFAULT_TYPED.length + 5];
+		System.arraycopy(DEFAULT_TYPED, 0, tags, 0, DEFAULT_TYPED.length);
+		tags[DEFAULT_TYPED.length] = XCSG.Field;
+		tags[DEFAULT_TYPED.length + 1] = ImmutabilityTags.UNTYPED;
+		tags[DEFAULT_TYPED.length + 2] = ImmutabilityTags.READONLY;
+		tags[DEFAULT_TYPED.length + 3] = ImmutabilityTags.POLYREAD;
+		tags[DEFAULT_TYPED.length + 4] = ImmutabilityTags.MUTABLE;
+		AtlasSet<Node> candidates = Common.resolve(progress.split(1), Query.universe().nodes(tags).eval()).nodes();
+		Node[] nodes = new Node[(int) candidates.size()];
+		int index = 0;
+		for(Node node : candidates){
+			nodes[index++] = node;
+		}
+		
+		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Checking the invariants of " + nodes.length + " nodes...");
+		progress.split(1);
+		boolean wholeProgram = !ImmutabilityPreferences.isGenerateSummariesEnabled();
+		CheckTask task = new CheckTask(nodes, 0, nodes.length, wholeProgram, new DefaultMasks());
+		if(nodes.length > PARTITION_THRESHOLD){
+			ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+			try {
+				return pool.invoke(task);
+			} finally {
+				pool.shutdown();
 			}
+		} else {
+			return task.compute();
 		}
-		boolean hasMissingTags = missingTags > 0;
-		if(hasMissingTags) Log.warning("There are " + missingTags + " parameters that are not tagged.");
-		return hasMissingTags;
 	}
 	
-	private static boolean allFieldsAreTagged() {
-		// each field should be tagged
-		long missingTags = 0;
-		Q fields = Query.universe().nodes(XCSG.Field);
-		for(Node field : fields.eval().nodes()){
-			if(!(field.taggedWith(ImmutabilityTags.READONLY) || field.taggedWith(ImmutabilityTags.POLYREAD) || field.taggedWith(ImmutabilityTags.MUTABLE))){
-				missingTags++;
+	/**
+	 * The default qualifier set bit mask of each reference kind
+	 */
+	private static class DefaultMasks {
+		private static final byte UNKNOWN = -1;
+		private byte[] masks = new byte[Byte.MAX_VALUE + 1];
+		
+		private DefaultMasks(){
+			Arrays.fill(masks, UNKNOWN);
+		}
+		
+		private byte getMask(Node node){
+			byte kind = NodeKinds.getReferenceKind(node);
+			byte mask = masks[kind];
+			if(mask == UNKNOWN){
+				// racing workers compute the same mask
+				mask = ImmutabilityTypes.toMask(AnalysisUtilities.getDefaultTypes(node));
+				masks[kind] = mask;
 			}
+			return mask;
 		}
-		boolean hasMissingTags = missingTags > 0;
-		if(hasMissingTags) Log.warning("There are " + missingTags + " fields that are not tagged.");
-		return hasMissingTags;
 	}
 	
 	/**
-	 * Checks that methods do not have immutability tags
-	 * Only true for whole program analysis (partial program analysis is an exception)
-	 * @return
+	 * Checks the invariants of a partition of the nodes
 	 */
-	private static boolean methodsDoNotHaveImmutabilityTypes(){
-		long unexpectedTypes = 0;
-		unexpectedTypes += Query.universe().nodesTaggedWithAll(XCSG.Method, ImmutabilityTags.READONLY).eval().nodes().size();
-		unexpectedTypes += Query.universe().nodesTaggedWithAll(XCSG.Method, ImmutabilityTags.POLYREAD).eval().nodes().size();
-		unexpectedTypes += Query.universe().nodesTaggedWithAll(XCSG.Method, ImmutabilityTags.MUTABLE).eval().nodes().size();
-		unexpectedTypes += Query.universe().nodesTaggedWithAll(XCSG.Method, ImmutabilityTags.UNTYPED).eval().nodes().size();
-		boolean hasUnexpectedTypes = unexpectedTypes > 0;
-		if(hasUnexpectedTypes) Log.warning("There are " + unexpectedTypes + " methods that were expected to not to have immutability types that do.");
-		return hasUnexpectedTypes;
+	private static class CheckTask extends RecursiveTask<SanityReport> {
+		private static final long serialVersionUID = 1L;
+		
+		private Node[] nodes;
+		private int start;
+		private int end;
+		private boolean wholeProgram;
+		private DefaultMasks defaultMasks;
+		
+		private CheckTask(Node[] nodes, int start, int end, boolean wholeProgram, DefaultMasks defaultMasks){
+			this.nodes = nodes;
+			this.start = start;
+			this.end = end;
+			this.wholeProgram = wholeProgram;
+			this.defaultMasks = defaultMasks;
+		}
+		
+		@Override
+		protected SanityReport compute() {
+			if(end - start > PARTITION_THRESHOLD){
+				int middle = (start + end) >>> 1;
+				CheckTask left = new CheckTask(nodes, start, middle, wholeProgram, defaultMasks);
+				CheckTask right = new CheckTask(nodes, middle, end, wholeProgram, defaultMasks);
+				left.fork();
+				SanityReport report = right.compute();
+				return left.join().merge(report);
+			}
+			SanityReport report = new SanityReport();
+			for(int i=start; i<end; i++){
+				check(nodes[i], report);
+			}
+			return report;
+		}
+		
+		private void check(Node node, SanityReport report){
+			report.checked();
+			boolean readonly = node.taggedWith(ImmutabilityTags.READONLY);
+			boolean polyread = node.taggedWith(ImmutabilityTags.POLYREAD);
+			boolean mutable = node.taggedWith(ImmutabilityTags.MUTABLE);
+			boolean untyped = node.taggedWith(ImmutabilityTags.UNTYPED);
+			boolean typed = readonly || polyread || mutable;
+			
+			if(untyped){
+				report.violated(Invariant.UNTYPED_REFERENCES, node);
+			}
+			
+			// types cannot be gained
+			if(typed && isDefaultTyped(node)){
+				byte defaultMask = defaultMasks.getMask(node);
+				if((readonly && (defaultMask & READONLY) == 0) 
+						|| (polyread && (defaultMask & POLYREAD) == 0) 
+						|| (mutable && (defaultMask & MUTABLE) == 0)){
+					report.violated(Invariant.GAINED_TYPES, node);
+				}
+			}
+			
+			if(wholeProgram){
+				if(readonly && polyread){
+					report.violated(Invariant.READONLY_AND_POLYREAD, node);
+				}
+				if(readonly && mutable){
+					report.violated(Invariant.READONLY_AND_MUTABLE, node);
+				}
+				if(polyread && mutable){
+					report.violated(Invariant.POLYREAD_AND_MUTABLE, node);
+				}
+				if((typed || untyped) && node.taggedWith(XCSG.Method)){
+					report.violated(Invariant.TYPED_METHODS, node);
+				}
+			}
+			
+			if(!typed){
+				if(node.taggedWith(XCSG.Field)){
+					report.violated(Invariant.UNTYPED_FIELDS, node);
+				}
+				if(node.taggedWith(XCSG.Parameter)){
+					report.violated(Invariant.UNTYPED_PARAMETERS, node);
+				}
+				if(node.taggedWith(XCSG.Identity)){
+					report.violated(Invariant.UNTYPED_IDENTITIES, node);
+				}
+			}
+		}
+		
+		private static boolean isDefaultTyped(Node node){
+			for(String tag : DEFAULT_TYPED){
+				if(node.taggedWith(tag)){
+					return true;
+				}
+			}
+			return false;
+		}
 	}
 	
 //	/**
@@ -170,66 +297,4 @@ public class SanityChecks {
 //		return hasUnexpectedTypes;
 //	}
 
-	private static boolean gainedTypes(String... tags) {
-		int unexpectedTypes = 0;
-		for(Node node : Common.resolve(new NullProgressMonitor(), Query.universe().nodes(tags).eval()).nodes()){
-			Set<ImmutabilityTypes> defaultTypes = AnalysisUtilities.getDefaultTypes(node);
-			if(node.taggedWith(ImmutabilityTags.READONLY) && !defaultTypes.contains(ImmutabilityTypes.READONLY)){
-				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.warning("GraphElement " + node.address().toAddressString() + " is tagged as READONLY but READONLY is not a valid default for this element.");
-				unexpectedTypes++;
-			} else if(node.taggedWith(ImmutabilityTags.POLYREAD) && !defaultTypes.contains(ImmutabilityTypes.POLYREAD)){
-				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.warning("GraphElement " + node.address().toAddressString() + " is tagged as POLYREAD but POLYREAD is not a valid default for this element.");
-				unexpectedTypes++;
-			} else if(node.taggedWith(ImmutabilityTags.MUTABLE) && !defaultTypes.contains(ImmutabilityTypes.MUTABLE)){
-				if(ImmutabilityPreferences.isDebugLoggingEnabled()) Log.warning("GraphElement " + node.address().toAddressString() + " is tagged as MUTABLE but MUTABLE is not a valid default for this element.");
-				unexpectedTypes++;
-			}
-		}
-		boolean hasUnexpectedTypes = unexpectedTypes > 0;
-		if(hasUnexpectedTypes) Log.warning("There are " + unexpectedTypes + " nodes that gained unexpected types over thier defaults.");
-		return hasUnexpectedTypes;
-	}
-
-	/**
-	 * Returns true if tagged with two or more of the following (READONLY, POLYREAD, MUTABLE)
-	 * @return
-	 */
-	private static boolean isDoubleTagged() {
-		boolean isDoubleTagged = false;
-		
-		AtlasSet<Node> readonlyPolyread = Query.universe().nodesTaggedWithAll(ImmutabilityTags.READONLY, ImmutabilityTags.POLYREAD).eval().nodes();
-		if(readonlyPolyread.size() > 0){
-			isDoubleTagged = true;
-			Log.warning("There are " + readonlyPolyread.size() + " nodes that are tagged as " + ImmutabilityTags.READONLY + " and " + ImmutabilityTags.POLYREAD);
-		}
-		
-		AtlasSet<Node> readonlyMutable = Query.universe().nodesTaggedWithAll(ImmutabilityTags.READONLY, ImmutabilityTags.MUTABLE).eval().nodes();
-		if(readonlyMutable.size() > 0){
-			isDoubleTagged = true;
-			Log.warning("There are " + readonlyMutable.size() + " nodes that are tagged as " + ImmutabilityTags.READONLY + " and " + ImmutabilityTags.MUTABLE);
-		}
-		
-		AtlasSet<Node> polyreadMutable = Query.universe().nodesTaggedWithAll(ImmutabilityTags.POLYREAD, ImmutabilityTags.MUTABLE).eval().nodes();
-		if(polyreadMutable.size() > 0){
-			isDoubleTagged = true;
-			Log.warning("There are " + polyreadMutable.size() + " nodes that are tagged as " + ImmutabilityTags.POLYREAD + " and " + ImmutabilityTags.MUTABLE);
-		}
-		
-		return isDoubleTagged;
-	}
-	
-	/**
-	 * Returns true if there are nodes with the UNTYPED tag
-	 * @return
-	 */
-	private static boolean hasUntypedReferences(){
-		boolean hasUntypedReferences = false;
-		AtlasSet<Node> untypedReferences = Query.universe().nodes(ImmutabilityTags.UNTYPED).eval().nodes();
-		if(untypedReferences.size() > 0){
-			hasUntypedReferences = true;
-			Log.warning("There are " + untypedReferences.size() + " references with no immutability types!");
-		}
-		return hasUntypedReferences;
-	}
-	
 }
@@ -0,0 +1,158 @@
+package com.ensoftcorp.open.immutability.analysis.checkers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.open.immutability.constants.ImmutabilityTags;
+
+/**
+ * The results of the sanity checks, the number of nodes that violate
+ * each invariant and a bounded sample of the offending nodes
+ */
+public class SanityReport {
+
+	/**
+	 * The invariants checked for each node
+	 */
+	public static enum Invariant {
+		UNTYPED_REFERENCES("references with no immutability types"),
+		GAINED_TYPES("nodes that gained unexpected types over their defaults"),
+		READONLY_AND_POLYREAD("nodes that are tagged as " + ImmutabilityTags.READONLY + " and " + ImmutabilityTags.POLYREAD),
+		READONLY_AND_MUTABLE("nodes that are tagged as " + ImmutabilityTags.READONLY + " and " + ImmutabilityTags.MUTABLE),
+		POLYREAD_AND_MUTABLE("nodes that are tagged as " + ImmutabilityTags.POLYREAD + " and " + ImmutabilityTags.MUTABLE),
+		TYPED_METHODS("methods that were expected to not to have immutability types that do"),
+		UNTYPED_FIELDS("fields that are not tagged"),
+		UNTYPED_PARAMETERS("parameters that are not tagged"),
+		UNTYPED_IDENTITIES("identities that are not tagged");
+
+		private String description;
+
+		private Invariant(String description){
+			this.description = description;
+		}
+
+		/**
+		 * Returns a description of the nodes that violate the invariant
+		 * @return
+		 */
+		public String getDescription(){
+			return description;
+		}
+	}
+
+	/**
+	 * The maximum number of offending nodes kept for each invariant
+	 */
+	public static final int MAX_SAMPLES = 10;
+
+	private long checkedNodes = 0;
+	private long[] violations = new long[Invariant.values().length];
+	private List<List<Node>> samples = new ArrayList<List<Node>>();
+
+	public SanityReport(){
+		for(int i=0; i<violations.length; i++){
+			samples.add(new ArrayList<Node>(MAX_SAMPLES));
+		}
+	}
+
+	/**
+	 * Records that a node was checked
+	 */
+	void checked(){
+		checkedNodes++;
+	}
+
+	/**
+	 * Records that the given node violates the given invariant
+	 * @param invariant
+	 * @param node
+	 */
+	void violated(Invariant invariant, Node node){
+		violations[invariant.ordinal()]++;
+		List<Node> invariantSamples = samples.get(invariant.ordinal());
+		if(invariantSamples.size() < MAX_SAMPLES){
+			invariantSamples.add(node);
+		}
+	}
+
+	/**
+	 * Adds the results of the given report to this report
+	 * @param report
+	 * @return Returns this report
+	 */
+	SanityReport merge(SanityReport report){
+		checkedNodes += report.checkedNodes;
+		for(int i=0; i<violations.length; i++){
+			violations[i] += report.violations[i];
+			List<Node> invariantSamples = samples.get(i);
+			for(Node node : report.samples.get(i)){
+				if(invariantSamples.size() >= MAX_SAMPLES){
+					break;
+				}
+				invariantSamples.add(node);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the number of nodes checked
+	 * @return
+	 */
+	public long getCheckedNodes(){
+		return checkedNodes;
+	}
+
+	/**
+	 * Returns the number of nodes that violate the given invariant
+	 * @param invariant
+	 * @return
+	 */
+	public long getViolations(Invariant invariant){
+		return violations[invariant.ordinal()];
+	}
+
+	/**
+	 * Returns a sample of the nodes that violate the given invariant
+	 * @param invariant
+	 * @return
+	 */
+	public List<Node> getSamples(Invariant invariant){
+		return Collections.unmodifiableList(samples.get(invariant.ordinal()));
+	}
+
+	/**
+	 * Returns true if no invariant is violated
+	 * @return
+	 */
+	public boolean isSane(){
+		for(long invariantViolations : violations){
+			if(invariantViolations > 0){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Describes each violated invariant and the addresses of its sampled offenders
+	 */
+	@Override
+	public String toString(){
+		StringBuilder result = new StringBuilder();
+		result.append("Checked " + checkedNodes + " nodes.");
+		for(Invariant invariant : Invariant.values()){
+			long invariantViolations = violations[invariant.ordinal()];
+			if(invariantViolations > 0){
+				result.append("\nThere are " + invariantViolations + " " + invariant.getDescription() + ", for example:");
+				for(Node node : samples.get(invariant.ordinal())){
+					result.append(" " + node.address().toAddressString());
+				}
+			}
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.ensoftcorp.open.immutability.analysis.codegen;
+
+import java.util.EnumSet;
+
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+
+/**
+ * Helper for emitting the removal tables of the constraint solvers
+ * 
+ * For each reference there are 7 possible non-empty qualifier sets (3 choose 3 + 3 choose 2 + 3 choose 1)
+ * which are encoded as 3-bit masks 1-7 (see ImmutabilityTypes.getMask()). A table entry holds the mask 
+ * of the types that must be removed from a reference for a given combination of qualifier sets.
+ */
+public class RemovalTables {
+
+	/**
+	 * The number of non-empty qualifier sets
+	 */
+	public static final int SETS = 7;
+	
+	/**
+	 * Returns the qualifier set encoded by the given mask
+	 * @param mask
+	 * @return
+	 */
+	public static EnumSet<ImmutabilityTypes> getSet(int mask){
+		return ImmutabilityTypes.fromMask((byte) mask);
+	}
+	
+	/**
+	 * Returns the mask of the given types
+	 * @param types
+	 * @return
+	 */
+	public static byte getMask(EnumSet<ImmutabilityTypes> types){
+		return ImmutabilityTypes.toMask(types);
+	}
+	
+	/**
+	 * Prints a table of 7x7 entries indexed by (x-1)*7 + (y-1)
+	 * @param name
+	 * @param table
+	 */
+	public static void print2(String name, byte[] table){
+		System.out.println("private static final byte[] " + name + " = new byte[]{");
+		for(int x=1; x<=SETS; x++){
+			StringBuilder row = new StringBuilder("\t");
+			for(int y=1; y<=SETS; y++){
+				row.append(table[((x-1)*SETS) + (y-1)]);
+				row.append((x < SETS || y < SETS) ? ", " : "  ");
+			}
+			row.append("// xTypes=" + getSet(x).toString());
+			System.out.println(row.toString());
+		}
+		System.out.println("};");
+	}
+	
+	/**
+	 * Prints a table of 7x7x7 entries indexed by ((x-1)*7 + (y-1))*7 + (z-1)
+	 * @param name
+	 * @param table
+	 */
+	public static void print3(String name, byte[] table){
+		System.out.println("private static final byte[] " + name + " = new byte[]{");
+		for(int x=1; x<=SETS; x++){
+			for(int y=1; y<=SETS; y++){
+				StringBuilder row = new StringBuilder("\t");
+				for(int z=1; z<=SETS; z++){
+					row.append(table[((((x-1)*SETS) + (y-1))*SETS) + (z-1)]);
+					row.append((x < SETS || y < SETS || z < SETS) ? ", " : "  ");
+				}
+				row.append("// xTypes=" + getSet(x).toString() + ", yTypes=" + getSet(y).toString());
+				System.out.println(row.toString());
+			}
+		}
+		System.out.println("};");
+	}
+	
+}
@@ -0,0 +1,109 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+
+/**
+ * The program graph elements of a callsite that the TCALL and TSCALL rules
+ * are applied to, resolved once per analysis run (see CallSiteDescriptors)
+ */
+public class CallSiteDescriptor {
+
+	private Node callsite;
+	private Node method;
+	private Node ret;
+	private Node containingMethod;
+	private Node[] identities;
+	private Node[] receivers;
+	private Node[] parametersPassed;
+	private Node[] parameters;
+	private Node overriddenMethod;
+
+	CallSiteDescriptor(Node callsite, Node method, Node ret, Node containingMethod, Node[] identities,
+			Node[] receivers, Node[] parametersPassed, Node[] parameters, Node overriddenMethod){
+		this.callsite = callsite;
+		this.method = method;
+		this.ret = ret;
+		this.containingMethod = containingMethod;
+		this.identities = identities;
+		this.receivers = receivers;
+		this.parametersPassed = parametersPassed;
+		this.parameters = parameters;
+		this.overriddenMethod = overriddenMethod;
+	}
+
+	/**
+	 * Returns the callsite
+	 * @return
+	 */
+	public Node getCallSite(){
+		return callsite;
+	}
+
+	/**
+	 * Returns the invoked method (or method signature of a dynamic dispatch)
+	 * @return
+	 */
+	public Node getMethod(){
+		return method;
+	}
+
+	/**
+	 * Returns the return value of the invoked method
+	 * @return
+	 */
+	public Node getReturnValue(){
+		return ret;
+	}
+
+	/**
+	 * Returns the method that contains the callsite
+	 * @return
+	 */
+	public Node getContainingMethod(){
+		return containingMethod;
+	}
+
+	/**
+	 * Returns the identities (this) of the invoked method,
+	 * which is empty for static dispatches
+	 * @return
+	 */
+	public Node[] getIdentities(){
+		return identities;
+	}
+
+	/**
+	 * Returns the receivers (y) of the callsite,
+	 * which is empty for static dispatches
+	 * @return
+	 */
+	public Node[] getReceivers(){
+		return receivers;
+	}
+
+	/**
+	 * Returns the parameters passed (z1, z2, ...), the parameter passed
+	 * at each index is passed to the parameter at the same index of getParameters()
+	 * @return
+	 */
+	public Node[] getParametersPassed(){
+		return parametersPassed;
+	}
+
+	/**
+	 * Returns the parameters (p1, p2, ...) corresponding to getParametersPassed()
+	 * @return
+	 */
+	public Node[] getParameters(){
+		return parameters;
+	}
+
+	/**
+	 * Returns the method overridden by the invoked method or null
+	 * @return
+	 */
+	public Node getOverriddenMethod(){
+		return overriddenMethod;
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.ensoftcorp.atlas.core.db.graph.Edge;
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.atlas.core.query.Q;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.commons.analysis.CommonQueries;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+
+/**
+ * A per run table of callsite descriptors, the graph queries for each callsite
+ * are made once and the queries for the invoked method are shared by every
+ * callsite of the method
+ */
+public class CallSiteDescriptors {
+
+	private HashMap<Node,CallSiteDescriptor> descriptors = new HashMap<Node,CallSiteDescriptor>();
+
+	private HashMap<Node,AtlasSet<Node>> methodParameters = new HashMap<Node,AtlasSet<Node>>();
+	private HashMap<Node,Node[]> methodIdentities = new HashMap<Node,Node[]>();
+	private HashMap<Node,Node> overriddenMethods = new HashMap<Node,Node>();
+
+	private Q localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow);
+	private Q interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow);
+	private Q identityPassedToEdges = Query.universe().edges(XCSG.IdentityPassedTo);
+	private Q overridesEdges = Query.universe().edges(XCSG.Overrides);
+
+	/**
+	 * Returns the descriptor of the given dynamic or static dispatch callsite
+	 * @param callsite
+	 * @return
+	 */
+	public CallSiteDescriptor getDescriptor(Node callsite){
+		CallSiteDescriptor descriptor = descriptors.get(callsite);
+		if(descriptor == null){
+			descriptor = createDescriptor(callsite);
+			descriptors.put(callsite, descriptor);
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Returns the number of callsites described
+	 * @return
+	 */
+	public int size(){
+		return descriptors.size();
+	}
+
+	private CallSiteDescriptor createDescriptor(Node callsite){
+		boolean dynamicDispatch = callsite.taggedWith(XCSG.DynamicDispatchCallSite);
+
+		// ReturnValue (ret) -InterproceduralDataFlow-> CallSite (m)
+		// callsites of void methods are linked to their dummy return values by the dummy references
+		Node ret = AnalysisUtilities.getDummyReferences().getReturnValue(callsite);
+		if(ret == null){
+			ret = interproceduralDataFlowEdges.predecessors(Common.toQ(callsite)).eval().nodes().one();
+		}
+
+		Node method;
+		if(dynamicDispatch){
+			// Method (method) -Contains-> ReturnValue (ret)
+			method = Common.toQ(ret).parent().eval().nodes().one();
+		} else {
+			method = AnalysisUtilities.getInvokedMethodSignature(callsite);
+		}
+
+		// m' is the method that contains the callsite m()
+		Node containingMethod = CommonQueries.getContainingFunction(callsite);
+
+		// ParameterPassed (z1, z2, ...) -InterproceduralDataFlow-> Parameter (p1, p2, ...)
+		AtlasSet<Edge> parametersPassedEdges = getParametersPassedEdges(callsite, getParameters(method));
+		Node[] parametersPassed = new Node[(int) parametersPassedEdges.size()];
+		Node[] parameters = new Node[parametersPassed.length];
+		int index = 0;
+		for(Edge parametersPassedEdge : parametersPassedEdges){
+			parametersPassed[index] = parametersPassedEdge.from();
+			parameters[index] = parametersPassedEdge.to();
+			index++;
+		}
+
+		Node[] identities = new Node[]{};
+		Node[] receivers = new Node[]{};
+		Node overriddenMethod = null;
+		if(dynamicDispatch){
+			identities = getIdentities(method);
+
+			// IdentityPass (.this) -IdentityPassedTo-> CallSite (m)
+			// Receiver (receiver) -LocalDataFlow-> IdentityPass (.this)
+			ArrayList<Node> receiverList = new ArrayList<Node>();
+			for(Node identityPass : identityPassedToEdges.predecessors(Common.toQ(callsite)).eval().nodes()){
+				receiverList.add(localDataFlowEdges.predecessors(Common.toQ(identityPass)).eval().nodes().one());
+			}
+			receivers = receiverList.toArray(new Node[receiverList.size()]);
+
+			overriddenMethod = getOverriddenMethod(method);
+		}
+
+		return new CallSiteDescriptor(callsite, method, ret, containingMethod, identities, receivers, parametersPassed, parameters, overriddenMethod);
+	}
+
+	/**
+	 * Returns the edges from the parameters passed at the callsite to the given parameters
+	 *
+	 * ParameterPassed (z1, z2, ...) -InterproceduralDataFlow-> Parameter (p1, p2, ...)
+	 * such that z1-InterproceduralDataFlow->p1, z2-InterproceduralDataFlow->p2, ...
+	 *
+	 * @param callsite
+	 * @param parameters
+	 * @return
+	 */
+	private AtlasSet<Edge> getParametersPassedEdges(Node callsite, AtlasSet<Node> parameters){
+		// ControlFlow -Contains-> CallSite
+		// CallSite -Contains-> ParameterPassed (z1, z2, ...)
+		AtlasSet<Node> parametersPassed = Common.toQ(callsite).parent().children().nodes(XCSG.ParameterPass).eval().nodes();
+		return interproceduralDataFlowEdges.betweenStep(Common.toQ(parametersPassed), Common.toQ(parameters)).eval().edges();
+	}
+
+	/**
+	 * Method (method) -Contains-> Parameter (p1, p2, ...)
+	 * @param method
+	 * @return
+	 */
+	private AtlasSet<Node> getParameters(Node method){
+		AtlasSet<Node> parameters = methodParameters.get(method);
+		if(parameters == null){
+			parameters = Common.toQ(method).children().nodes(XCSG.Parameter).eval().nodes();
+			methodParameters.put(method, parameters);
+		}
+		return parameters;
+	}
+
+	/**
+	 * Method (method) -Contains-> Identity
+	 *
+	 * there should only be one identity node, but in case the graph is malformed this will act as an early prevention measure
+	 * TODO: assert this property through a sanity check before running this computation
+	 *
+	 * @param method
+	 * @return
+	 */
+	private Node[] getIdentities(Node method){
+		Node[] identities = methodIdentities.get(method);
+		if(identities == null){
+			AtlasSet<Node> identitySet = Common.toQ(method).children().nodes(XCSG.Identity).eval().nodes();
+			identities = new Node[(int) identitySet.size()];
+			int index = 0;
+			for(Node identity : identitySet){
+				identities[index++] = identity;
+			}
+			methodIdentities.put(method, identities);
+		}
+		return identities;
+	}
+
+	/**
+	 * Returns the method the given method overrides (of course this will be empty for static methods)
+	 * @param method
+	 * @return
+	 */
+	private Node getOverriddenMethod(Node method){
+		if(!overriddenMethods.containsKey(method)){
+			overriddenMethods.put(method, overridesEdges.successors(Common.toQ(method)).eval().nodes().one());
+		}
+		return overriddenMethods.get(method);
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.Arrays;
+
+/**
+ * Condenses the dependency graph of a constraint system into its strongly
+ * connected components in topological order.
+ *
+ * The dependency graph has a vertex for each reference and each constraint,
+ * an edge from each reference to the constraints that read it and an edge
+ * from each constraint to the references it may reduce. A component can only
+ * reduce the qualifier sets of references in its own or later components, so
+ * solving the components to a local fixed point in topological order never
+ * needs to revisit an earlier component.
+ */
+public class ConstraintComponents {
+
+	private ConstraintSystem system;
+	private int references;
+
+	/**
+	 * The dependency graph in compressed sparse row form, vertices [0,references)
+	 * are references and vertices [references,references+constraints) are constraints
+	 */
+	private int[] edgeOffsets;
+	private int[] edges;
+
+	/**
+	 * The topological index of the component of each vertex
+	 */
+	private int[] components;
+	private int componentCount;
+
+	/**
+	 * The vertices ordered by the topological index of their components
+	 */
+	private int[] topologicalOrder;
+
+	public ConstraintComponents(ConstraintSystem system){
+		this.system = system;
+		this.references = system.getReferences().size();
+		buildGraph();
+		findComponents();
+	}
+
+	private void buildGraph(){
+		int vertices = references + system.size();
+		int[][] reads = new int[system.size()][];
+		int[][] writes = new int[system.size()][];
+		edgeOffsets = new int[vertices + 1];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			reads[constraint] = system.getReads(constraint);
+			writes[constraint] = system.getWrites(constraint);
+			for(int reference : reads[constraint]){
+				edgeOffsets[reference + 1]++;
+			}
+			edgeOffsets[references + constraint + 1] += writes[constraint].length;
+		}
+		for(int vertex=0; vertex<vertices; vertex++){
+			edgeOffsets[vertex + 1] += edgeOffsets[vertex];
+		}
+		edges = new int[edgeOffsets[vertices]];
+		int[] next = Arrays.copyOf(edgeOffsets, vertices);
+		for(int constraint=0; constraint<system.size(); constraint++){
+			for(int reference : reads[constraint]){
+				edges[next[reference]++] = references + constraint;
+			}
+			for(int reference : writes[constraint]){
+				edges[next[references + constraint]++] = reference;
+			}
+		}
+	}
+
+	/**
+	 * Iterative Tarjan's algorithm, components are discovered in reverse
+	 * topological order and renumbered in topological order when complete
+	 */
+	private void findComponents(){
+		int vertices = references + system.size();
+		int[] index = new int[vertices];
+		int[] lowlink = new int[vertices];
+		boolean[] onStack = new boolean[vertices];
+		int[] stack = new int[vertices];
+		int stackSize = 0;
+		int[] callStack = new int[vertices];
+		int[] cursor = new int[vertices];
+		int callStackSize = 0;
+		int nextIndex = 1;
+
+		components = new int[vertices];
+		componentCount = 0;
+		topologicalOrder = new int[vertices];
+		int completed = 0;
+
+		for(int root=0; root<vertices; root++){
+			if(index[root] != 0){
+				continue;
+			}
+			index[root] = lowlink[root] = nextIndex++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			cursor[root] = edgeOffsets[root];
+			callStack[callStackSize++] = root;
+			while(callStackSize > 0){
+				int vertex = callStack[callStackSize - 1];
+				if(cursor[vertex] < edgeOffsets[vertex + 1]){
+					int successor = edges[cursor[vertex]++];
+					if(index[successor] == 0){
+						index[successor] = lowlink[successor] = nextIndex++;
+						stack[stackSize++] = successor;
+						onStack[successor] = true;
+						cursor[successor] = edgeOffsets[successor];
+						callStack[callStackSize++] = successor;
+					} else if(onStack[successor]){
+						lowlink[vertex] = Math.min(lowlink[vertex], index[successor]);
+					}
+				} else {
+					callStackSize--;
+					if(callStackSize > 0){
+						int parent = callStack[callStackSize - 1];
+						lowlink[parent] = Math.min(lowlink[parent], lowlink[vertex]);
+					}
+					if(lowlink[vertex] == index[vertex]){
+						// vertex is the root of a component, pop the component from the stack
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							components[member] = componentCount;
+							topologicalOrder[completed++] = member;
+						} while(member != vertex);
+						componentCount++;
+					}
+				}
+			}
+		}
+
+		// reverse the discovery order to get a topological order
+		for(int vertex=0; vertex<vertices; vertex++){
+			components[vertex] = componentCount - 1 - components[vertex];
+		}
+		for(int i=0, j=vertices-1; i<j; i++, j--){
+			int swap = topologicalOrder[i];
+			topologicalOrder[i] = topologicalOrder[j];
+			topologicalOrder[j] = swap;
+		}
+	}
+
+	/**
+	 * Returns the number of components (including components with no constraints)
+	 * @return
+	 */
+	public int size(){
+		return componentCount;
+	}
+
+	/**
+	 * Returns the topological index of the component containing the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int getComponent(int constraint){
+		return components[references + constraint];
+	}
+
+	/**
+	 * Returns the topological level of each component, a component's level is one
+	 * more than the greatest level of the components it depends on, so components
+	 * of the same level are independent of each other
+	 * @return
+	 */
+	public int[] getLevels(){
+		int[] levels = new int[componentCount];
+		for(int vertex : topologicalOrder){
+			int component = components[vertex];
+			for(int i=edgeOffsets[vertex]; i<edgeOffsets[vertex + 1]; i++){
+				int successor = components[edges[i]];
+				if(successor != component){
+					levels[successor] = Math.max(levels[successor], levels[component] + 1);
+				}
+			}
+		}
+		return levels;
+	}
+
+}
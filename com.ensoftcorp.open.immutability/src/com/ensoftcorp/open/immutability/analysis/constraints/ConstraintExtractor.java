@@ -0,0 +1,479 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.HashSet;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasHashSet;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.atlas.core.query.Q;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.commons.analysis.CommonQueries;
+import com.ensoftcorp.open.immutability.analysis.AnalysisConfiguration;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.DummyReferences;
+import com.ensoftcorp.open.immutability.analysis.ImportedSummaries;
+import com.ensoftcorp.open.immutability.analysis.LibrarySummaries;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * Walks the program graph once and compiles the type rules (TASSIGN, TWRITE, TREAD, 
+ * TCALL, TSCALL, TSREAD, TSWRITE) that apply to each assignment into a flat 
+ * constraint system, so that graph queries are not repeated on each iteration 
+ * of the fixed point computation
+ */
+public class ConstraintExtractor {
+
+	private ConstraintSystem system = new ConstraintSystem(AnalysisUtilities.getQualifierStore());
+	
+	/**
+	 * The methods for which override constraints have already been extracted
+	 * (methods with mismatched parameter counts are retried at the next callsite)
+	 */
+	private HashSet<Node> overridingMethods = new HashSet<Node>();
+	
+	/**
+	 * The callsite descriptors shared by the TCALL and TSCALL constraints of each callsite
+	 */
+	private CallSiteDescriptors callsites = new CallSiteDescriptors();
+	
+	/**
+	 * The memoized container references of each field access
+	 */
+	private ContainerForest containers = new ContainerForest();
+	
+	private Q localDataFlowEdges = Query.universe().edges(XCSG.LocalDataFlow);
+	private Q interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow);
+	private Q instanceVariableAccessedEdges = Query.universe().edges(XCSG.InstanceVariableAccessed);
+	private Q arrayIdentityForEdges = Query.universe().edges(XCSG.ArrayIdentityFor);
+	
+	private AnalysisConfiguration configuration;
+	
+	private DummyReferences dummyReferences = AnalysisUtilities.getDummyReferences();
+	
+	/**
+	 * The library summaries (may be null), the bodies of summarized library methods are not analyzed
+	 */
+	private LibrarySummaries librarySummaries = AnalysisUtilities.getLibrarySummaries();
+	
+	/**
+	 * The trusted imported summaries (may be null), the bodies of fully summarized methods are not analyzed
+	 */
+	private ImportedSummaries importedSummaries;
+	
+	/**
+	 * The number of assignments skipped because their method is summarized
+	 */
+	private int summarizedAssignments = 0;
+	
+	private ConstraintExtractor(AnalysisConfiguration configuration){
+		this.configuration = configuration;
+		ImportedSummaries importedSummaries = AnalysisUtilities.getImportedSummaries();
+		if(importedSummaries != null && importedSummaries.isTrusted()){
+			this.importedSummaries = importedSummaries;
+		}
+	}
+	
+	/**
+	 * Extracts the constraints for each of the given assignments 
+	 * (including parameter passes and dummy return assignments)
+	 * @param assignments
+	 * @return
+	 */
+	public static ConstraintSystem extract(AtlasSet<Node> assignments){
+		return extract(assignments, new NullProgressMonitor());
+	}
+	
+	/**
+	 * Extracts the constraints for each of the given assignments, 
+	 * reporting a unit of work for each assignment
+	 * @param assignments
+	 * @param monitor
+	 * @return
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static ConstraintSystem extract(AtlasSet<Node> assignments, IProgressMonitor monitor){
+		return extract(assignments, AnalysisConfiguration.fromPreferences(), monitor);
+	}
+	
+	/**
+	 * Extracts the constraints for each of the given assignments under the given
+	 * configuration, reporting a unit of work for each assignment
+	 * @param assignments
+	 * @param configuration
+	 * @param monitor
+	 * @return
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static ConstraintSystem extract(AtlasSet<Node> assignments, AnalysisConfiguration configuration, IProgressMonitor monitor){
+		ConstraintExtractor extractor = new ConstraintExtractor(configuration);
+		SubMonitor progress = SubMonitor.convert(monitor, (int) assignments.size());
+		for(Node assignment : assignments){
+			progress.split(1);
+			try {
+				extractor.extractConstraints(assignment);
+			} catch (Exception e){
+				Log.error("Error extracting constraints for assignment: " + assignment.address().toAddressString() + "\n" + assignment.toString(), e);
+				throw e;
+			}
+		}
+		if(extractor.librarySummaries != null && ImmutabilityPreferences.isGeneralLoggingEnabled()){
+			Log.info("Skipped assignments of " + extractor.librarySummaries.getSummarizedMethodCount() 
+					+ " summarized library methods (" + extractor.librarySummaries.getLoadedShardCount() + " library summary shards loaded)");
+		}
+		if(extractor.importedSummaries != null && ImmutabilityPreferences.isGeneralLoggingEnabled()){
+			Log.info("Skipped assignments of " + extractor.importedSummaries.getSummarizedMethodCount() + " methods with trusted imported summaries");
+		}
+		if((extractor.librarySummaries != null || extractor.importedSummaries != null) && ImmutabilityPreferences.isGeneralLoggingEnabled()){
+			Log.info("Skipped " + extractor.summarizedAssignments + " summarized assignments");
+		}
+		return extractor.system;
+	}
+	
+	/**
+	 * Extracts the constraints of each inference rule that applies to the given assignment
+	 * 
+	 * incoming edges represent a read relationship in an assignment
+	 * outgoing edges represent a write relationship in an assignment
+	 * 
+	 * @param to
+	 */
+	private void extractConstraints(Node to){
+		if(librarySummaries != null || importedSummaries != null || configuration.isIncrementalAnalysisEnabled()){
+			Node owner = dummyReferences.getContainingMethod(to);
+			if(librarySummaries != null && owner != null && librarySummaries.isSummarized(owner)){
+				// the summary of a library method replaces the analysis of its body
+				summarizedAssignments++;
+				return;
+			}
+			if(importedSummaries != null && owner != null && importedSummaries.isSummarized(owner)){
+				// the trusted summary of a method replaces the analysis of its body
+				summarizedAssignments++;
+				return;
+			}
+			if(configuration.isIncrementalAnalysisEnabled()){
+				// incremental analysis fingerprints the constraints of each method
+				system.setOwner(owner);
+			}
+		}
+		AtlasSet<Node> fromNodes;
+		Node assignedCallsite = dummyReferences.getAssignedCallsite(to);
+		if(assignedCallsite != null){
+			// dummy assignments are assigned their callsite by the dummy references
+			fromNodes = new AtlasHashSet<Node>();
+			fromNodes.add(assignedCallsite);
+		} else {
+			fromNodes = localDataFlowEdges.predecessors(Common.toQ(to)).eval().nodes();
+		}
+		for(Node from : fromNodes){
+
+			// process constraints for array component assignments
+			if(to.taggedWith(XCSG.ArrayWrite)){
+				for(Node toReference : AnalysisUtilities.parseReferences(to)){
+					// an assignment to an array component mutates the array
+					if(toReference.taggedWith(XCSG.ArrayComponents)){
+						extractArrayComponentConstraints(toReference, from);
+					}
+				}
+			}
+			
+			// process constraints for assignments to references
+			boolean involvesField = false;
+			boolean involvesCallsiteRHS = false;
+			
+			// TWRITE
+			if(to.taggedWith(XCSG.InstanceVariableAssignment)){
+				// Type Rule 3 - TWRITE
+				// let, x.f = y
+				// Reference (x) -InstanceVariableAccessed-> InstanceVariableAssignment (f=)
+				Node instanceVariableAccessed = instanceVariableAccessedEdges.predecessors(Common.toQ(to)).eval().nodes().one();
+				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(instanceVariableAccessed);
+				for(Node y : AnalysisUtilities.parseReferences(from)){
+					for(Node f : AnalysisUtilities.parseReferences(to)){
+						for(Node x : xReferences){
+							system.add(ConstraintSystem.TWRITE, x, f, y);
+						}
+					}
+				}
+				if(configuration.isContainerConsiderationEnabled() && to.taggedWith(XCSG.InstanceVariableAccess)){
+					// each instance containing x has been mutated as well
+					Node[] containerReferences = containers.getContainerReferences(to);
+					for(Node x : xReferences){
+						system.add(ConstraintSystem.CONTAINER, x, to, null, containerReferences);
+					}
+				}
+				involvesField = true;
+			}
+			
+			// TREAD
+			if(from.taggedWith(XCSG.InstanceVariableValue)){
+				// Type Rule 4 - TREAD
+				// let, x = y.f
+				// Reference (y) -InstanceVariableAccessed-> InstanceVariableValue (.f)
+				Node instanceVariableAccessed = instanceVariableAccessedEdges.predecessors(Common.toQ(from)).eval().nodes().one();
+				AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(instanceVariableAccessed);
+				for(Node x : AnalysisUtilities.parseReferences(to)){
+					for(Node f : AnalysisUtilities.parseReferences(from)){
+						for(Node y : yReferences){
+							system.add(ConstraintSystem.TREAD, x, y, f);
+						}
+					}
+				}
+				involvesField = true;
+			}
+			
+			// Type Rule 7 - TSREAD
+			// let, x = sf
+			if(from.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
+				Node m = CommonQueries.getContainingFunction(to);
+				for(Node x : AnalysisUtilities.parseReferences(to)){
+					for(Node sf : AnalysisUtilities.parseReferences(from)){
+						system.add(ConstraintSystem.TSREAD, x, sf, m);
+					}
+				}
+				involvesField = true;
+			}
+			
+			// Type Rule 6 - TSWRITE
+			// let, sf = x
+			if(to.taggedWith(JavaStopGap.CLASS_VARIABLE_ASSIGNMENT)){
+				Node m = CommonQueries.getContainingFunction(to);
+				for(Node sf : AnalysisUtilities.parseReferences(to)){
+					for(Node x : AnalysisUtilities.parseReferences(from)){
+						system.add(ConstraintSystem.TSWRITE, sf, x, m);
+					}
+				}
+				involvesField = true;
+			}
+			
+			// TCALL
+			if(from.taggedWith(XCSG.DynamicDispatchCallSite)){
+				extractCallConstraints(to, from);
+				involvesCallsiteRHS = true;
+			}
+			
+			// TSCALL
+			if(from.taggedWith(XCSG.StaticDispatchCallSite)){
+				extractStaticCallConstraints(to, from);
+				involvesCallsiteRHS = true;
+			}
+			
+			// Type Rule 2 - TASSIGN
+			// let x = y
+			if((!involvesField && !involvesCallsiteRHS) || to.taggedWith(XCSG.ParameterPass)){
+				AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(from);
+				for(Node x : AnalysisUtilities.parseReferences(to)){
+					for(Node y : yReferences){
+						system.add(ConstraintSystem.TASSIGN, x, y, null);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Extracts the constraints for an assignment to the components of an array
+	 * @param arrayComponents
+	 * @param from
+	 */
+	private void extractArrayComponentConstraints(Node arrayComponents, Node from) {
+		Q arrayWrite = interproceduralDataFlowEdges.predecessors(Common.toQ(arrayComponents));
+		for(Node arrayIdentity : arrayIdentityForEdges.predecessors(arrayWrite).eval().nodes()){
+			if(configuration.isDebugLoggingEnabled()){
+				Log.info("Array components were updated which mutated array: " + arrayIdentity.getAttr(XCSG.name).toString());
+			}
+			// the array has been mutated
+			for(Node arrayReference : AnalysisUtilities.parseReferences(arrayIdentity)){
+				system.add(ConstraintSystem.REMOVE_READONLY, arrayReference, null, null);
+			}
+			// if the array is an instance variable then the object instance was mutated as well
+			if(arrayIdentity.taggedWith(XCSG.InstanceVariableValue)){
+				// TWRITE
+				// x.f[] = y
+				// Reference (x) -InstanceVariableAccessed-> InstanceVariableAccess (.f)
+				boolean receiverMutated = false;
+				for(Node instanceVariableAccessed : instanceVariableAccessedEdges.predecessors(Common.toQ(arrayIdentity)).eval().nodes()){
+					for(Node x : AnalysisUtilities.parseReferences(instanceVariableAccessed)){
+						// x must be mutable
+						system.add(ConstraintSystem.MUTATION, x, null, null);
+						receiverMutated = true;
+					}
+				}
+				// each instance containing x has been mutated as well
+				if(receiverMutated && configuration.isContainerConsiderationEnabled()){
+					system.add(ConstraintSystem.CONTAINER, null, arrayIdentity, null, containers.getContainerReferences(arrayIdentity));
+				}
+			}
+			// if the array was a class variable then the method where the assignment happened is not pure
+			else if(arrayIdentity.taggedWith(JavaStopGap.CLASS_VARIABLE_VALUE)){
+				// TSWRITE
+				// let, sf[] = x
+				Node m = CommonQueries.getContainingFunction(arrayIdentity);
+				AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(from);
+				for(Node sf : AnalysisUtilities.parseReferences(arrayIdentity)){
+					for(Node x : xReferences){
+						system.add(ConstraintSystem.TSWRITE, sf, x, m);
+					}
+				}
+			}
+			// local reference or parameter
+			else {
+				system.add(ConstraintSystem.REMOVE_POLYREAD, arrayIdentity, null, null);
+			}
+		}
+	}
+	
+	/**
+	 * Type Rule 5 - TCALL
+	 * let, x = y.m(z)
+	 * @param to
+	 * @param callsite
+	 */
+	private void extractCallConstraints(Node to, Node callsite) {
+		AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
+		CallSiteDescriptor descriptor = callsites.getDescriptor(callsite);
+		boolean parametersPassed = false;
+		for(Node receiver : descriptor.getReceivers()){
+			AtlasSet<Node> yReferences = AnalysisUtilities.parseReferences(receiver);
+			for(Node identity : descriptor.getIdentities()){
+				for(Node x : xReferences){
+					for(Node y : yReferences){
+						system.add(ConstraintSystem.TCALL, x, y, identity, descriptor);
+					}
+				}
+				
+				if(!xReferences.isEmpty() && !yReferences.isEmpty()){
+					parametersPassed = true;
+					extractOverrideConstraints(descriptor, identity);
+					
+					if(configuration.isContainerConsiderationEnabled() && receiver.taggedWith(XCSG.InstanceVariableAccess)){
+						// each instance containing y has been mutated as well
+						Node[] containerReferences = containers.getContainerReferences(receiver);
+						for(Node y : yReferences){
+							system.add(ConstraintSystem.CONTAINER, y, receiver, null, containerReferences);
+						}
+					}
+				}
+			}
+		}
+		
+		// the container constraints only depend on the parameters of the callsite,
+		// so they are extracted once per callsite instead of once per receiver and identity
+		if(parametersPassed){
+			extractParameterContainerConstraints(descriptor);
+		}
+	}
+	
+	/**
+	 * Type Rule 8 - TSCALL
+	 * let, x = m(z)
+	 * @param to
+	 * @param callsite
+	 */
+	private void extractStaticCallConstraints(Node to, Node callsite) {
+		AtlasSet<Node> xReferences = AnalysisUtilities.parseReferences(to);
+		if(xReferences.isEmpty()){
+			return;
+		}
+		
+		CallSiteDescriptor descriptor = callsites.getDescriptor(callsite);
+		for(Node x : xReferences){
+			system.add(ConstraintSystem.TSCALL, x, descriptor.getMethod(), descriptor.getReturnValue(), descriptor);
+		}
+		
+		extractParameterContainerConstraints(descriptor);
+	}
+	
+	/**
+	 * Case: a mutation to parameter mutates a field which is a part of a container
+	 * @param descriptor
+	 */
+	private void extractParameterContainerConstraints(CallSiteDescriptor descriptor){
+		if(!configuration.isContainerConsiderationEnabled()){
+			return;
+		}
+		Node[] parametersPassed = descriptor.getParametersPassed();
+		Node[] parameters = descriptor.getParameters();
+		for(int i=0; i<parametersPassed.length; i++){
+			Node z = parametersPassed[i];
+			Node p = parameters[i];
+			for(Node paramValue : localDataFlowEdges.predecessors(Common.toQ(z)).eval().nodes()){
+				if(paramValue.taggedWith(XCSG.InstanceVariableAccess)){
+					// each instance containing the parameter value has been mutated as well if p is not readonly
+					system.add(ConstraintSystem.CONTAINER, p, paramValue, null, containers.getContainerReferences(paramValue));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Extracts the constraints between the invoked method and the method it overrides (if any)
+	 * @param descriptor
+	 * @param identity
+	 */
+	private void extractOverrideConstraints(CallSiteDescriptor descriptor, Node identity){
+		Node method = descriptor.getMethod();
+		if(overridingMethods.contains(method)){
+			return;
+		}
+		
+		Node overriddenMethod = descriptor.getOverriddenMethod();
+		if(overriddenMethod == null){
+			overridingMethods.add(method);
+			return;
+		}
+		
+		// override constraints are extracted at the first callsite found and do not belong to its method
+		Node owner = system.getOwner();
+		system.setOwner(null);
+		try {
+			// Method (method) -Contains-> ReturnValue (ret)
+			Node overriddenRet = Common.toQ(overriddenMethod).children().nodes(XCSG.ReturnValue).eval().nodes().one();
+			
+			// constraint: overriddenReturn <: return
+			system.add(ConstraintSystem.OVERRIDE, descriptor.getReturnValue(), overriddenRet, null);
+			
+			// Method (method) -Contains-> Identity
+			Node overriddenMethodIdentity = Common.toQ(overriddenMethod).children().nodes(XCSG.Identity).eval().nodes().one();
+
+			// constraint: this <: overriddenThis 
+			system.add(ConstraintSystem.OVERRIDE, overriddenMethodIdentity, identity, null);
+
+			// Method (method) -Contains-> Parameter (p1, p2, ...)
+			AtlasSet<Node> overriddenMethodParameters = Common.toQ(overriddenMethod).children().nodes(XCSG.Parameter).eval().nodes();
+			
+			// the parameters of the method that are passed to at the callsite
+			Node[] parameters = descriptor.getParameters();
+					
+			// for each parameter and overridden parameter pair
+			// constraint: p <: pOverriden
+			long numParams = parameters.length;
+			long numOverriddenParams = overriddenMethodParameters.size();
+			if(numParams == numOverriddenParams){
+				overridingMethods.add(method);
+				for(Node p : parameters){
+					Node pOverridden = Common.toQ(overriddenMethodParameters).selectNode(XCSG.parameterIndex, p.getAttr(XCSG.parameterIndex)).eval().nodes().one();
+					system.add(ConstraintSystem.OVERRIDE, pOverridden, p, null);
+				}
+			} else {
+				// note it seems that some Jimple methods are missing the parameter passed to edges 
+				// which is causing us not to find the parameters for the base method
+				// this should not happen and is a bug in Atlas!
+				Log.warning("Missing parameters for Method: " + method.address().toAddressString() 
+						+ " or Overriden Method: " + overriddenMethod.address().toAddressString(), 
+						new RuntimeException("Parameter counts do not match!"));
+			}
+		} finally {
+			system.setOwner(owner);
+		}
+	}
+	
+}
@@ -0,0 +1,488 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.text.DecimalFormat;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.open.immutability.analysis.AnalysisConfiguration;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Rule;
+import com.ensoftcorp.open.immutability.analysis.metrics.TypeTrace;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+
+/**
+ * Solves a constraint system to its fixed point. The constraints are grouped into 
+ * the strongly connected components of their dependency graph (see ConstraintComponents) 
+ * and each component is solved to a local fixed point in topological order. The first 
+ * iteration of a component applies every constraint of the component, subsequent 
+ * iterations only apply the constraints that read a reference whose qualifier set 
+ * changed during the previous iteration.
+ * 
+ * When parallel constraint solving is enabled the independent components of each 
+ * topological level are solved together and the constraints of each iteration 
+ * are split across a ForkJoinPool. Qualifier sets are only ever reduced and are 
+ * updated with compare-and-set, so a constraint applied against a qualifier set 
+ * that is concurrently being reduced can only remove fewer types than it would 
+ * have sequentially, and any reduction enqueues the dependent constraints for 
+ * the next iteration. The parallel solver therefore reaches the same (greatest) 
+ * fixed point as the sequential solver.
+ */
+public class ConstraintSolver implements AnalysisUtilities.QualifierListener {
+
+	/**
+	 * Helper for formatting decimal strings
+	 */
+	private static final DecimalFormat FORMAT = new DecimalFormat("#.##"); 
+	
+	/**
+	 * The number of constraints below which a parallel task is not split further
+	 */
+	private static final int PARALLEL_THRESHOLD = 512;
+	
+	/**
+	 * The number of constraints applied between checks for cancellation, no larger than
+	 * the parallel threshold so that every parallel task checks at least once
+	 */
+	private static final int CANCELLATION_INTERVAL = PARALLEL_THRESHOLD;
+	
+	private ConstraintSystem system;
+	private References references;
+	private AnalysisConfiguration configuration;
+	private RulePipeline pipeline;
+	
+	/**
+	 * True if each rule application is measured, the type trace attributes
+	 * changes to the measured rule so rules are also measured while tracing
+	 */
+	private boolean measureRules;
+	
+	/**
+	 * The constraints that read each reference, the constraints reading reference r are
+	 * stored in dependents[dependentOffsets[r]] through dependents[dependentOffsets[r+1]-1]
+	 */
+	private int[] dependentOffsets;
+	private int[] dependents;
+	
+	/**
+	 * The stage (component or topological level) each constraint is solved in, the 
+	 * constraints of stage s are stored in stageConstraints[stageOffsets[s]] through 
+	 * stageConstraints[stageOffsets[s+1]-1]
+	 */
+	private ConstraintComponents components;
+	private int[] stages;
+	private int[] stageOffsets;
+	private int[] stageConstraints;
+	private int currentStage;
+	
+	/**
+	 * The constraints applied in the first iteration of each stage, all constraints if null
+	 */
+	private boolean[] initialConstraints = null;
+	
+	/**
+	 * The constraints to apply in the next iteration and the 
+	 * constraints being applied in the current iteration
+	 */
+	private int[] worklist;
+	private int[] iterationWorklist;
+	private int worklistSize;
+	private boolean[] enqueued;
+	
+	/**
+	 * The total number of iterations applied across all stages and
+	 * the listener notified after each iteration
+	 */
+	private int completedIterations = 0;
+	private IterationListener iterationListener = null;
+	
+	/**
+	 * The monitor progress is reported to, a unit of work is reported for each constraint
+	 * once the stage it is solved in reaches a local fixed point
+	 */
+	private IProgressMonitor monitor = new NullProgressMonitor();
+	
+	/**
+	 * Receives notifications between iterations, when no constraints are being applied
+	 */
+	public static interface IterationListener {
+		/**
+		 * Called each time an iteration completes
+		 * @param iterations The total number of iterations completed so far
+		 */
+		public void iterationCompleted(int iterations);
+	}
+	
+	/**
+	 * The worklist bookkeeping used while constraints are applied in parallel
+	 */
+	private boolean parallel = false;
+	private AtomicInteger concurrentWorklistSize;
+	private AtomicIntegerArray concurrentEnqueued;
+	
+	public ConstraintSolver(ConstraintSystem system){
+		this(system, AnalysisConfiguration.fromPreferences());
+	}
+	
+	public ConstraintSolver(ConstraintSystem system, AnalysisConfiguration configuration){
+		this.system = system;
+		this.configuration = configuration;
+		this.references = system.getReferences();
+		this.pipeline = new RulePipeline(system, configuration);
+		this.measureRules = configuration.isDetailedMetricsEnabled() || TypeTrace.isEnabled();
+		indexDependents();
+		components = new ConstraintComponents(system);
+		worklist = new int[system.size()];
+		iterationWorklist = new int[system.size()];
+		enqueued = new boolean[system.size()];
+	}
+	
+	/**
+	 * Builds the reverse index from each reference to the constraints that read it
+	 */
+	private void indexDependents(){
+		int[][] reads = new int[system.size()][];
+		dependentOffsets = new int[references.size() + 1];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			reads[constraint] = system.getReads(constraint);
+			for(int reference : reads[constraint]){
+				dependentOffsets[reference + 1]++;
+			}
+		}
+		for(int reference=0; reference<references.size(); reference++){
+			dependentOffsets[reference + 1] += dependentOffsets[reference];
+		}
+		dependents = new int[dependentOffsets[references.size()]];
+		int[] next = new int[references.size()];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			for(int reference : reads[constraint]){
+				dependents[dependentOffsets[reference] + next[reference]++] = constraint;
+			}
+		}
+	}
+	
+	/**
+	 * Restricts the constraints applied in the first iteration of each stage to the 
+	 * given constraints, the remaining constraints are only applied if a reference 
+	 * they read changes. This is only sound if the remaining constraints are already 
+	 * satisfied by the current qualifier sets (for example when resuming a previous run).
+	 * @param constraints
+	 */
+	public void setInitialConstraints(BitSet constraints){
+		initialConstraints = new boolean[system.size()];
+		for(int constraint = constraints.nextSetBit(0); constraint >= 0 && constraint < system.size(); constraint = constraints.nextSetBit(constraint + 1)){
+			initialConstraints[constraint] = true;
+		}
+	}
+	
+	/**
+	 * Sets the listener notified after each iteration
+	 * @param listener
+	 */
+	public void setIterationListener(IterationListener listener){
+		this.iterationListener = listener;
+	}
+	
+	/**
+	 * Sets the monitor to report progress to and check for cancellation
+	 * @param monitor
+	 */
+	public void setProgressMonitor(IProgressMonitor monitor){
+		this.monitor = monitor;
+	}
+	
+	/**
+	 * Returns an estimate of the number of constraints left to apply, which is the 
+	 * size of the current worklist plus the constraints of the remaining stages
+	 * @return
+	 */
+	public int getRemainingWorkEstimate(){
+		int queued = parallel ? concurrentWorklistSize.get() : worklistSize;
+		int remainingStages = stageOffsets == null ? system.size() : (system.size() - stageOffsets[currentStage + 1]);
+		return queued + remainingStages;
+	}
+	
+	/**
+	 * Sets the number of iterations completed by a previous run this solver resumes from
+	 * @param iterations
+	 */
+	public void setCompletedIterations(int iterations){
+		this.completedIterations = iterations;
+	}
+	
+	/**
+	 * Returns the total number of iterations completed across all stages
+	 * @return
+	 */
+	public int getCompletedIterations(){
+		return completedIterations;
+	}
+	
+	/**
+	 * Groups the constraints by the stage they are solved in
+	 * @param byLevel If true the components of each topological level are grouped into one stage
+	 */
+	private void indexStages(boolean byLevel){
+		int[] levels = byLevel ? components.getLevels() : null;
+		int stageCount = 0;
+		stages = new int[system.size()];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			int component = components.getComponent(constraint);
+			stages[constraint] = byLevel ? levels[component] : component;
+			stageCount = Math.max(stageCount, stages[constraint] + 1);
+		}
+		stageOffsets = new int[stageCount + 1];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			stageOffsets[stages[constraint] + 1]++;
+		}
+		for(int stage=0; stage<stageCount; stage++){
+			stageOffsets[stage + 1] += stageOffsets[stage];
+		}
+		stageConstraints = new int[system.size()];
+		int[] next = new int[stageCount];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			stageConstraints[stageOffsets[stages[constraint]] + next[stages[constraint]]++] = constraint;
+		}
+	}
+	
+	private void enqueue(int constraint){
+		if(stages[constraint] > currentStage){
+			// a later stage applies its initial constraints once it is reached
+			if(initialConstraints != null){
+				initialConstraints[constraint] = true;
+			}
+			return;
+		}
+		if(parallel){
+			if(concurrentEnqueued.compareAndSet(constraint, 0, 1)){
+				worklist[concurrentWorklistSize.getAndIncrement()] = constraint;
+			}
+		} else if(!enqueued[constraint]){
+			enqueued[constraint] = true;
+			worklist[worklistSize++] = constraint;
+		}
+	}
+	
+	/**
+	 * Applies the constraints until a fixed point is reached, the constraints are 
+	 * applied in parallel if parallel constraint solving is enabled
+	 * @return Returns the number of iterations required to reach the fixed point
+	 */
+	public int solve(){
+		if(configuration.isParallelConstraintSolvingEnabled()){
+			if(configuration.isAllowAddMutableInstanceVariablesEnabled()){
+				// adding types breaks the monotonicity the parallel solver relies on
+				Log.warning("Parallel constraint solving is not supported when mutable types may be added to instance variables, solving sequentially.");
+			} else {
+				return solveParallel(Runtime.getRuntime().availableProcessors());
+			}
+		}
+		return solve(null);
+	}
+	
+	/**
+	 * Applies the constraints until a fixed point is reached, splitting the 
+	 * constraints of each iteration across the given number of workers
+	 * @param parallelism
+	 * @return Returns the number of iterations required to reach the fixed point
+	 */
+	public int solveParallel(int parallelism){
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		concurrentWorklistSize = new AtomicInteger(0);
+		concurrentEnqueued = new AtomicIntegerArray(system.size());
+		parallel = true;
+		try {
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Solving immutability constraints with " + parallelism + " workers");
+			return solve(pool);
+		} finally {
+			parallel = false;
+			pool.shutdown();
+		}
+	}
+	
+	private int solve(ForkJoinPool pool){
+		indexStages(pool != null);
+		int iterations = 0;
+		int stagesSolved = 0;
+		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Solving " + system.size() + " constraints in " + (stageOffsets.length - 1) + (pool != null ? " topological levels of " : " ") + "strongly connected components");
+		long startSolving = System.nanoTime();
+		SubMonitor progress = SubMonitor.convert(monitor, system.size());
+		AnalysisUtilities.setQualifierListener(this);
+		try {
+			for(int stage=0; stage<stageOffsets.length-1; stage++){
+				if(stageOffsets[stage] == stageOffsets[stage+1]){
+					// components of only references have no constraints to solve
+					continue;
+				}
+				progress.split(stageOffsets[stage+1] - stageOffsets[stage]);
+				currentStage = stage;
+				for(int i=stageOffsets[stage]; i<stageOffsets[stage+1]; i++){
+					if(initialConstraints == null || initialConstraints[stageConstraints[i]]){
+						enqueue(stageConstraints[i]);
+					}
+				}
+				if(parallel){
+					worklistSize = concurrentWorklistSize.get();
+				}
+				if(worklistSize == 0){
+					// the stage is already at a fixed point
+					continue;
+				}
+				iterations = Math.max(iterations, solveStage(pool));
+				stagesSolved++;
+			}
+		} finally {
+			AnalysisUtilities.setQualifierListener(null);
+		}
+		long stopSolving = System.nanoTime();
+		if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Immutability analysis reached fixed point in " + iterations + " iterations (" + stagesSolved + (pool != null ? " levels" : " components") + " solved in " + FORMAT.format((stopSolving-startSolving)/1000.0/1000.0) + " ms)");
+		return iterations;
+	}
+	
+	/**
+	 * Solves the enqueued constraints of the current stage to a local fixed point
+	 * @param pool The pool to apply constraints in parallel with or null
+	 * @return Returns the number of iterations required to reach the local fixed point
+	 */
+	private int solveStage(ForkJoinPool pool){
+		int iteration = 1;
+		while(worklistSize > 0){
+			// swap the worklist for the next iteration with the current iteration
+			int[] swap = iterationWorklist;
+			iterationWorklist = worklist;
+			worklist = swap;
+			int iterationSize = worklistSize;
+			worklistSize = 0;
+			for(int i=0; i<iterationSize; i++){
+				if(parallel){
+					concurrentEnqueued.set(iterationWorklist[i], 0);
+				} else {
+					enqueued[iterationWorklist[i]] = false;
+				}
+			}
+			if(parallel){
+				concurrentWorklistSize.set(0);
+			}
+			
+			if(configuration.isDebugLoggingEnabled()) Log.info("Immutability analysis iteration: " + iteration + " of stage " + currentStage + " (" + iterationSize + " constraints)");
+			
+			if(parallel && iterationSize > PARALLEL_THRESHOLD){
+				pool.invoke(new ApplyConstraintsTask(iterationWorklist, 0, iterationSize));
+			} else {
+				applyConstraints(iterationWorklist, 0, iterationSize);
+			}
+			if(parallel){
+				worklistSize = concurrentWorklistSize.get();
+			}
+			completedIterations++;
+			if(iterationListener != null){
+				iterationListener.iterationCompleted(completedIterations);
+			}
+			if(monitor.isCanceled()){
+				throw new OperationCanceledException();
+			}
+			monitor.subTask("Solving stage " + (currentStage + 1) + " of " + (stageOffsets.length - 1) + ", iteration " + iteration 
+					+ " (" + worklistSize + " constraints queued, ~" + getRemainingWorkEstimate() + " remaining)");
+			
+			// in the worst case an iteration only removes one type from one reference
+			// since there are at most only 3 valid types for each reference, the algorithm must reach fixed point in
+			// O(3*n) iterations where n is the number of typed references used in the set of constraints
+			if(worklistSize > 0){
+				// local fixed point has not been reached
+				// go for another pass over the affected constraints
+				iteration++;
+			}
+		}
+		return iteration;
+	}
+	
+	/**
+	 * Applies the constraints in the given range of the worklist, checking for
+	 * cancellation before the first constraint and then every CANCELLATION_INTERVAL 
+	 * constraints, so each iteration and each parallel task checks at least once
+	 * @param constraints
+	 * @param start
+	 * @param end
+	 */
+	private void applyConstraints(int[] constraints, int start, int end){
+		for(int i=start; i<end; i++){
+			if((i - start) % CANCELLATION_INTERVAL == 0 && monitor.isCanceled()){
+				throw new OperationCanceledException();
+			}
+			int constraint = constraints[i];
+			try {
+				applyConstraint(constraint);
+			} catch (Exception e){
+				Log.error("Error applying constraint: " + system.toString(constraint), e);
+				throw e;
+			}
+		}
+	}
+	
+	/**
+	 * Recursively splits a range of the worklist until it is small enough to apply directly
+	 */
+	private class ApplyConstraintsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private int[] constraints;
+		private int start;
+		private int end;
+		
+		public ApplyConstraintsTask(int[] constraints, int start, int end){
+			this.constraints = constraints;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected void compute() {
+			if(end - start <= PARALLEL_THRESHOLD){
+				applyConstraints(constraints, start, end);
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new ApplyConstraintsTask(constraints, start, middle), new ApplyConstraintsTask(constraints, middle, end));
+			}
+		}
+	}
+	
+	@Override
+	public void typesChanged(Node reference) {
+		int id = references.findId(reference);
+		// references first seen after the constraints were indexed have no dependents
+		if(id != References.NONE && id < dependentOffsets.length - 1){
+			for(int i=dependentOffsets[id]; i<dependentOffsets[id+1]; i++){
+				enqueue(dependents[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Applies the inference rule of the given constraint, recording the rule's metrics if enabled
+	 * @param constraint
+	 * @return Returns true if any type qualifier sets changed
+	 */
+	private boolean applyConstraint(int constraint){
+		if(!measureRules){
+			return pipeline.apply(constraint);
+		}
+		Rule rule = Rule.forKind(system.getKind(constraint));
+		long start = AnalysisMetrics.enter(rule);
+		try {
+			return pipeline.apply(constraint);
+		} finally {
+			AnalysisMetrics.exit(rule, start);
+		}
+	}
+	
+}
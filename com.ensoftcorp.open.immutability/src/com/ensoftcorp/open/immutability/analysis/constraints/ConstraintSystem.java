@@ -0,0 +1,417 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.Arrays;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.QualifierStore;
+
+/**
+ * A flat intermediate representation of the type constraints extracted from the
+ * program graph. Each constraint is a record of a rule kind and up to three 
+ * reference ids (x, y, z). Rules with a variable number of operands (call sites
+ * and container mutations) additionally reference a range of the operand table.
+ * 
+ * Reference ids are the ids assigned by the qualifier store.
+ */
+public class ConstraintSystem {
+
+	/**
+	 * Type Rule 2 - TASSIGN, let x = y
+	 */
+	public static final byte TASSIGN = 0;
+	
+	/**
+	 * Type Rule 3 - TWRITE, let x.f = y (x, f, y)
+	 */
+	public static final byte TWRITE = 1;
+	
+	/**
+	 * Type Rule 4 - TREAD, let x = y.f (x, y, f)
+	 */
+	public static final byte TREAD = 2;
+	
+	/**
+	 * Type Rule 7 - TSREAD, let x = sf in m (x, sf, m)
+	 */
+	public static final byte TSREAD = 3;
+	
+	/**
+	 * Type Rule 6 - TSWRITE, let sf = x in m (sf, x, m)
+	 */
+	public static final byte TSWRITE = 4;
+	
+	/**
+	 * Type Rule 5 - TCALL, let x = y.m(z) (x, y, this)
+	 * operands: method, ret, containing method, z1, p1, z2, p2, ...
+	 * the callsite descriptor of the call is stored with the constraint
+	 */
+	public static final byte TCALL = 5;
+	
+	/**
+	 * Type Rule 8 - TSCALL, let x = m(z) (x, m, ret)
+	 * operands: containing method, z1, p1, z2, p2, ...
+	 * the callsite descriptor of the call is stored with the constraint
+	 */
+	public static final byte TSCALL = 6;
+	
+	/**
+	 * Method override constraint x :> y between the return values, identities 
+	 * and parameters of an overriding and overridden method
+	 */
+	public static final byte OVERRIDE = 7;
+	
+	/**
+	 * Container mutation of a mutated access y, if x is absent or not readonly 
+	 * then each container reference in the operands is not readonly
+	 */
+	public static final byte CONTAINER = 8;
+	
+	/**
+	 * Receiver mutation, x must be mutable
+	 */
+	public static final byte MUTATION = 9;
+	
+	/**
+	 * x is not readonly
+	 */
+	public static final byte REMOVE_READONLY = 10;
+	
+	/**
+	 * x is not polyread
+	 */
+	public static final byte REMOVE_POLYREAD = 11;
+	
+	private static final String[] KIND_NAMES = new String[]{ "TASSIGN", "TWRITE", "TREAD", "TSREAD", "TSWRITE", "TCALL", 
+			"TSCALL", "OVERRIDE", "CONTAINER", "MUTATION", "REMOVE_READONLY", "REMOVE_POLYREAD" };
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	private QualifierStore qualifiers;
+	
+	private int size = 0;
+	private byte[] kinds = new byte[INITIAL_CAPACITY];
+	private int[] xs = new int[INITIAL_CAPACITY];
+	private int[] ys = new int[INITIAL_CAPACITY];
+	private int[] zs = new int[INITIAL_CAPACITY];
+	private int[] operandOffsets = new int[INITIAL_CAPACITY];
+	private int[] operandCounts = new int[INITIAL_CAPACITY];
+	private CallSiteDescriptor[] callsites = new CallSiteDescriptor[INITIAL_CAPACITY];
+	
+	/**
+	 * The method whose body each constraint was extracted from (if tracked), 
+	 * method ids are assigned separately from the reference ids
+	 */
+	private References owners = new References();
+	private int owner = References.NONE;
+	private int[] ownerIds = new int[INITIAL_CAPACITY];
+	
+	private int operandsSize = 0;
+	private int[] operands = new int[INITIAL_CAPACITY];
+	
+	/**
+	 * Creates an empty constraint system over the references of the given qualifier store
+	 * @param qualifiers
+	 */
+	public ConstraintSystem(QualifierStore qualifiers){
+		this.qualifiers = qualifiers;
+	}
+	
+	/**
+	 * Returns the table of references used by this constraint system
+	 * @return
+	 */
+	public References getReferences(){
+		return qualifiers.getReferences();
+	}
+	
+	/**
+	 * Returns the qualifier store of the references of this constraint system
+	 * @return
+	 */
+	public QualifierStore getQualifierStore(){
+		return qualifiers;
+	}
+	
+	/**
+	 * Adds a constraint of the given kind and returns its id
+	 * @param kind
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public int add(byte kind, Node x, Node y, Node z){
+		return add(kind, x, y, z, new Node[]{});
+	}
+	
+	/**
+	 * Adds a constraint of the given kind with additional operands and returns its id
+	 * @param kind
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param constraintOperands
+	 * @return
+	 */
+	public int add(byte kind, Node x, Node y, Node z, Node[] constraintOperands){
+		if(size == kinds.length){
+			int capacity = kinds.length * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			xs = Arrays.copyOf(xs, capacity);
+			ys = Arrays.copyOf(ys, capacity);
+			zs = Arrays.copyOf(zs, capacity);
+			operandOffsets = Arrays.copyOf(operandOffsets, capacity);
+			operandCounts = Arrays.copyOf(operandCounts, capacity);
+			callsites = Arrays.copyOf(callsites, capacity);
+			ownerIds = Arrays.copyOf(ownerIds, capacity);
+		}
+		while(operandsSize + constraintOperands.length > operands.length){
+			operands = Arrays.copyOf(operands, operands.length * 2);
+		}
+		int id = size++;
+		kinds[id] = kind;
+		xs[id] = getId(x);
+		ys[id] = getId(y);
+		zs[id] = getId(z);
+		operandOffsets[id] = operandsSize;
+		operandCounts[id] = constraintOperands.length;
+		ownerIds[id] = owner;
+		for(Node operand : constraintOperands){
+			operands[operandsSize++] = getId(operand);
+		}
+		return id;
+	}
+	
+	/**
+	 * Adds a TCALL or TSCALL constraint of the given callsite and returns its id,
+	 * the operands of the constraint are taken from the callsite descriptor
+	 * @param kind
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param callsite
+	 * @return
+	 */
+	public int add(byte kind, Node x, Node y, Node z, CallSiteDescriptor callsite){
+		Node[] parametersPassed = callsite.getParametersPassed();
+		Node[] parameters = callsite.getParameters();
+		int offset;
+		Node[] constraintOperands;
+		if(kind == TCALL){
+			offset = 3;
+			constraintOperands = new Node[offset + (2 * parametersPassed.length)];
+			constraintOperands[0] = callsite.getMethod();
+			constraintOperands[1] = callsite.getReturnValue();
+			constraintOperands[2] = callsite.getContainingMethod();
+		} else if(kind == TSCALL){
+			offset = 1;
+			constraintOperands = new Node[offset + (2 * parametersPassed.length)];
+			constraintOperands[0] = callsite.getContainingMethod();
+		} else {
+			throw new IllegalArgumentException("Only call constraints have callsite descriptors: " + KIND_NAMES[kind]);
+		}
+		for(int i=0; i<parametersPassed.length; i++){
+			constraintOperands[offset + (2 * i)] = parametersPassed[i];
+			constraintOperands[offset + (2 * i) + 1] = parameters[i];
+		}
+		int id = add(kind, x, y, z, constraintOperands);
+		callsites[id] = callsite;
+		return id;
+	}
+	
+	/**
+	 * Sets the method that owns the constraints added next, 
+	 * null if the constraints do not belong to a single method
+	 * @param method
+	 */
+	public void setOwner(Node method){
+		owner = method == null ? References.NONE : owners.getId(method);
+	}
+	
+	/**
+	 * Returns the method that owns the constraints added next or null
+	 * @return
+	 */
+	public Node getOwner(){
+		return owner == References.NONE ? null : owners.getNode(owner);
+	}
+	
+	/**
+	 * Returns the owner id of the given constraint or NONE
+	 * @param constraint
+	 * @return
+	 */
+	public int getOwner(int constraint){
+		return ownerIds[constraint];
+	}
+	
+	/**
+	 * Returns the table of methods that own constraints
+	 * @return
+	 */
+	public References getOwners(){
+		return owners;
+	}
+	
+	private int getId(Node reference){
+		return reference == null ? References.NONE : qualifiers.getId(reference);
+	}
+	
+	/**
+	 * Returns the number of constraints
+	 * @return
+	 */
+	public int size(){
+		return size;
+	}
+	
+	/**
+	 * Returns the rule kind of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public byte getKind(int constraint){
+		return kinds[constraint];
+	}
+	
+	/**
+	 * Returns the x reference id of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int getX(int constraint){
+		return xs[constraint];
+	}
+	
+	/**
+	 * Returns the y reference id of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int getY(int constraint){
+		return ys[constraint];
+	}
+	
+	/**
+	 * Returns the z reference id of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int getZ(int constraint){
+		return zs[constraint];
+	}
+	
+	/**
+	 * Returns the callsite descriptor of the given call constraint or null
+	 * @param constraint
+	 * @return
+	 */
+	public CallSiteDescriptor getCallSite(int constraint){
+		return callsites[constraint];
+	}
+	
+	/**
+	 * Returns the number of additional operands of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int getOperandCount(int constraint){
+		return operandCounts[constraint];
+	}
+	
+	/**
+	 * Returns the reference id of the additional operand at the given index 
+	 * @param constraint
+	 * @param index
+	 * @return
+	 */
+	public int getOperand(int constraint, int index){
+		return operands[operandOffsets[constraint] + index];
+	}
+	
+	/**
+	 * Returns the reference ids whose qualifier sets are read by the given constraint,
+	 * a call's method and containing method are only operands for logging purposes
+	 * @param constraint
+	 * @return
+	 */
+	public int[] getReads(int constraint){
+		switch(kinds[constraint]){
+			case CONTAINER:
+				return xs[constraint] == References.NONE ? new int[0] : new int[]{ xs[constraint] };
+			default:
+				return getAccessed(constraint);
+		}
+	}
+	
+	/**
+	 * Returns the reference ids whose qualifier sets may be reduced by the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public int[] getWrites(int constraint){
+		switch(kinds[constraint]){
+			case CONTAINER:
+				return Arrays.copyOfRange(operands, operandOffsets[constraint], operandOffsets[constraint] + operandCounts[constraint]);
+			case MUTATION:
+			case REMOVE_READONLY:
+			case REMOVE_POLYREAD:
+				return new int[]{ xs[constraint] };
+			default:
+				return getAccessed(constraint);
+		}
+	}
+	
+	/**
+	 * Returns the reference ids the inference rule of the given constraint is applied to
+	 * @param constraint
+	 * @return
+	 */
+	private int[] getAccessed(int constraint){
+		int count = operandCounts[constraint];
+		int[] accessed = new int[3 + count];
+		int size = 0;
+		if(xs[constraint] != References.NONE) accessed[size++] = xs[constraint];
+		if(ys[constraint] != References.NONE) accessed[size++] = ys[constraint];
+		if(zs[constraint] != References.NONE) accessed[size++] = zs[constraint];
+		for(int i=0; i<count; i++){
+			if(kinds[constraint] == TCALL && (i == 0 || i == 2)){
+				// the called method and containing method of a TCALL are not typed by the rule
+				continue;
+			}
+			accessed[size++] = operands[operandOffsets[constraint] + i];
+		}
+		return Arrays.copyOf(accessed, size);
+	}
+	
+	/**
+	 * Returns a human readable description of the given constraint
+	 * @param constraint
+	 * @return
+	 */
+	public String toString(int constraint){
+		StringBuilder result = new StringBuilder(KIND_NAMES[kinds[constraint]]);
+		result.append("(");
+		result.append(getName(xs[constraint]));
+		result.append(", ");
+		result.append(getName(ys[constraint]));
+		result.append(", ");
+		result.append(getName(zs[constraint]));
+		for(int i=0; i<operandCounts[constraint]; i++){
+			result.append(", ");
+			result.append(getName(getOperand(constraint, i)));
+		}
+		result.append(")");
+		return result.toString();
+	}
+	
+	private String getName(int reference){
+		if(reference == References.NONE){
+			return "-";
+		}
+		Node node = qualifiers.getReferences().getNode(reference);
+		return node.getAttr(XCSG.name) + " [" + node.address().toAddressString() + "]";
+	}
+	
+}
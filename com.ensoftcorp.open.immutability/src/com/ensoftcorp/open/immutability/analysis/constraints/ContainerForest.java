@@ -0,0 +1,118 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.query.Q;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * A per run index of the containers of each access (see AnalysisUtilities.getAccessedContainers).
+ *
+ * The InstanceVariableAccessed edges form a forest rooted at the local references
+ * of each access chain, so the container references of an access are the references
+ * of the access itself flattened with the container references of the accesses it
+ * was made through. The flattened references are memoized for each access, so the
+ * shared prefix of access chains such as a.b.c.d is walked and parsed only once
+ * instead of once per access in the chain.
+ */
+public class ContainerForest {
+
+	private static final Node[] EMPTY = new Node[]{};
+
+	private HashMap<Node,Node[]> containerReferences = new HashMap<Node,Node[]>();
+
+	/**
+	 * The accesses whose container references are being computed, used to detect cycles
+	 */
+	private HashSet<Node> visiting = new HashSet<Node>();
+
+	private Q instanceVariableAccessedEdges = Query.universe().edges(XCSG.InstanceVariableAccessed);
+	private Q interproceduralDataFlowEdges = Query.universe().edges(XCSG.InterproceduralDataFlow);
+
+	/**
+	 * Returns the references to each container of the given access, the
+	 * returned array is shared and must not be modified
+	 * @param access
+	 * @return
+	 */
+	public Node[] getContainerReferences(Node access){
+		Node[] result = index(access);
+		if(result == null){
+			// the accessed edges are not a forest, fall back to the transitive query
+			result = parseContainers(AnalysisUtilities.getAccessedContainers(access));
+			containerReferences.put(access, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of indexed accesses
+	 * @return
+	 */
+	public int size(){
+		return containerReferences.size();
+	}
+
+	/**
+	 * Indexes the container references of the given access and each access it was made through
+	 * @param access
+	 * @return Returns the container references or null if the access is part of a cycle
+	 */
+	private Node[] index(Node access){
+		Node[] result = containerReferences.get(access);
+		if(result != null){
+			return result;
+		}
+		if(!visiting.add(access)){
+			return null;
+		}
+		try {
+			LinkedHashSet<Node> references = new LinkedHashSet<Node>();
+			for(Node parent : instanceVariableAccessedEdges.predecessors(Common.toQ(access)).eval().nodes()){
+				Node[] parentReferences = index(parent);
+				if(parentReferences == null){
+					return null;
+				}
+				for(Node parentReference : parentReferences){
+					references.add(parentReference);
+				}
+			}
+			if(access.taggedWith(XCSG.InstanceVariableAccess) || access.taggedWith(JavaStopGap.CLASS_VARIABLE_ACCESS)){
+				// the field that was accessed
+				for(Node field : interproceduralDataFlowEdges.predecessors(Common.toQ(access)).eval().nodes()){
+					for(Node reference : AnalysisUtilities.parseReferences(field)){
+						references.add(reference);
+					}
+				}
+			} else {
+				// a local reference at the root of the access chain
+				for(Node reference : AnalysisUtilities.parseReferences(access)){
+					references.add(reference);
+				}
+			}
+			result = references.isEmpty() ? EMPTY : references.toArray(new Node[references.size()]);
+			containerReferences.put(access, result);
+			return result;
+		} finally {
+			visiting.remove(access);
+		}
+	}
+
+	private static Node[] parseContainers(Iterable<Node> containers){
+		LinkedHashSet<Node> references = new LinkedHashSet<Node>();
+		for(Node container : containers){
+			for(Node containerReference : AnalysisUtilities.parseReferences(container)){
+				references.add(containerReference);
+			}
+		}
+		return references.toArray(new Node[references.size()]);
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+
+/**
+ * A table assigning dense integer ids to the typed references (and methods) 
+ * that participate in the analysis. Lookups may be made concurrently, new ids
+ * are assigned under the table's lock.
+ * 
+ * Ids are found through a primitive open addressing hash table of ids (linear
+ * probing, at most half full) instead of a map of boxed ids, so each reference
+ * only costs its slot in the node array and two int slots.
+ */
+public class References {
+
+	/**
+	 * Indicates a reference is not present in the table
+	 */
+	public static final int NONE = -1;
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	/**
+	 * An empty slot, occupied slots hold the id of their reference plus one
+	 */
+	private static final int EMPTY = 0;
+	
+	private volatile Node[] nodes = new Node[INITIAL_CAPACITY];
+	private volatile int size = 0;
+	private volatile AtomicIntegerArray slots = new AtomicIntegerArray(INITIAL_CAPACITY * 2);
+	
+	/**
+	 * Returns the id of the given reference, assigning a new id if 
+	 * the reference has not been seen before
+	 * @param reference
+	 * @return
+	 */
+	public int getId(Node reference){
+		int id = findId(reference);
+		if(id == NONE){
+			synchronized(this){
+				id = findId(reference);
+				if(id == NONE){
+					id = size;
+					if(id == nodes.length){
+						nodes = Arrays.copyOf(nodes, nodes.length * 2);
+					}
+					nodes[id] = reference;
+					if(slots.length() < (id + 1) * 2){
+						rehash(slots.length() * 2);
+					}
+					// the id is only published after the reference is stored
+					insert(slots, reference, id);
+					size = id + 1;
+				}
+			}
+		}
+		return id;
+	}
+	
+	/**
+	 * Returns the id of the given reference or NONE if the reference 
+	 * has not been assigned an id
+	 * @param reference
+	 * @return
+	 */
+	public int findId(Node reference){
+		AtomicIntegerArray table = slots;
+		int mask = table.length() - 1;
+		int index = getIndex(reference, mask);
+		while(true){
+			int slot = table.get(index);
+			if(slot == EMPTY){
+				return NONE;
+			}
+			if(nodes[slot - 1].equals(reference)){
+				return slot - 1;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+	
+	private static int getIndex(Node reference, int mask){
+		int hash = reference.hashCode() * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+	
+	private static void insert(AtomicIntegerArray table, Node reference, int id){
+		int mask = table.length() - 1;
+		int index = getIndex(reference, mask);
+		while(table.get(index) != EMPTY){
+			index = (index + 1) & mask;
+		}
+		table.set(index, id + 1);
+	}
+	
+	/**
+	 * Rebuilds the hash table with the given capacity, concurrent lookups
+	 * continue to use the previous table until the new table is published
+	 * @param capacity
+	 */
+	private void rehash(int capacity){
+		AtomicIntegerArray table = new AtomicIntegerArray(capacity);
+		for(int id=0; id<size; id++){
+			insert(table, nodes[id], id);
+		}
+		slots = table;
+	}
+	
+	/**
+	 * Returns the reference with the given id
+	 * @param id
+	 * @return
+	 */
+	public Node getNode(int id){
+		return nodes[id];
+	}
+	
+	/**
+	 * Returns the number of references in the table
+	 * @return
+	 */
+	public int size(){
+		return size;
+	}
+	
+}
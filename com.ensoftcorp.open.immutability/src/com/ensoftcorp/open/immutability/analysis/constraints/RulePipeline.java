@@ -0,0 +1,307 @@
+package com.ensoftcorp.open.immutability.analysis.constraints;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.open.immutability.analysis.AnalysisConfiguration;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.QualifierStore;
+import com.ensoftcorp.open.immutability.analysis.checkers.BasicAssignmentChecker;
+import com.ensoftcorp.open.immutability.analysis.checkers.CallChecker;
+import com.ensoftcorp.open.immutability.analysis.checkers.FieldAssignmentChecker;
+import com.ensoftcorp.open.immutability.analysis.solvers.XGreaterThanEqualYConstraintSolver;
+
+/**
+ * The inference rules of a constraint system specialized to an analysis configuration.
+ *
+ * A handler is selected for each constraint kind when the pipeline is built, so the
+ * branches for disabled options (field adaptations, instance variable mutability modes,
+ * container propagation) are absent from the handlers applied to each constraint and
+ * each call site only ever sees a single handler implementation. When rule or debug
+ * logging is enabled the logging entry points of the checkers are used instead.
+ *
+ * Container constraints are applied until the mutation has been propagated to every
+ * container once, after which they are skipped for the rest of the fixed point.
+ */
+public class RulePipeline {
+
+	/**
+	 * Applies the inference rule of a constraint
+	 */
+	private static interface RuleHandler {
+		/**
+		 * @param constraint
+		 * @return Returns true if any type qualifier sets changed
+		 */
+		public boolean apply(int constraint);
+	}
+
+	private ConstraintSystem system;
+	private References references;
+	private QualifierStore store;
+	private RuleHandler[] handlers;
+
+	private static final byte READONLY = ImmutabilityTypes.READONLY.getMask();
+
+	/**
+	 * The container constraints whose mutations have been propagated to
+	 * every container, these constraints do not need to be applied again
+	 */
+	private boolean[] propagatedContainers;
+
+	public RulePipeline(ConstraintSystem system, AnalysisConfiguration configuration){
+		this.system = system;
+		this.references = system.getReferences();
+		this.store = system.getQualifierStore();
+		this.handlers = new RuleHandler[ConstraintSystem.REMOVE_POLYREAD + 1];
+		this.propagatedContainers = new boolean[system.size()];
+		if(configuration.isRuleLoggingEnabled()){
+			addLoggingHandlers(configuration);
+		} else {
+			addHandlers(configuration);
+		}
+		addCommonHandlers();
+	}
+
+	/**
+	 * Applies the inference rule of the given constraint, unsatisfied qualifier types
+	 * are removed or reduced (a new type may be added, but it will replace other types
+	 * reducing the total number of types) from the constraint's references
+	 *
+	 * @param constraint
+	 * @return Returns true if any type qualifier sets changed
+	 */
+	public boolean apply(int constraint){
+		RuleHandler handler = handlers[system.getKind(constraint)];
+		if(handler == null){
+			throw new RuntimeException("No inference rule for constraint: " + system.toString(constraint));
+		}
+		return handler.apply(constraint);
+	}
+
+	/**
+	 * Adds the handlers specialized to the configuration
+	 * @param configuration
+	 */
+	private void addHandlers(AnalysisConfiguration configuration){
+		final RuleHandler mutation;
+		if(configuration.isAllowAddMutableInstanceVariablesEnabled()){
+			mutation = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					int x = system.getX(constraint);
+					return FieldAssignmentChecker.handleAddMutableMutation(getNode(x), store.getKind(x));
+				}
+			};
+		} else if(configuration.isAllowDefaultMutableInstancesVariablesEnabled()){
+			mutation = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					return FieldAssignmentChecker.handleDefaultMutableMutation(getX(constraint));
+				}
+			};
+		} else {
+			mutation = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					int x = system.getX(constraint);
+					return FieldAssignmentChecker.handleVanillaMutation(getNode(x), store.getKind(x));
+				}
+			};
+		}
+		handlers[ConstraintSystem.MUTATION] = mutation;
+
+		if(configuration.isFieldAdaptationsEnabled()){
+			// FSE 2012 implementation
+			handlers[ConstraintSystem.TASSIGN] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					int y = system.getY(constraint);
+					return BasicAssignmentChecker.handleFieldAdaptedAssignment(getX(constraint), getNode(y), store.getKind(y));
+				}
+			};
+			handlers[ConstraintSystem.TWRITE] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					// x must be mutable
+					boolean typesChanged = mutation.apply(constraint);
+					if(FieldAssignmentChecker.handleFieldAdaptedWrite(getY(constraint), getZ(constraint))){
+						typesChanged = true;
+					}
+					return typesChanged;
+				}
+			};
+			handlers[ConstraintSystem.TREAD] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					return FieldAssignmentChecker.handleFieldAdaptedRead(getX(constraint), getY(constraint), getZ(constraint));
+				}
+			};
+		} else {
+			// vanilla OOPSLA 2012 implementation
+			handlers[ConstraintSystem.TASSIGN] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					return XGreaterThanEqualYConstraintSolver.satisify(getX(constraint), getY(constraint));
+				}
+			};
+			handlers[ConstraintSystem.TWRITE] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					// x must be mutable
+					Node x = getX(constraint);
+					boolean typesChanged = mutation.apply(constraint);
+					if(FieldAssignmentChecker.handleMethodAdaptedWrite(x, getY(constraint), getZ(constraint))){
+						typesChanged = true;
+					}
+					return typesChanged;
+				}
+			};
+			handlers[ConstraintSystem.TREAD] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					return FieldAssignmentChecker.handleMethodAdaptedRead(getX(constraint), getY(constraint), getZ(constraint));
+				}
+			};
+		}
+
+		if(configuration.isContainerConsiderationEnabled()){
+			// container constraints are only extracted when containers are considered
+			handlers[ConstraintSystem.CONTAINER] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					if(propagatedContainers[constraint]){
+						return false;
+					}
+					int x = system.getX(constraint);
+					if(x != References.NONE && (store.getMask(x) & READONLY) != 0){
+						return false;
+					}
+					boolean typesChanged = false;
+					int containerReferences = system.getOperandCount(constraint);
+					for(int i=0; i<containerReferences; i++){
+						int containerReference = system.getOperand(constraint, i);
+						// containers shared with other constraints may already be propagated
+						if((store.getMask(containerReference) & READONLY) != 0){
+							if(AnalysisUtilities.removeTypes(getNode(containerReference), READONLY)){
+								typesChanged = true;
+							}
+						}
+					}
+					// qualifier sets only lose readonly, so a propagated constraint stays satisfied
+					propagatedContainers[constraint] = true;
+					return typesChanged;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Adds the handlers of the checkers' logging entry points, the checkers
+	 * consult the preferences for the configuration options themselves
+	 * @param configuration
+	 */
+	private void addLoggingHandlers(AnalysisConfiguration configuration){
+		handlers[ConstraintSystem.TASSIGN] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return BasicAssignmentChecker.handleAssignment(getX(constraint), getY(constraint));
+			}
+		};
+		handlers[ConstraintSystem.TWRITE] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return FieldAssignmentChecker.handleFieldWrite(getX(constraint), getY(constraint), getZ(constraint));
+			}
+		};
+		handlers[ConstraintSystem.TREAD] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return FieldAssignmentChecker.handleFieldRead(getX(constraint), getY(constraint), getZ(constraint));
+			}
+		};
+		handlers[ConstraintSystem.MUTATION] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return FieldAssignmentChecker.handleMutation(getX(constraint));
+			}
+		};
+		if(configuration.isContainerConsiderationEnabled()){
+			// container constraints are only extracted when containers are considered
+			handlers[ConstraintSystem.CONTAINER] = new RuleHandler(){
+				@Override
+				public boolean apply(int constraint) {
+					Node[] containerReferences = new Node[system.getOperandCount(constraint)];
+					for(int i=0; i<containerReferences.length; i++){
+						containerReferences[i] = getNode(system.getOperand(constraint, i));
+					}
+					return FieldAssignmentChecker.handleContainerMutation(getX(constraint), getY(constraint), containerReferences);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Adds the handlers of the rules that do not depend on the configuration options
+	 */
+	private void addCommonHandlers(){
+		handlers[ConstraintSystem.TSREAD] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return FieldAssignmentChecker.handleStaticFieldRead(getX(constraint), getY(constraint), getZ(constraint));
+			}
+		};
+		handlers[ConstraintSystem.TSWRITE] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return FieldAssignmentChecker.handleStaticFieldWrite(getX(constraint), getY(constraint), getZ(constraint));
+			}
+		};
+		handlers[ConstraintSystem.TCALL] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return CallChecker.handleCall(getX(constraint), getY(constraint), getZ(constraint), system.getCallSite(constraint));
+			}
+		};
+		handlers[ConstraintSystem.TSCALL] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return CallChecker.handleStaticCall(getX(constraint), system.getCallSite(constraint));
+			}
+		};
+		handlers[ConstraintSystem.OVERRIDE] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return CallChecker.handleOverride(getX(constraint), getY(constraint));
+			}
+		};
+		handlers[ConstraintSystem.REMOVE_READONLY] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return AnalysisUtilities.removeTypes(getX(constraint), READONLY);
+			}
+		};
+		handlers[ConstraintSystem.REMOVE_POLYREAD] = new RuleHandler(){
+			@Override
+			public boolean apply(int constraint) {
+				return AnalysisUtilities.removeTypes(getX(constraint), ImmutabilityTypes.POLYREAD.getMask());
+			}
+		};
+	}
+
+	private Node getNode(int reference){
+		return reference == References.NONE ? null : references.getNode(reference);
+	}
+
+	private Node getX(int constraint){
+		return getNode(system.getX(constraint));
+	}
+
+	private Node getY(int constraint){
+		return getNode(system.getY(constraint));
+	}
+
+	private Node getZ(int constraint){
+		return getNode(system.getZ(constraint));
+	}
+
+}
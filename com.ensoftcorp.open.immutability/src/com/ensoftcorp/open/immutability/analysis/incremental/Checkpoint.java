@@ -0,0 +1,225 @@
+package com.ensoftcorp.open.immutability.analysis.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.QualifierStore;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSolver;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSystem;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+
+/**
+ * Periodically snapshots the qualifier sets and iteration counter of a running
+ * fixed point computation, so that a killed or cancelled run can be resumed.
+ *
+ * Qualifier sets only shrink while solving, so every snapshot is an upper bound
+ * of the fixed point. Resuming restores the snapshot and applies every constraint
+ * again, which reaches the same fixed point as an uninterrupted run.
+ *
+ * A checkpoint is only resumed if it was saved for the same analysis options, the
+ * same constraint system (see IncrementalAnalysis.getSystemFingerprint) and the
+ * same initial qualifier sets, otherwise the snapshot is not an upper bound of
+ * the new fixed point.
+ */
+public class Checkpoint implements ConstraintSolver.IterationListener {
+
+	private static final int FORMAT_VERSION = 3;
+
+	/**
+	 * Returned by restore if the checkpoint can not be resumed from
+	 */
+	public static final int NOT_RESUMED = -1;
+
+	/**
+	 * The minimum time in milliseconds between two snapshots
+	 */
+	private static final long CHECKPOINT_INTERVAL = 2 * 60 * 1000;
+
+	private ConstraintSystem system;
+	private QualifierStore store;
+	private IncrementalAnalysis incrementalAnalysis = null;
+	private long lastCheckpoint = System.currentTimeMillis();
+
+	public Checkpoint(ConstraintSystem system){
+		this.system = system;
+		this.store = AnalysisUtilities.getQualifierStore();
+	}
+
+	/**
+	 * Creates a checkpoint that shares the reference keys and constraint
+	 * fingerprints of the given incremental analysis
+	 * @param system
+	 * @param incrementalAnalysis
+	 */
+	public Checkpoint(ConstraintSystem system, IncrementalAnalysis incrementalAnalysis){
+		this(system);
+		this.incrementalAnalysis = incrementalAnalysis;
+	}
+
+	/**
+	 * Returns the file the checkpoint of the current project is saved to
+	 * @return
+	 */
+	public static File getCheckpointFile(){
+		File stateFile = IncrementalAnalysis.getStateFile();
+		return new File(stateFile.getParentFile(), stateFile.getName().replace(".state", ".checkpoint"));
+	}
+
+	/**
+	 * Returns true if there is a checkpoint of the current project to resume from
+	 * @return
+	 */
+	public static boolean exists(){
+		return getCheckpointFile().exists();
+	}
+
+	private IncrementalAnalysis getIncrementalAnalysis(){
+		if(incrementalAnalysis == null){
+			incrementalAnalysis = new IncrementalAnalysis(system);
+		}
+		return incrementalAnalysis;
+	}
+
+	@Override
+	public void iterationCompleted(int iterations){
+		long now = System.currentTimeMillis();
+		if(now - lastCheckpoint >= CHECKPOINT_INTERVAL){
+			save(iterations);
+			lastCheckpoint = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Saves a snapshot of the current qualifier sets, the previous snapshot is
+	 * only replaced once the new snapshot has been completely written
+	 * @param iterations The number of iterations completed so far
+	 */
+	public void save(int iterations){
+		IncrementalAnalysis incrementalAnalysis = getIncrementalAnalysis();
+		String[] keys = incrementalAnalysis.getKeys();
+		File checkpointFile = getCheckpointFile();
+		File partialFile = new File(checkpointFile.getParentFile(), checkpointFile.getName() + ".partial");
+		try {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(partialFile))));
+			try {
+				output.writeInt(FORMAT_VERSION);
+				output.writeUTF(IncrementalAnalysis.getConfiguration());
+				output.writeUTF(incrementalAnalysis.getSystemFingerprint());
+				output.writeInt(iterations);
+				int keyed = 0;
+				for(String key : keys){
+					if(key != null){
+						keyed++;
+					}
+				}
+				output.writeInt(keyed);
+				for(int reference=0; reference<keys.length; reference++){
+					if(keys[reference] != null){
+						output.writeUTF(keys[reference]);
+						output.writeByte(incrementalAnalysis.getInitialMask(reference));
+						output.writeByte(store.getMask(reference));
+					}
+				}
+			} finally {
+				output.close();
+			}
+			Files.move(partialFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Saved immutability analysis checkpoint at iteration " + iterations);
+		} catch (IOException e){
+			Log.warning("Could not save immutability analysis checkpoint.", e);
+		}
+	}
+
+	/**
+	 * Restores the qualifier sets of the checkpoint, references that were
+	 * not part of the checkpoint keep their default qualifier sets. A checkpoint
+	 * saved with different analysis options, for a different constraint system or
+	 * with different initial qualifier sets (for example because different library
+	 * or imported summaries were loaded) is not restored and the analysis must be
+	 * run in full.
+	 * @return Returns the number of iterations completed before the checkpoint or NOT_RESUMED
+	 */
+	public int restore(){
+		IncrementalAnalysis incrementalAnalysis = getIncrementalAnalysis();
+		String[] keys = incrementalAnalysis.getKeys();
+		HashMap<String,Integer> referenceIds = new HashMap<String,Integer>();
+		for(int reference=0; reference<keys.length; reference++){
+			if(keys[reference] != null){
+				referenceIds.put(keys[reference], reference);
+			}
+		}
+		File checkpointFile = getCheckpointFile();
+		try {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(checkpointFile))));
+			try {
+				int version = input.readInt();
+				if(version != FORMAT_VERSION){
+					Log.warning("Unsupported immutability analysis checkpoint version " + version + ", running full analysis.");
+					return NOT_RESUMED;
+				}
+				if(!IncrementalAnalysis.getConfiguration().equals(input.readUTF())){
+					Log.warning("Analysis options changed since the checkpoint was saved, running full analysis.");
+					return NOT_RESUMED;
+				}
+				if(!incrementalAnalysis.getSystemFingerprint().equals(input.readUTF())){
+					Log.warning("Constraints changed since the checkpoint was saved, running full analysis.");
+					return NOT_RESUMED;
+				}
+				int iterations = input.readInt();
+				int keyed = input.readInt();
+				int restored = 0;
+				int[] references = new int[keyed];
+				byte[] masks = new byte[keyed];
+				for(int i=0; i<keyed; i++){
+					String key = input.readUTF();
+					byte initialMask = input.readByte();
+					byte mask = input.readByte();
+					Integer reference = referenceIds.get(key);
+					if(reference != null){
+						if(incrementalAnalysis.getInitialMask(reference) != initialMask){
+							Log.warning("Initial qualifiers changed since the checkpoint was saved, running full analysis.");
+							return NOT_RESUMED;
+						}
+						references[restored] = reference;
+						masks[restored] = mask;
+						restored++;
+					}
+				}
+				// nothing is restored until every initial qualifier set is known to match
+				for(int i=0; i<restored; i++){
+					store.setMask(references[i], masks[i]);
+				}
+				if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Restored " + restored + " of " + keys.length + " qualifier sets from the checkpoint at iteration " + iterations);
+				return iterations;
+			} finally {
+				input.close();
+			}
+		} catch (IOException e){
+			throw new RuntimeException("Could not load immutability analysis checkpoint.", e);
+		}
+	}
+
+	/**
+	 * Deletes the checkpoint of the current project
+	 */
+	public static void delete(){
+		File checkpointFile = getCheckpointFile();
+		if(checkpointFile.exists() && !checkpointFile.delete()){
+			Log.warning("Could not delete immutability analysis checkpoint: " + checkpointFile.getAbsolutePath());
+		}
+	}
+
+}
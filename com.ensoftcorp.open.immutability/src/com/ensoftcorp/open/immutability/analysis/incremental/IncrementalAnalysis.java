@@ -0,0 +1,465 @@
+package com.ensoftcorp.open.immutability.analysis.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.Activator;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.QualifierStore;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSystem;
+import com.ensoftcorp.open.immutability.analysis.constraints.References;
+import com.ensoftcorp.open.immutability.log.Log;
+import com.ensoftcorp.open.immutability.preferences.ImmutabilityPreferences;
+
+/**
+ * Resumes the fixed point computation from the state persisted by a previous run.
+ *
+ * The constraints of each method are fingerprinted using stable reference keys
+ * (see ReferenceKeys). The references touched by the constraints of changed (or
+ * removed) methods, and every reference reachable from them through the constraint
+ * dependency graph, are reset to their default qualifiers. So are the references
+ * whose initial qualifiers changed (for example because different library or
+ * imported summaries were loaded) and every reference reachable from them. All
+ * other references are restored to their previous final qualifiers, which
+ * already satisfy the unchanged constraints between them, so only the constraints
+ * that touch a reset reference need to be applied to reach the fixed point.
+ */
+public class IncrementalAnalysis {
+
+	private static final String SEPARATOR = "\t";
+
+	private ConstraintSystem system;
+	private QualifierStore store;
+
+	/**
+	 * The stable key of each reference (by reference id), null if the reference can not be keyed
+	 */
+	private String[] keys;
+
+	/**
+	 * The stable key of the owner of each constraint, null if the constraint has no owner
+	 */
+	private String[] ownerKeys;
+
+	/**
+	 * The stable description of each constraint, null if a reference of the constraint can not be keyed
+	 */
+	private String[] descriptions;
+
+	/**
+	 * The qualifier set bit mask each keyed reference is initialized to
+	 */
+	private byte[] initialMasks;
+
+	private Map<String,String> fingerprints = new HashMap<String,String>();
+	private Map<String,Set<String>> touchedKeys = new HashMap<String,Set<String>>();
+	private Set<String> unstableMethods = new HashSet<String>();
+	private Set<String> globalConstraints = new HashSet<String>();
+
+	public IncrementalAnalysis(ConstraintSystem system){
+		this.system = system;
+		this.store = AnalysisUtilities.getQualifierStore();
+		computeKeys();
+		computeFingerprints();
+		computeInitialMasks();
+	}
+
+	/**
+	 * Returns the file the incremental state of the current project is persisted to
+	 * @return
+	 */
+	public static File getStateFile(){
+		String projectName = "workspace";
+		Node project = Query.universe().nodes(XCSG.Project).eval().nodes().one();
+		if(project != null){
+			projectName = project.getAttr(XCSG.name).toString();
+		}
+		return Activator.getDefault().getStateLocation().append(projectName + "-immutability.state").toFile();
+	}
+
+	/**
+	 * Describes the analysis options that change the extracted constraints or their solutions
+	 * @return
+	 */
+	static String getConfiguration(){
+		return AnalysisUtilities.getConfiguration().toString();
+	}
+
+	/**
+	 * Returns the stable key of each reference (by reference id), null if the reference can not be keyed
+	 * @return
+	 */
+	String[] getKeys(){
+		return keys;
+	}
+
+	/**
+	 * Returns the qualifier set bit mask the given keyed reference is initialized to
+	 * @param reference
+	 * @return
+	 */
+	byte getInitialMask(int reference){
+		return initialMasks[reference];
+	}
+
+	/**
+	 * Returns a fingerprint of the whole constraint system, combining the fingerprint
+	 * of each method with the constraints that do not belong to a method. Methods with
+	 * constraints over references that can not be keyed only contribute their key, so
+	 * the number of constraints and references is included as well.
+	 * @return
+	 */
+	String getSystemFingerprint(){
+		List<String> entries = new ArrayList<String>();
+		for(Map.Entry<String,String> entry : fingerprints.entrySet()){
+			entries.add("method" + SEPARATOR + entry.getKey() + SEPARATOR + entry.getValue());
+		}
+		for(String method : unstableMethods){
+			entries.add("unstable" + SEPARATOR + method);
+		}
+		for(String constraint : globalConstraints){
+			entries.add("global" + SEPARATOR + constraint);
+		}
+		entries.add("size" + SEPARATOR + system.size() + SEPARATOR + keys.length);
+		return fingerprint(entries);
+	}
+
+	private void computeKeys(){
+		ReferenceKeys referenceKeys = new ReferenceKeys();
+		keys = referenceKeys.getKeys(system.getReferences());
+
+		References owners = system.getOwners();
+		String[] ownerIdKeys = new String[owners.size()];
+		for(int owner=0; owner<ownerIdKeys.length; owner++){
+			ownerIdKeys[owner] = referenceKeys.getMethodKey(owners.getNode(owner));
+		}
+		ownerKeys = new String[system.size()];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			int owner = system.getOwner(constraint);
+			ownerKeys[constraint] = owner == References.NONE ? null : ownerIdKeys[owner];
+		}
+	}
+
+	private void computeFingerprints(){
+		descriptions = new String[system.size()];
+		Map<String,List<String>> methodDescriptions = new HashMap<String,List<String>>();
+		for(int constraint=0; constraint<system.size(); constraint++){
+			descriptions[constraint] = describe(constraint);
+			String ownerKey = ownerKeys[constraint];
+			if(system.getOwner(constraint) == References.NONE){
+				if(descriptions[constraint] != null){
+					globalConstraints.add(descriptions[constraint]);
+				}
+				continue;
+			}
+			if(ownerKey == null){
+				continue;
+			}
+			if(descriptions[constraint] == null){
+				unstableMethods.add(ownerKey);
+			}
+			List<String> constraints = methodDescriptions.get(ownerKey);
+			Set<String> touched = touchedKeys.get(ownerKey);
+			if(constraints == null){
+				constraints = new ArrayList<String>();
+				methodDescriptions.put(ownerKey, constraints);
+				touched = new HashSet<String>();
+				touchedKeys.put(ownerKey, touched);
+			}
+			constraints.add(descriptions[constraint]);
+			for(int reference : getAccessed(constraint)){
+				String key = keys[reference];
+				if(key != null && !key.startsWith(ownerKey + "/")){
+					touched.add(key);
+				}
+			}
+		}
+		for(Map.Entry<String,List<String>> entry : methodDescriptions.entrySet()){
+			if(!unstableMethods.contains(entry.getKey())){
+				fingerprints.put(entry.getKey(), fingerprint(entry.getValue()));
+			}
+		}
+	}
+
+	private void computeInitialMasks(){
+		References references = system.getReferences();
+		initialMasks = new byte[keys.length];
+		for(int reference=0; reference<keys.length; reference++){
+			if(keys[reference] != null){
+				initialMasks[reference] = AnalysisUtilities.getInitialTypesMask(references.getNode(reference));
+			}
+		}
+	}
+
+	/**
+	 * Returns a description of the constraint in terms of stable reference keys
+	 * @param constraint
+	 * @return
+	 */
+	private String describe(int constraint){
+		StringBuilder description = new StringBuilder();
+		description.append(system.getKind(constraint));
+		int[] references = new int[3 + system.getOperandCount(constraint)];
+		references[0] = system.getX(constraint);
+		references[1] = system.getY(constraint);
+		references[2] = system.getZ(constraint);
+		for(int i=0; i<system.getOperandCount(constraint); i++){
+			references[3 + i] = system.getOperand(constraint, i);
+		}
+		for(int reference : references){
+			description.append(SEPARATOR);
+			if(reference != References.NONE){
+				if(keys[reference] == null){
+					return null;
+				}
+				description.append(keys[reference]);
+			}
+		}
+		return description.toString();
+	}
+
+	private static String fingerprint(List<String> descriptions){
+		Collections.sort(descriptions);
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for(String description : descriptions){
+				digest.update(description.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			StringBuilder result = new StringBuilder();
+			for(byte b : digest.digest()){
+				result.append(String.format("%02x", b));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e){
+			throw new RuntimeException(e);
+		}
+	}
+
+	private int[] getAccessed(int constraint){
+		int[] reads = system.getReads(constraint);
+		int[] writes = system.getWrites(constraint);
+		int[] accessed = new int[reads.length + writes.length];
+		System.arraycopy(reads, 0, accessed, 0, reads.length);
+		System.arraycopy(writes, 0, accessed, reads.length, writes.length);
+		return accessed;
+	}
+
+	/**
+	 * Restores the qualifier sets of the references that are unaffected by the changes
+	 * since the previous run and returns the constraints that must be applied to reach
+	 * the fixed point
+	 * @return Returns the constraints to apply or null if the analysis must be run in full
+	 */
+	public BitSet restore(){
+		if(AnalysisUtilities.getConfiguration().isAllowAddMutableInstanceVariablesEnabled()){
+			// adding types breaks the assumption that restored qualifiers are an upper bound
+			Log.warning("Incremental analysis is not supported when mutable types may be added to instance variables, running full analysis.");
+			return null;
+		}
+
+		File stateFile = getStateFile();
+		if(!stateFile.exists()){
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("No previous incremental analysis state, running full analysis.");
+			return null;
+		}
+		IncrementalState previous;
+		try {
+			previous = IncrementalState.load(stateFile);
+		} catch (IOException e){
+			Log.warning("Could not load incremental analysis state, running full analysis.", e);
+			return null;
+		}
+		if(!getConfiguration().equals(previous.configuration)){
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Analysis options changed since the previous run, running full analysis.");
+			return null;
+		}
+
+		HashMap<String,Integer> referenceIds = new HashMap<String,Integer>();
+		for(int reference=0; reference<keys.length; reference++){
+			if(keys[reference] != null){
+				referenceIds.put(keys[reference], reference);
+			}
+		}
+
+		// find the changed and removed methods
+		Set<String> changedMethods = new HashSet<String>();
+		for(String method : touchedKeys.keySet()){
+			String fingerprint = fingerprints.get(method);
+			if(fingerprint == null || !fingerprint.equals(previous.fingerprints.get(method))){
+				changedMethods.add(method);
+			}
+		}
+		for(String method : previous.fingerprints.keySet()){
+			if(!touchedKeys.containsKey(method)){
+				changedMethods.add(method);
+			}
+		}
+
+		BitSet dirty = new BitSet(keys.length);
+
+		// references without a previous qualifier set or with a different initial qualifier set
+		int reinitialized = 0;
+		for(int reference=0; reference<keys.length; reference++){
+			if(keys[reference] == null || !previous.masks.containsKey(keys[reference])){
+				dirty.set(reference);
+				continue;
+			}
+			Byte previousInitialMask = previous.initialMasks.get(keys[reference]);
+			if(previousInitialMask == null || previousInitialMask != initialMasks[reference]){
+				dirty.set(reference);
+				reinitialized++;
+			}
+		}
+
+		// references of new or changed constraints
+		for(int constraint=0; constraint<system.size(); constraint++){
+			boolean changed;
+			if(system.getOwner(constraint) == References.NONE){
+				changed = descriptions[constraint] == null || !previous.globalConstraints.contains(descriptions[constraint]);
+			} else {
+				changed = ownerKeys[constraint] == null || changedMethods.contains(ownerKeys[constraint]);
+			}
+			if(changed){
+				for(int reference : getAccessed(constraint)){
+					dirty.set(reference);
+				}
+			}
+		}
+
+		// references previously touched by changed methods or removed constraints
+		for(String method : changedMethods){
+			Set<String> touched = previous.touchedKeys.get(method);
+			if(touched != null){
+				setDirty(dirty, referenceIds, touched);
+			}
+		}
+		for(String constraint : previous.globalConstraints){
+			if(!globalConstraints.contains(constraint)){
+				String[] constraintKeys = constraint.split(SEPARATOR, -1);
+				setDirty(dirty, referenceIds, java.util.Arrays.asList(constraintKeys).subList(1, constraintKeys.length));
+			}
+		}
+
+		propagateDirty(dirty);
+
+		// restore the unaffected references
+		for(int reference=0; reference<keys.length; reference++){
+			if(!dirty.get(reference)){
+				store.setMask(reference, previous.masks.get(keys[reference]));
+			}
+		}
+
+		BitSet constraints = new BitSet(system.size());
+		for(int constraint=0; constraint<system.size(); constraint++){
+			for(int reference : getAccessed(constraint)){
+				if(dirty.get(reference)){
+					constraints.set(constraint);
+					break;
+				}
+			}
+		}
+
+		if(ImmutabilityPreferences.isGeneralLoggingEnabled()){
+			Log.info("Incremental analysis: " + changedMethods.size() + " changed methods, "
+					+ reinitialized + " references with changed initial qualifiers, "
+					+ dirty.cardinality() + "/" + keys.length + " references reset, "
+					+ constraints.cardinality() + "/" + system.size() + " constraints to apply");
+		}
+		return constraints;
+	}
+
+	private static void setDirty(BitSet dirty, Map<String,Integer> referenceIds, Iterable<String> keys){
+		for(String key : keys){
+			Integer reference = referenceIds.get(key);
+			if(reference != null){
+				dirty.set(reference);
+			}
+		}
+	}
+
+	/**
+	 * Marks every reference reachable from a dirty reference through the
+	 * constraints that read it as dirty
+	 * @param dirty
+	 */
+	private void propagateDirty(BitSet dirty){
+		// index the constraints that read each reference
+		int[] readerOffsets = new int[keys.length + 1];
+		int[][] reads = new int[system.size()][];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			reads[constraint] = system.getReads(constraint);
+			for(int reference : reads[constraint]){
+				readerOffsets[reference + 1]++;
+			}
+		}
+		for(int reference=0; reference<keys.length; reference++){
+			readerOffsets[reference + 1] += readerOffsets[reference];
+		}
+		int[] readers = new int[readerOffsets[keys.length]];
+		int[] next = new int[keys.length];
+		for(int constraint=0; constraint<system.size(); constraint++){
+			for(int reference : reads[constraint]){
+				readers[readerOffsets[reference] + next[reference]++] = constraint;
+			}
+		}
+
+		int[] worklist = new int[keys.length];
+		int worklistSize = 0;
+		for(int reference = dirty.nextSetBit(0); reference >= 0; reference = dirty.nextSetBit(reference + 1)){
+			worklist[worklistSize++] = reference;
+		}
+		while(worklistSize > 0){
+			int reference = worklist[--worklistSize];
+			for(int i=readerOffsets[reference]; i<readerOffsets[reference + 1]; i++){
+				for(int written : system.getWrites(readers[i])){
+					if(!dirty.get(written)){
+						dirty.set(written);
+						worklist[worklistSize++] = written;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Persists the initial and current qualifier sets and constraint fingerprints for the next run
+	 */
+	public void save(){
+		IncrementalState state = new IncrementalState();
+		state.configuration = getConfiguration();
+		for(int reference=0; reference<keys.length; reference++){
+			if(keys[reference] != null){
+				state.masks.put(keys[reference], store.getMask(reference));
+				state.initialMasks.put(keys[reference], initialMasks[reference]);
+			}
+		}
+		state.fingerprints.putAll(fingerprints);
+		for(String method : fingerprints.keySet()){
+			state.touchedKeys.put(method, touchedKeys.get(method));
+		}
+		state.globalConstraints.addAll(globalConstraints);
+		File stateFile = getStateFile();
+		try {
+			state.save(stateFile);
+			if(ImmutabilityPreferences.isGeneralLoggingEnabled()) Log.info("Saved incremental analysis state: " + stateFile.getAbsolutePath());
+		} catch (IOException e){
+			Log.warning("Could not save incremental analysis state.", e);
+		}
+	}
+
+}
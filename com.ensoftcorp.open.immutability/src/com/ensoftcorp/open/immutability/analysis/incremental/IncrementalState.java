@@ -0,0 +1,122 @@
+package com.ensoftcorp.open.immutability.analysis.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The persisted result of an analysis run that a later incremental run resumes
+ * from: the initial and final qualifier set of each keyed reference, the constraint fingerprint
+ * of each method, the keys of the references outside of each method that the
+ * method's constraints touch and the constraints that do not belong to a method.
+ */
+public class IncrementalState {
+
+	private static final int FORMAT_VERSION = 2;
+
+	/**
+	 * Describes the analysis options the state was computed with,
+	 * a state computed with different options can not be resumed from
+	 */
+	String configuration;
+
+	Map<String,Byte> masks = new HashMap<String,Byte>();
+
+	/**
+	 * The qualifier set each keyed reference was initialized to (its default types
+	 * restricted by the library or imported summaries loaded at the time)
+	 */
+	Map<String,Byte> initialMasks = new HashMap<String,Byte>();
+	Map<String,String> fingerprints = new HashMap<String,String>();
+	Map<String,Set<String>> touchedKeys = new HashMap<String,Set<String>>();
+	Set<String> globalConstraints = new HashSet<String>();
+
+	/**
+	 * Loads a state from the given file
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static IncrementalState load(File file) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+		try {
+			int version = input.readInt();
+			if(version != FORMAT_VERSION){
+				throw new IOException("Unsupported incremental state version: " + version);
+			}
+			IncrementalState state = new IncrementalState();
+			state.configuration = input.readUTF();
+			int masks = input.readInt();
+			for(int i=0; i<masks; i++){
+				String key = input.readUTF();
+				state.initialMasks.put(key, input.readByte());
+				state.masks.put(key, input.readByte());
+			}
+			int methods = input.readInt();
+			for(int i=0; i<methods; i++){
+				String methodKey = input.readUTF();
+				state.fingerprints.put(methodKey, input.readUTF());
+				int touched = input.readInt();
+				Set<String> keys = new HashSet<String>();
+				for(int j=0; j<touched; j++){
+					keys.add(input.readUTF());
+				}
+				state.touchedKeys.put(methodKey, keys);
+			}
+			int globalConstraints = input.readInt();
+			for(int i=0; i<globalConstraints; i++){
+				state.globalConstraints.add(input.readUTF());
+			}
+			return state;
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Saves this state to the given file
+	 * @param file
+	 * @throws IOException
+	 */
+	public void save(File file) throws IOException {
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+		try {
+			output.writeInt(FORMAT_VERSION);
+			output.writeUTF(configuration);
+			output.writeInt(masks.size());
+			for(Map.Entry<String,Byte> entry : masks.entrySet()){
+				output.writeUTF(entry.getKey());
+				output.writeByte(initialMasks.get(entry.getKey()));
+				output.writeByte(entry.getValue());
+			}
+			output.writeInt(fingerprints.size());
+			for(Map.Entry<String,String> entry : fingerprints.entrySet()){
+				output.writeUTF(entry.getKey());
+				output.writeUTF(entry.getValue());
+				Set<String> keys = touchedKeys.get(entry.getKey());
+				output.writeInt(keys.size());
+				for(String key : keys){
+					output.writeUTF(key);
+				}
+			}
+			output.writeInt(globalConstraints.size());
+			for(String constraint : globalConstraints){
+				output.writeUTF(constraint);
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+}
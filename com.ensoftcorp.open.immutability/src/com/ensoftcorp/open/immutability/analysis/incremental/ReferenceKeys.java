@@ -0,0 +1,126 @@
+package com.ensoftcorp.open.immutability.analysis.incremental;
+
+import java.util.HashMap;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.index.common.SourceCorrespondence;
+import com.ensoftcorp.atlas.core.script.Common;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.commons.analysis.CommonQueries;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.constraints.References;
+import com.ensoftcorp.open.java.commons.wishful.JavaStopGap;
+
+/**
+ * Computes keys for references that are stable across re-indexes of the same
+ * program, since graph element addresses are not. Fields and methods are keyed
+ * by their package, class and name (or signature) similar to the summary files,
+ * identities, parameters and return values are keyed by their role in the method
+ * and the remaining references are keyed by their name and source offset relative
+ * to the containing method.
+ *
+ * References that cannot be keyed (for example references without a containing
+ * method) have a null key and are always reanalyzed.
+ */
+public class ReferenceKeys {
+
+	private HashMap<Node,String> methodKeys = new HashMap<Node,String>();
+
+	/**
+	 * Returns the stable key of each reference in the given table (by reference id),
+	 * references whose keys collide are ambiguous and have a null key
+	 * @param references
+	 * @return
+	 */
+	public String[] getKeys(References references){
+		String[] keys = new String[references.size()];
+		HashMap<String,Integer> keyed = new HashMap<String,Integer>();
+		for(int reference=0; reference<keys.length; reference++){
+			String key = getKey(references.getNode(reference));
+			if(key == null){
+				continue;
+			}
+			Integer collision = keyed.get(key);
+			if(collision == null){
+				keyed.put(key, reference);
+				keys[reference] = key;
+			} else {
+				// ambiguous keys can not be restored
+				keys[collision] = null;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Returns the stable key of the given reference or null
+	 * @param reference
+	 * @return
+	 */
+	public String getKey(Node reference){
+		if(reference.taggedWith(XCSG.Method)){
+			return getMethodKey(reference);
+		}
+		if(reference.taggedWith(XCSG.Field)){
+			String classKey = getClassKey(reference);
+			return classKey == null ? null : (classKey + "." + reference.getAttr(XCSG.name));
+		}
+		if(reference.taggedWith(AnalysisUtilities.DUMMY_ASSIGNMENT_NODE)){
+			// dummy assignments stand in for the result of an unassigned callsite
+			Node callsite = AnalysisUtilities.getDummyReferences().getAssignedCallsite(reference);
+			String callsiteKey = callsite == null ? null : getKey(callsite);
+			return callsiteKey == null ? null : (callsiteKey + "/dummy");
+		}
+		Node method = CommonQueries.getContainingFunction(reference);
+		String methodKey = method == null ? null : getMethodKey(method);
+		if(methodKey == null){
+			return null;
+		}
+		if(reference.taggedWith(XCSG.Identity)){
+			return methodKey + "/this";
+		}
+		if(reference.taggedWith(XCSG.Parameter)){
+			return methodKey + "/p" + reference.getAttr(XCSG.parameterIndex);
+		}
+		if(reference.taggedWith(XCSG.ReturnValue)){
+			return methodKey + "/return";
+		}
+		String key = methodKey + "/" + reference.getAttr(XCSG.name);
+		Object referenceSource = reference.getAttr(XCSG.sourceCorrespondence);
+		Object methodSource = method.getAttr(XCSG.sourceCorrespondence);
+		if(referenceSource instanceof SourceCorrespondence && methodSource instanceof SourceCorrespondence){
+			// relative offsets are unaffected by edits to other methods in the same file
+			key += "@" + (((SourceCorrespondence) referenceSource).offset - ((SourceCorrespondence) methodSource).offset);
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the stable key of the given method or null
+	 * @param method
+	 * @return
+	 */
+	public String getMethodKey(Node method){
+		if(methodKeys.containsKey(method)){
+			return methodKeys.get(method);
+		}
+		String key = null;
+		String classKey = getClassKey(method);
+		Object signature = method.getAttr(JavaStopGap.SIGNATURE);
+		if(classKey != null && signature != null){
+			key = classKey + "#" + signature;
+		}
+		methodKeys.put(method, key);
+		return key;
+	}
+
+	private String getClassKey(Node member){
+		Node parentClass = Common.toQ(member).parent().eval().nodes().one();
+		Node pkg = Common.toQ(member).containers().nodes(XCSG.Package).eval().nodes().one();
+		if(parentClass == null || pkg == null){
+			return null;
+		}
+		return pkg.getAttr(XCSG.name) + "/" + parentClass.getAttr(XCSG.name);
+	}
+
+}
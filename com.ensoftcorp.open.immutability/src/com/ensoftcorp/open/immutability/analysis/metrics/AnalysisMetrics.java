@@ -0,0 +1,325 @@
+package com.ensoftcorp.open.immutability.analysis.metrics;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A low overhead registry of the invocations, elapsed time and qualifier removals
+ * of each inference rule, constraint solver and analysis operation.
+ *
+ * Counters are LongAdders so parallel solver workers do not contend on them. Qualifier
+ * removals are attributed to the rule and solver that are active on the current thread.
+ * Elapsed times of nested measurements overlap (for example a rule's time includes the
+ * time of the solvers it invokes and constraint extraction includes reference parsing).
+ *
+ * The analysis phases are always measured. Rules, solvers, reference parsing and
+ * qualifier removals are measured on the hot path of the analysis, so they are only
+ * recorded when detailed metrics are enabled (see AnalysisConfiguration).
+ */
+public class AnalysisMetrics {
+
+	/**
+	 * Helper for formatting decimal strings
+	 */
+	private static final DecimalFormat FORMAT = new DecimalFormat("#.##");
+
+	/**
+	 * The inference rules, declared in the order of the ConstraintSystem
+	 * constraint kinds so that a rule can be looked up by its kind
+	 */
+	public static enum Rule {
+		TASSIGN, TWRITE, TREAD, TSREAD, TSWRITE, TCALL, TSCALL, OVERRIDE, CONTAINER, MUTATION, REMOVE_READONLY, REMOVE_POLYREAD;
+
+		private static final Rule[] KINDS = values();
+
+		/**
+		 * Returns the rule of the given constraint kind
+		 * @param kind
+		 * @return
+		 */
+		public static Rule forKind(byte kind){
+			return KINDS[kind];
+		}
+	}
+
+	/**
+	 * The constraint solvers
+	 */
+	public static enum Solver {
+		X_EQUALS_Y("XEqualsYConstraintSolver"),
+		X_GREATER_THAN_EQUAL_Y("XGreaterThanEqualYConstraintSolver"),
+		X_FIELD_ADAPT_Y_GREATER_THAN_EQUAL_Z("XFieldAdaptYGreaterThanEqualZConstraintSolver"),
+		X_GREATER_THAN_EQUAL_Y_FIELD_ADAPT_Z("XGreaterThanEqualYFieldAdaptZConstraintSolver"),
+		X_GREATER_THAN_EQUAL_Y_METHOD_ADAPT_Z("XGreaterThanEqualYMethodAdaptZConstraintSolver"),
+		X_METHOD_ADAPT_Y_GREATER_THAN_EQUAL_Z("XMethodAdaptYGreaterThanEqualZConstraintSolver");
+
+		private String name;
+
+		private Solver(String name){
+			this.name = name;
+		}
+
+		@Override
+		public String toString(){
+			return name;
+		}
+	}
+
+	/**
+	 * The phases of the analysis and other operations of interest
+	 */
+	public static enum Operation {
+		ADD_DUMMY_ASSIGNMENTS, PARSE_REFERENCES, EXTRACT_CONSTRAINTS, SOLVE_CONSTRAINTS,
+		CONVERT_TYPES_TO_TAGS, EXTRACT_MAXIMAL_TYPES, TAG_PURE_METHODS, SANITY_CHECKS
+	}
+
+	/**
+	 * The counters of a rule, solver or operation
+	 */
+	public static class Metric {
+		private LongAdder invocations = new LongAdder();
+		private LongAdder elapsed = new LongAdder();
+		private LongAdder removals = new LongAdder();
+
+		private void record(long start){
+			invocations.increment();
+			elapsed.add(System.nanoTime() - start);
+		}
+
+		/**
+		 * Returns the number of times the rule, solver or operation was invoked
+		 * @return
+		 */
+		public long getInvocations(){
+			return invocations.sum();
+		}
+
+		/**
+		 * Returns the total time in nanoseconds spent in the rule, solver or operation
+		 * @return
+		 */
+		public long getElapsedNanoseconds(){
+			return elapsed.sum();
+		}
+
+		/**
+		 * Returns the number of types removed from qualifier sets by the rule or solver
+		 * @return
+		 */
+		public long getRemovals(){
+			return removals.sum();
+		}
+
+		private void reset(){
+			invocations.reset();
+			elapsed.reset();
+			removals.reset();
+		}
+	}
+
+	/**
+	 * The rule and solver active on a thread
+	 */
+	private static class Scope {
+		Rule rule;
+		Solver solver;
+	}
+
+	private static final Metric[] rules = createMetrics(Rule.values().length);
+	private static final Metric[] solvers = createMetrics(Solver.values().length);
+	private static final Metric[] operations = createMetrics(Operation.values().length);
+	private static final LongAdder removals = new LongAdder();
+
+	/**
+	 * True if the rules, solvers, reference parsing and removals are measured,
+	 * set before the analysis starts so it is read without synchronization
+	 */
+	private static boolean detailed = false;
+
+	private static final ThreadLocal<Scope> scopes = new ThreadLocal<Scope>(){
+		@Override
+		protected Scope initialValue() {
+			return new Scope();
+		}
+	};
+
+	private static Metric[] createMetrics(int size){
+		Metric[] metrics = new Metric[size];
+		for(int i=0; i<size; i++){
+			metrics[i] = new Metric();
+		}
+		return metrics;
+	}
+
+	/**
+	 * Enables or disables the detailed metrics
+	 * @param enabled
+	 */
+	public static void setDetailed(boolean enabled){
+		detailed = enabled;
+	}
+
+	/**
+	 * Returns true if rules, solvers, reference parsing and removals are measured,
+	 * callers check this once before measuring a rule or solver
+	 * @return
+	 */
+	public static boolean isDetailed(){
+		return detailed;
+	}
+
+	/**
+	 * Returns the start time of a measurement
+	 * @return
+	 */
+	public static long start(){
+		return System.nanoTime();
+	}
+
+	/**
+	 * Starts measuring the given rule on the current thread
+	 * @param rule
+	 * @return Returns the start time of the measurement
+	 */
+	public static long enter(Rule rule){
+		scopes.get().rule = rule;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Stops measuring the given rule on the current thread
+	 * @param rule
+	 * @param start
+	 */
+	public static void exit(Rule rule, long start){
+		rules[rule.ordinal()].record(start);
+		scopes.get().rule = null;
+	}
+
+	/**
+	 * Starts measuring the given solver on the current thread
+	 * @param solver
+	 * @return Returns the start time of the measurement
+	 */
+	public static long enter(Solver solver){
+		scopes.get().solver = solver;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Stops measuring the given solver on the current thread
+	 * @param solver
+	 * @param start
+	 */
+	public static void exit(Solver solver, long start){
+		solvers[solver.ordinal()].record(start);
+		scopes.get().solver = null;
+	}
+
+	/**
+	 * Records an invocation of the given operation that started at the given time
+	 * @param operation
+	 * @param start
+	 */
+	public static void record(Operation operation, long start){
+		operations[operation.ordinal()].record(start);
+	}
+
+	/**
+	 * Records types removed from a qualifier set by the rule and solver active on the current thread
+	 * @param count
+	 */
+	public static void recordRemovals(int count){
+		removals.add(count);
+		Scope scope = scopes.get();
+		if(scope.rule != null){
+			rules[scope.rule.ordinal()].removals.add(count);
+		}
+		if(scope.solver != null){
+			solvers[scope.solver.ordinal()].removals.add(count);
+		}
+	}
+
+	/**
+	 * Returns the rule active on the current thread or null if no rule is active
+	 * @return
+	 */
+	public static Rule getActiveRule(){
+		return scopes.get().rule;
+	}
+
+	/**
+	 * Returns the metrics of the given rule
+	 * @param rule
+	 * @return
+	 */
+	public static Metric getMetric(Rule rule){
+		return rules[rule.ordinal()];
+	}
+
+	/**
+	 * Returns the metrics of the given solver
+	 * @param solver
+	 * @return
+	 */
+	public static Metric getMetric(Solver solver){
+		return solvers[solver.ordinal()];
+	}
+
+	/**
+	 * Returns the metrics of the given operation
+	 * @param operation
+	 * @return
+	 */
+	public static Metric getMetric(Operation operation){
+		return operations[operation.ordinal()];
+	}
+
+	/**
+	 * Returns the total number of types removed from qualifier sets
+	 * @return
+	 */
+	public static long getRemovals(){
+		return removals.sum();
+	}
+
+	/**
+	 * Resets all metrics
+	 */
+	public static void reset(){
+		for(Metric[] metrics : new Metric[][]{ rules, solvers, operations }){
+			for(Metric metric : metrics){
+				metric.reset();
+			}
+		}
+		removals.reset();
+	}
+
+	/**
+	 * Returns a human readable report of the rules, solvers and operations that were invoked
+	 * @return
+	 */
+	public static String getReport(){
+		StringBuilder report = new StringBuilder("Immutability analysis metrics (" + getRemovals() + " types removed)");
+		appendReport(report, "Rule", Rule.values(), rules);
+		appendReport(report, "Solver", Solver.values(), solvers);
+		appendReport(report, "Operation", Operation.values(), operations);
+		if(!detailed){
+			report.append("\nRules and solvers are only measured when detailed metrics are enabled");
+		}
+		return report.toString();
+	}
+
+	private static void appendReport(StringBuilder report, String category, Enum<?>[] keys, Metric[] metrics){
+		for(int i=0; i<keys.length; i++){
+			Metric metric = metrics[i];
+			long invocations = metric.getInvocations();
+			if(invocations > 0){
+				report.append("\n" + category + " " + keys[i].toString() + ": " + invocations + " invocations, "
+						+ FORMAT.format(metric.getElapsedNanoseconds()/1000.0/1000.0) + " ms, "
+						+ metric.getRemovals() + " removals");
+			}
+		}
+	}
+
+}
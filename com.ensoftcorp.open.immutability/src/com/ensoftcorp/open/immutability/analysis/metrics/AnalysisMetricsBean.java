@@ -0,0 +1,116 @@
+package com.ensoftcorp.open.immutability.analysis.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Metric;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Operation;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Rule;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Solver;
+import com.ensoftcorp.open.immutability.log.Log;
+
+/**
+ * The platform MBean server registration of the AnalysisMetrics
+ */
+public class AnalysisMetricsBean implements AnalysisMetricsMXBean {
+
+	public static final String OBJECT_NAME = "com.ensoftcorp.open.immutability:type=AnalysisMetrics";
+
+	private static interface MetricValue {
+		public long getValue(Metric metric);
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server
+	 */
+	public static void register(){
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(!server.isRegistered(name)){
+				server.registerMBean(new AnalysisMetricsBean(), name);
+			}
+		} catch (Exception e){
+			Log.warning("Could not register immutability analysis metrics MBean.", e);
+		}
+	}
+
+	/**
+	 * Unregisters the metrics from the platform MBean server
+	 */
+	public static void unregister(){
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(server.isRegistered(name)){
+				server.unregisterMBean(name);
+			}
+		} catch (Exception e){
+			Log.warning("Could not unregister immutability analysis metrics MBean.", e);
+		}
+	}
+
+	private static Map<String,Long> getValues(MetricValue value){
+		Map<String,Long> values = new LinkedHashMap<String,Long>();
+		for(Rule rule : Rule.values()){
+			values.put("Rule " + rule.toString(), value.getValue(AnalysisMetrics.getMetric(rule)));
+		}
+		for(Solver solver : Solver.values()){
+			values.put("Solver " + solver.toString(), value.getValue(AnalysisMetrics.getMetric(solver)));
+		}
+		for(Operation operation : Operation.values()){
+			values.put("Operation " + operation.toString(), value.getValue(AnalysisMetrics.getMetric(operation)));
+		}
+		return values;
+	}
+
+	@Override
+	public Map<String,Long> getInvocations() {
+		return getValues(new MetricValue(){
+			@Override
+			public long getValue(Metric metric) {
+				return metric.getInvocations();
+			}
+		});
+	}
+
+	@Override
+	public Map<String,Long> getElapsedNanoseconds() {
+		return getValues(new MetricValue(){
+			@Override
+			public long getValue(Metric metric) {
+				return metric.getElapsedNanoseconds();
+			}
+		});
+	}
+
+	@Override
+	public Map<String,Long> getRemovals() {
+		return getValues(new MetricValue(){
+			@Override
+			public long getValue(Metric metric) {
+				return metric.getRemovals();
+			}
+		});
+	}
+
+	@Override
+	public String getReport() {
+		return AnalysisMetrics.getReport();
+	}
+
+	@Override
+	public String getTypeTrace(int limit) {
+		return TypeTrace.render(limit);
+	}
+
+	@Override
+	public void reset() {
+		AnalysisMetrics.reset();
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.ensoftcorp.open.immutability.analysis.metrics;
+
+import java.util.Map;
+
+/**
+ * Exposes the AnalysisMetrics over JMX, metrics are keyed by category
+ * and name (for example "Rule TCALL" or "Operation SOLVE_CONSTRAINTS")
+ */
+public interface AnalysisMetricsMXBean {
+
+	/**
+	 * Returns the number of invocations of each rule, solver and operation
+	 * @return
+	 */
+	public Map<String,Long> getInvocations();
+
+	/**
+	 * Returns the elapsed nanoseconds of each rule, solver and operation
+	 * @return
+	 */
+	public Map<String,Long> getElapsedNanoseconds();
+
+	/**
+	 * Returns the qualifier removals of each rule and solver
+	 * @return
+	 */
+	public Map<String,Long> getRemovals();
+
+	/**
+	 * Returns a human readable report of the metrics
+	 * @return
+	 */
+	public String getReport();
+
+	/**
+	 * Returns the most recent qualifier set changes recorded by the type trace
+	 * @param limit The maximum number of changes to return
+	 * @return
+	 */
+	public String getTypeTrace(int limit);
+
+	/**
+	 * Resets all metrics
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,249 @@
+package com.ensoftcorp.open.immutability.analysis.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Rule;
+
+/**
+ * A bounded trace of the most recent qualifier set changes.
+ *
+ * Each change is packed into a single long (reference id, rule, qualifier set bit masks
+ * before and after the change) and stored with its node in a ring buffer, so recording
+ * an event allocates nothing. Events are only rendered as strings when the trace is read.
+ * When the trace is disabled the buffer is released and recording is a single volatile read.
+ */
+public class TypeTrace {
+
+	/**
+	 * The default number of events retained by the trace
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	// event layout: [add:1][rule+1:8][after:8][before:8][id:32]
+	private static final int BEFORE_SHIFT = 32;
+	private static final int AFTER_SHIFT = 40;
+	private static final int RULE_SHIFT = 48;
+	private static final long ADD_FLAG = 1L << 56;
+	private static final long BYTE_MASK = 0xFFL;
+	private static final Rule[] RULES = Rule.values();
+
+	/**
+	 * The ring buffer of an enabled trace
+	 */
+	private static class Buffer {
+		private final AtomicLongArray events;
+		private final AtomicReferenceArray<Node> nodes;
+		private final AtomicLong cursor = new AtomicLong();
+		private final int mask;
+
+		private Buffer(int capacity){
+			events = new AtomicLongArray(capacity);
+			nodes = new AtomicReferenceArray<Node>(capacity);
+			mask = capacity - 1;
+		}
+	}
+
+	private static volatile Buffer buffer = null;
+
+	/**
+	 * A recorded qualifier set change
+	 */
+	public static class Event {
+		private long sequence;
+		private long event;
+		private Node node;
+
+		private Event(long sequence, long event, Node node){
+			this.sequence = sequence;
+			this.event = event;
+			this.node = node;
+		}
+
+		/**
+		 * Returns the position of the event in the trace (starting at 0)
+		 * @return
+		 */
+		public long getSequence(){
+			return sequence;
+		}
+
+		/**
+		 * Returns the changed reference
+		 * @return
+		 */
+		public Node getNode(){
+			return node;
+		}
+
+		/**
+		 * Returns the qualifier store id of the changed reference
+		 * @return
+		 */
+		public int getId(){
+			return (int) event;
+		}
+
+		/**
+		 * Returns true if types were added, false if types were removed
+		 * @return
+		 */
+		public boolean isAddition(){
+			return (event & ADD_FLAG) != 0;
+		}
+
+		/**
+		 * Returns the rule that changed the qualifier set or null if no rule was active
+		 * @return
+		 */
+		public Rule getRule(){
+			int rule = (int) ((event >>> RULE_SHIFT) & BYTE_MASK);
+			return rule == 0 ? null : RULES[rule - 1];
+		}
+
+		/**
+		 * Returns the qualifier set bit mask before the change
+		 * @return
+		 */
+		public byte getBefore(){
+			return (byte) ((event >>> BEFORE_SHIFT) & BYTE_MASK);
+		}
+
+		/**
+		 * Returns the qualifier set bit mask after the change
+		 * @return
+		 */
+		public byte getAfter(){
+			return (byte) ((event >>> AFTER_SHIFT) & BYTE_MASK);
+		}
+
+		@Override
+		public String toString(){
+			Rule rule = getRule();
+			return "#" + sequence + " " + (rule != null ? rule.toString() : "NONE") + " " + (isAddition() ? "Add" : "Remove") + ": "
+					+ ImmutabilityTypes.fromMask(getBefore()).toString() + " -> " + ImmutabilityTypes.fromMask(getAfter()).toString()
+					+ " for " + node.getAttr(XCSG.name) + " (" + node.address().toAddressString() + ")";
+		}
+	}
+
+	/**
+	 * Enables the trace, discarding any previously recorded events
+	 * @param capacity The number of events to retain (rounded up to a power of two)
+	 */
+	public static void enable(int capacity){
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		buffer = new Buffer(size);
+	}
+
+	/**
+	 * Disables the trace and discards any recorded events
+	 */
+	public static void disable(){
+		buffer = null;
+	}
+
+	/**
+	 * Returns true if the trace is recording events
+	 * @return
+	 */
+	public static boolean isEnabled(){
+		return buffer != null;
+	}
+
+	/**
+	 * Records the removal of types from the qualifier set of a reference
+	 * @param node
+	 * @param id
+	 * @param before
+	 * @param after
+	 */
+	public static void recordRemove(Node node, int id, byte before, byte after){
+		Buffer trace = buffer;
+		if(trace != null){
+			record(trace, node, encode(id, before, after));
+		}
+	}
+
+	/**
+	 * Records the addition of types to the qualifier set of a reference
+	 * @param node
+	 * @param id
+	 * @param before
+	 * @param after
+	 */
+	public static void recordAdd(Node node, int id, byte before, byte after){
+		Buffer trace = buffer;
+		if(trace != null){
+			record(trace, node, encode(id, before, after) | ADD_FLAG);
+		}
+	}
+
+	private static long encode(int id, byte before, byte after){
+		Rule rule = AnalysisMetrics.getActiveRule();
+		long ruleValue = rule == null ? 0 : rule.ordinal() + 1;
+		return (id & 0xFFFFFFFFL)
+				| ((before & BYTE_MASK) << BEFORE_SHIFT)
+				| ((after & BYTE_MASK) << AFTER_SHIFT)
+				| (ruleValue << RULE_SHIFT);
+	}
+
+	private static void record(Buffer trace, Node node, long event){
+		int slot = (int) (trace.cursor.getAndIncrement() & trace.mask);
+		trace.nodes.lazySet(slot, node);
+		trace.events.lazySet(slot, event);
+	}
+
+	/**
+	 * Returns the total number of events recorded since the trace was enabled
+	 * (including events that have been overwritten)
+	 * @return
+	 */
+	public static long getRecordedEvents(){
+		Buffer trace = buffer;
+		return trace == null ? 0 : trace.cursor.get();
+	}
+
+	/**
+	 * Returns the retained events, oldest first
+	 *
+	 * Note: events recorded concurrently with this call may be partially observed
+	 * @return
+	 */
+	public static List<Event> getEvents(){
+		List<Event> result = new ArrayList<Event>();
+		Buffer trace = buffer;
+		if(trace != null){
+			long end = trace.cursor.get();
+			long start = Math.max(0, end - trace.events.length());
+			for(long sequence=start; sequence<end; sequence++){
+				int slot = (int) (sequence & trace.mask);
+				Node node = trace.nodes.get(slot);
+				if(node != null){
+					result.add(new Event(sequence, trace.events.get(slot), node));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Renders the most recent retained events, oldest first
+	 * @param limit The maximum number of events to render
+	 * @return
+	 */
+	public static String render(int limit){
+		List<Event> events = getEvents();
+		StringBuilder result = new StringBuilder("Immutability type trace (" + getRecordedEvents() + " events recorded)");
+		for(int i=Math.max(0, events.size() - limit); i<events.size(); i++){
+			result.append("\n" + events.get(i).toString());
+		}
+		return result.toString();
+	}
+
+}
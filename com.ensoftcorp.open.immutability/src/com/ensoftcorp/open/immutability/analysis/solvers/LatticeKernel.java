@@ -0,0 +1,73 @@
+package com.ensoftcorp.open.immutability.analysis.solvers;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+
+/**
+ * The shared kernel of the table driven constraint solvers
+ * 
+ * Each non-empty qualifier set is encoded as a 3-bit mask 1-7 (see ImmutabilityTypes.getMask()),
+ * so the qualifier sets of the 2 or 3 references in a constraint select one of 7*7=49 or 7*7*7=343
+ * cases. For each case the solvers store the mask of the types that must be removed from each
+ * reference in a precomputed table (the tables are emitted by the generators in the codegen package).
+ */
+public class LatticeKernel {
+
+	/**
+	 * The number of non-empty qualifier sets (3 choose 3 + 3 choose 2 + 3 choose 1)
+	 */
+	public static final int SETS = 7;
+	
+	/**
+	 * Returns the table index of a 2 reference constraint case
+	 * @param xTypes
+	 * @param yTypes
+	 * @return
+	 */
+	public static int getCase(byte xTypes, byte yTypes){
+		return ((xTypes-1) * SETS) + (yTypes-1);
+	}
+	
+	/**
+	 * Returns the table index of a 3 reference constraint case
+	 * @param xTypes
+	 * @param yTypes
+	 * @param zTypes
+	 * @return
+	 */
+	public static int getCase(byte xTypes, byte yTypes, byte zTypes){
+		return ((((xTypes-1) * SETS) + (yTypes-1)) * SETS) + (zTypes-1);
+	}
+	
+	/**
+	 * Removes the given types from x and y
+	 * @param x
+	 * @param xRemovals
+	 * @param y
+	 * @param yRemovals
+	 * @return Returns true if any type qualifier sets changed
+	 */
+	public static boolean removeTypes(Node x, byte xRemovals, Node y, byte yRemovals){
+		boolean xTypesChanged = AnalysisUtilities.removeTypes(x, xRemovals);
+		boolean yTypesChanged = AnalysisUtilities.removeTypes(y, yRemovals);
+		return xTypesChanged || yTypesChanged;
+	}
+	
+	/**
+	 * Removes the given types from x, y, and z
+	 * @param x
+	 * @param xRemovals
+	 * @param y
+	 * @param yRemovals
+	 * @param z
+	 * @param zRemovals
+	 * @return Returns true if any type qualifier sets changed
+	 */
+	public static boolean removeTypes(Node x, byte xRemovals, Node y, byte yRemovals, Node z, byte zRemovals){
+		boolean xTypesChanged = AnalysisUtilities.removeTypes(x, xRemovals);
+		boolean yTypesChanged = AnalysisUtilities.removeTypes(y, yRemovals);
+		boolean zTypesChanged = AnalysisUtilities.removeTypes(z, zRemovals);
+		return xTypesChanged || yTypesChanged || zTypesChanged;
+	}
+	
+}
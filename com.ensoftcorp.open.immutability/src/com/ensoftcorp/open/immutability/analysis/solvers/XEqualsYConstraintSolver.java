@@ -1,30 +1,47 @@
 package com.ensoftcorp.open.immutability.analysis.solvers;
 
-import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypes;
+import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.getTypesMask;
 import static com.ensoftcorp.open.immutability.analysis.AnalysisUtilities.removeTypes;
 
-import java.util.Set;
-
 import com.ensoftcorp.atlas.core.db.graph.Node;
 import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics;
+import com.ensoftcorp.open.immutability.analysis.metrics.AnalysisMetrics.Solver;
 import com.ensoftcorp.open.immutability.log.Log;
 
 public class XEqualsYConstraintSolver {
 
+	// the types to remove from x to satisfy x equals each type
+	private static final byte MUTABLE_REMOVALS = ImmutabilityTypes.toMask(ImmutabilityTypes.READONLY, ImmutabilityTypes.POLYREAD);
+	private static final byte POLYREAD_REMOVALS = ImmutabilityTypes.toMask(ImmutabilityTypes.READONLY, ImmutabilityTypes.MUTABLE);
+	private static final byte READONLY_REMOVALS = ImmutabilityTypes.toMask(ImmutabilityTypes.POLYREAD, ImmutabilityTypes.MUTABLE);
+
 	public static boolean satisfy(Node x, ImmutabilityTypes y){
-		Set<ImmutabilityTypes> xTypes = getTypes(x);
-		if (xTypes.isEmpty()) {
+		byte xTypes = getTypesMask(x);
+		if (xTypes == 0) {
 			Log.warning("x [" + x.address().toAddressString() + "] is untyped, constraint 'qx equals Y' cannot be satisfied", new IllegalArgumentException());
 			return false;
 		}
 		
+		if(!AnalysisMetrics.isDetailed()){
+			return solve(x, y);
+		}
+		long start = AnalysisMetrics.enter(Solver.X_EQUALS_Y);
+		try {
+			return solve(x, y);
+		} finally {
+			AnalysisMetrics.exit(Solver.X_EQUALS_Y, start);
+		}
+	}
+	
+	private static boolean solve(Node x, ImmutabilityTypes y){
 		switch(y){
 			case MUTABLE:
-				return removeTypes(x, ImmutabilityTypes.READONLY, ImmutabilityTypes.POLYREAD);
+				return removeTypes(x, MUTABLE_REMOVALS);
 			case POLYREAD:
-				return removeTypes(x, ImmutabilityTypes.READONLY, ImmutabilityTypes.MUTABLE);
+				return removeTypes(x, POLYREAD_REMOVALS);
 			case READONLY:
-				return removeTypes(x, ImmutabilityTypes.POLYREAD, ImmutabilityTypes.MUTABLE);
+				return removeTypes(x, READONLY_REMOVALS);
 			default:
 				throw new IllegalArgumentException("Unexpected immutability type!");
 		}
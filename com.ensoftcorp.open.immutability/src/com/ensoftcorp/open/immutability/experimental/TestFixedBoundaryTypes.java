@@ -0,0 +1,103 @@
+package com.ensoftcorp.open.immutability.experimental;
+
+import java.util.Iterator;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.AnalysisConfiguration;
+import com.ensoftcorp.open.immutability.analysis.AnalysisUtilities;
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.ImportedSummaries;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSolver;
+import com.ensoftcorp.open.immutability.analysis.constraints.ConstraintSystem;
+
+/**
+ * Solves constraints that conflict with a trusted (fixed) boundary type.
+ *
+ * Run from an Atlas shell on any codemap with at least two instance variables. The
+ * first instance variable is fixed to readonly by a trusted summary and mutated by
+ * a MUTATION constraint that can never be satisfied, the second is assigned from the
+ * first. The solver must terminate without changing the fixed reference (a fixed
+ * reference that reported changes would re-enqueue its constraints forever) and the
+ * assigned reference must still be narrowed to readonly.
+ */
+public class TestFixedBoundaryTypes {
+
+	/**
+	 * The solver should reach the fixed point in a few iterations,
+	 * more iterations mean the fixed reference keeps reporting changes
+	 */
+	private static final int MAX_ITERATIONS = 16;
+
+	private static final byte READONLY = ImmutabilityTypes.READONLY.getMask();
+
+	/**
+	 * Runs the test
+	 * @return Returns true if the solver terminated and the fixed reference did not change
+	 */
+	public static boolean run(){
+		Iterator<Node> instanceVariables = Query.universe().nodes(XCSG.InstanceVariable).eval().nodes().iterator();
+		if(!instanceVariables.hasNext()){
+			System.out.println("The codemap needs at least two instance variables");
+			return false;
+		}
+		Node fixed = instanceVariables.next();
+		if(!instanceVariables.hasNext()){
+			System.out.println("The codemap needs at least two instance variables");
+			return false;
+		}
+		Node assigned = instanceVariables.next();
+
+		ImportedSummaries summaries = new ImportedSummaries();
+		summaries.put(fixed, READONLY);
+		summaries.setTrusted(true);
+		AnalysisUtilities.setImportedSummaries(summaries);
+		AnalysisUtilities.resetQualifierStore();
+		try {
+			ConstraintSystem system = new ConstraintSystem(AnalysisUtilities.getQualifierStore());
+			// the fixed reference must be mutable, which conflicts with its readonly summary
+			system.add(ConstraintSystem.MUTATION, fixed, null, null);
+			// assigned :> fixed
+			system.add(ConstraintSystem.TASSIGN, assigned, fixed, null);
+
+			ConstraintSolver solver = new ConstraintSolver(system, AnalysisConfiguration.fromPreferences());
+			solver.setIterationListener(new ConstraintSolver.IterationListener(){
+				@Override
+				public void iterationCompleted(int iterations) {
+					if(iterations > MAX_ITERATIONS){
+						throw new RuntimeException("The solver did not terminate after " + MAX_ITERATIONS + " iterations");
+					}
+				}
+			});
+			int iterations = solver.solve();
+
+			boolean passed = true;
+			if(!AnalysisUtilities.getQualifierStore().isFixed(AnalysisUtilities.getQualifierStore().getId(fixed))){
+				System.out.println("The summarized reference is not fixed");
+				passed = false;
+			}
+			if(AnalysisUtilities.getTypesMask(fixed) != READONLY){
+				System.out.println("The fixed reference changed to " + AnalysisUtilities.getTypes(fixed));
+				passed = false;
+			}
+			if(AnalysisUtilities.removeTypes(fixed, READONLY)){
+				System.out.println("Removing types from the fixed reference reported a change");
+				passed = false;
+			}
+			if(AnalysisUtilities.getTypesMask(assigned) != READONLY){
+				System.out.println("The assigned reference was not narrowed to readonly: " + AnalysisUtilities.getTypes(assigned));
+				passed = false;
+			}
+			System.out.println("Solved in " + iterations + " iterations, " + (passed ? "passed" : "failed"));
+			return passed;
+		} catch (RuntimeException e){
+			System.out.println(e.getMessage());
+			return false;
+		} finally {
+			AnalysisUtilities.setImportedSummaries(null);
+			AnalysisUtilities.resetQualifierStore();
+		}
+	}
+
+}
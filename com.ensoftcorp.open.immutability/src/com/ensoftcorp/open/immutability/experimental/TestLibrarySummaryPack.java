@@ -0,0 +1,96 @@
+package com.ensoftcorp.open.immutability.experimental;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.ensoftcorp.atlas.core.db.graph.Node;
+import com.ensoftcorp.atlas.core.db.set.AtlasSet;
+import com.ensoftcorp.atlas.core.query.Query;
+import com.ensoftcorp.atlas.core.xcsg.XCSG;
+import com.ensoftcorp.open.immutability.analysis.ImmutabilityTypes;
+import com.ensoftcorp.open.immutability.analysis.LibrarySummaries;
+import com.ensoftcorp.open.immutability.analysis.SummaryIndex;
+import com.ensoftcorp.open.immutability.analysis.SummaryRecords;
+import com.ensoftcorp.open.immutability.analysis.SummaryUtilities;
+
+/**
+ * Round trips the summaries of the current codemap through a library summary pack.
+ *
+ * Run from an Atlas shell after the analysis has tagged the codemap with summaries
+ * (GENERATE_SUMMARIES), the pack is exported to the given directory and loaded back
+ * through LibrarySummaries. Every summarized library field, method, identity, return
+ * value and parameter must be initialized to its summary and every other reference
+ * must keep its default types.
+ */
+public class TestLibrarySummaryPack {
+
+	private static final byte ALL_TYPES = ImmutabilityTypes.toMask(ImmutabilityTypes.values());
+
+	/**
+	 * Exports the summary pack to the given directory and checks that it is loaded back
+	 * @param directory
+	 * @return Returns true if every summary was loaded back
+	 * @throws IOException
+	 */
+	public static boolean run(File directory) throws IOException {
+		SummaryUtilities.exportSummaryPack(directory);
+		SummaryRecords records = SummaryRecords.compute();
+		SummaryIndex index = new SummaryIndex();
+		LibrarySummaries summaries = new LibrarySummaries(directory);
+		AtlasSet<Node> libraryNodes = Query.universe().nodes(XCSG.Library).contained().eval().nodes();
+
+		int failures = 0;
+		int checked = 0;
+		for(SummaryRecords.Record field : records.getFields()){
+			boolean library = libraryNodes.contains(field.getNode());
+			if(!check(summaries, field.getNode(), field.getQualifiers(), library)){
+				failures++;
+			}
+			checked++;
+		}
+		for(SummaryRecords.Record method : records.getMethods()){
+			Node node = method.getNode();
+			boolean library = libraryNodes.contains(node);
+			boolean summarized = summaries.isSummarized(node);
+			if(summarized != library){
+				System.out.println("Method " + node.address().toAddressString() + " summarized: " + summarized + ", expected: " + library);
+				failures++;
+			}
+			if(!check(summaries, node, method.getQualifiers(), library)){
+				failures++;
+			}
+			if(method.getIdentityQualifiers() != null && !check(summaries, index.getIdentity(node), method.getIdentityQualifiers(), library)){
+				failures++;
+			}
+			if(method.getReturnQualifiers() != null && !check(summaries, index.getReturnValue(node), method.getReturnQualifiers(), library)){
+				failures++;
+			}
+			Integer[] parameterQualifiers = method.getParameterQualifiers();
+			for(int i=0; i<parameterQualifiers.length; i++){
+				if(parameterQualifiers[i] != null && !check(summaries, index.getParameter(node, i), parameterQualifiers[i], library)){
+					failures++;
+				}
+			}
+			checked++;
+		}
+
+		System.out.println("Checked " + checked + " summaries (" + summaries.getLoadedShardCount() + " shards loaded), " + failures + " failures");
+		return failures == 0;
+	}
+
+	private static boolean check(LibrarySummaries summaries, Node reference, int qualifiers, boolean library){
+		if(reference == null){
+			System.out.println("Missing summarized reference");
+			return false;
+		}
+		byte summaryMask = SummaryRecords.getMask(qualifiers);
+		byte expected = (library && summaryMask != 0) ? summaryMask : ALL_TYPES;
+		byte mask = summaries.getInitialMask(reference, ALL_TYPES);
+		if(mask != expected){
+			System.out.println(reference.address().toAddressString() + ": " + ImmutabilityTypes.fromMask(mask) + ", expected: " + ImmutabilityTypes.fromMask(expected));
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -209,6 +209,81 @@ public class ImmutabilityPreferences extends AbstractPreferenceInitializer {
 		return loadSummariesValue;
 	}
 	
+	/**
+	 * Enable/disable trusting imported summaries
+	 * If enabled imported summaries are fixed boundary types and the bodies
+	 * of fully summarized methods are not analyzed
+	 */
+	public static final String TRUSTED_SUMMARIES = "TRUSTED_SUMMARIES";
+	public static final Boolean TRUSTED_SUMMARIES_DEFAULT = false;
+	private static boolean trustedSummariesValue = TRUSTED_SUMMARIES_DEFAULT;
+	
+	/**
+	 * Configures trusting imported summaries
+	 */
+	public static void enableTrustedSummaries(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(TRUSTED_SUMMARIES, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isTrustedSummariesEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return trustedSummariesValue;
+	}
+	
+	/**
+	 * Enable/disable loading library summaries from the summary pack
+	 * If enabled the summaries of library methods and fields are loaded as they are 
+	 * encountered and the bodies of summarized library methods are not analyzed
+	 */
+	public static final String LIBRARY_SUMMARIES = "LIBRARY_SUMMARIES";
+	public static final Boolean LIBRARY_SUMMARIES_DEFAULT = false;
+	private static boolean librarySummariesValue = LIBRARY_SUMMARIES_DEFAULT;
+	
+	/**
+	 * Configures loading library summaries
+	 */
+	public static void enableLibrarySummaries(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(LIBRARY_SUMMARIES, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isLibrarySummariesEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return librarySummariesValue;
+	}
+	
+	/**
+	 * Enable/disable writing the library summary pack
+	 * If enabled the generated summaries of each package are written to the 
+	 * summary pack that library summaries are loaded from
+	 */
+	public static final String EXPORT_SUMMARY_PACK = "EXPORT_SUMMARY_PACK";
+	public static final Boolean EXPORT_SUMMARY_PACK_DEFAULT = false;
+	private static boolean exportSummaryPackValue = EXPORT_SUMMARY_PACK_DEFAULT;
+	
+	/**
+	 * Configures writing the library summary pack
+	 */
+	public static void enableExportSummaryPack(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(EXPORT_SUMMARY_PACK, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isExportSummaryPackEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return exportSummaryPackValue;
+	}
+	
 	/**
 	 * Enable/disable whether instance variables may be set to mutable
 	 */
@@ -324,6 +399,121 @@ public class ImmutabilityPreferences extends AbstractPreferenceInitializer {
 		return inferenceRuleLoggingValue;
 	}
 	
+	/**
+	 * Enables/disables solving the inference constraints in parallel
+	 */
+	public static final String PARALLEL_CONSTRAINT_SOLVING = "PARALLEL_CONSTRAINT_SOLVING";
+	public static final Boolean PARALLEL_CONSTRAINT_SOLVING_DEFAULT = false;
+	private static boolean parallelConstraintSolvingValue = PARALLEL_CONSTRAINT_SOLVING_DEFAULT;
+	
+	/**
+	 * Configures parallel constraint solving
+	 */
+	public static void enableParallelConstraintSolving(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(PARALLEL_CONSTRAINT_SOLVING, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isParallelConstraintSolvingEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return parallelConstraintSolvingValue;
+	}
+	
+	/**
+	 * Enables/disables resuming the analysis from the state of the previous run
+	 */
+	public static final String INCREMENTAL_ANALYSIS = "INCREMENTAL_ANALYSIS";
+	public static final Boolean INCREMENTAL_ANALYSIS_DEFAULT = false;
+	private static boolean incrementalAnalysisValue = INCREMENTAL_ANALYSIS_DEFAULT;
+	
+	/**
+	 * Configures incremental analysis
+	 */
+	public static void enableIncrementalAnalysis(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(INCREMENTAL_ANALYSIS, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isIncrementalAnalysisEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return incrementalAnalysisValue;
+	}
+	
+	/**
+	 * Enables/disables periodically checkpointing the fixed point analysis
+	 */
+	public static final String CHECKPOINT_ANALYSIS = "CHECKPOINT_ANALYSIS";
+	public static final Boolean CHECKPOINT_ANALYSIS_DEFAULT = false;
+	private static boolean checkpointAnalysisValue = CHECKPOINT_ANALYSIS_DEFAULT;
+	
+	/**
+	 * Configures analysis checkpoints
+	 */
+	public static void enableCheckpointAnalysis(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(CHECKPOINT_ANALYSIS, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isCheckpointAnalysisEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return checkpointAnalysisValue;
+	}
+	
+	/**
+	 * Enables/disables recording qualifier set changes to a bounded trace
+	 */
+	public static final String TRACE_TYPE_CHANGES = "TRACE_TYPE_CHANGES";
+	public static final Boolean TRACE_TYPE_CHANGES_DEFAULT = false;
+	private static boolean traceTypeChangesValue = TRACE_TYPE_CHANGES_DEFAULT;
+	
+	/**
+	 * Configures the type change trace
+	 */
+	public static void enableTraceTypeChanges(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(TRACE_TYPE_CHANGES, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isTraceTypeChangesEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return traceTypeChangesValue;
+	}
+	
+	/**
+	 * Enables/disables recording per rule and per solver metrics
+	 */
+	public static final String DETAILED_METRICS = "DETAILED_METRICS";
+	public static final Boolean DETAILED_METRICS_DEFAULT = false;
+	private static boolean detailedMetricsValue = DETAILED_METRICS_DEFAULT;
+	
+	/**
+	 * Configures the per rule and per solver metrics
+	 */
+	public static void enableDetailedMetrics(boolean enabled){
+		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		preferences.setValue(DETAILED_METRICS, enabled);
+		loadPreferences();
+	}
+	
+	public static boolean isDetailedMetricsEnabled(){
+		if(!initialized){
+			loadPreferences();
+		}
+		return detailedMetricsValue;
+	}
+	
 	@Override
 	public void initializeDefaultPreferences() {
 		IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
@@ -335,10 +525,18 @@ public class ImmutabilityPreferences extends AbstractPreferenceInitializer {
 		preferences.setDefault(ALLOW_DEFAULT_MUTABLE_INSTANCE_VARIABLES, ALLOW_DEFAULT_MUTABLE_INSTANCE_VARIABLES_DEFAULT);
 		preferences.setDefault(GENERATE_SUMMARIES, GENERATE_SUMMARIES_DEFAULT);
 		preferences.setDefault(LOAD_SUMMARIES, LOAD_SUMMARIES_DEFAULT);
+		preferences.setDefault(TRUSTED_SUMMARIES, TRUSTED_SUMMARIES_DEFAULT);
+		preferences.setDefault(LIBRARY_SUMMARIES, LIBRARY_SUMMARIES_DEFAULT);
+		preferences.setDefault(EXPORT_SUMMARY_PACK, EXPORT_SUMMARY_PACK_DEFAULT);
 		preferences.setDefault(ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES, ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES_DEFAULT);
 		preferences.setDefault(CONSIDER_CONTAINERS, CONSIDER_CONTAINERS_DEFAULT);
 		preferences.setDefault(USE_FIELD_ADAPTATIONS, USE_FIELD_ADAPTATIONS_DEFAULT);
 		preferences.setDefault(INFERENCE_RULE_LOGGING, INFERENCE_RULE_LOGGING_DEFAULT);
+		preferences.setDefault(PARALLEL_CONSTRAINT_SOLVING, PARALLEL_CONSTRAINT_SOLVING_DEFAULT);
+		preferences.setDefault(INCREMENTAL_ANALYSIS, INCREMENTAL_ANALYSIS_DEFAULT);
+		preferences.setDefault(CHECKPOINT_ANALYSIS, CHECKPOINT_ANALYSIS_DEFAULT);
+		preferences.setDefault(TRACE_TYPE_CHANGES, TRACE_TYPE_CHANGES_DEFAULT);
+		preferences.setDefault(DETAILED_METRICS, DETAILED_METRICS_DEFAULT);
 	}
 	
 	/**
@@ -354,10 +552,18 @@ public class ImmutabilityPreferences extends AbstractPreferenceInitializer {
 		preferences.setValue(ALLOW_DEFAULT_MUTABLE_INSTANCE_VARIABLES, ALLOW_DEFAULT_MUTABLE_INSTANCE_VARIABLES_DEFAULT);
 		preferences.setValue(GENERATE_SUMMARIES, GENERATE_SUMMARIES_DEFAULT);
 		preferences.setValue(LOAD_SUMMARIES, LOAD_SUMMARIES_DEFAULT);
+		preferences.setValue(TRUSTED_SUMMARIES, TRUSTED_SUMMARIES_DEFAULT);
+		preferences.setValue(LIBRARY_SUMMARIES, LIBRARY_SUMMARIES_DEFAULT);
+		preferences.setValue(EXPORT_SUMMARY_PACK, EXPORT_SUMMARY_PACK_DEFAULT);
 		preferences.setValue(ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES, ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES_DEFAULT);
 		preferences.setValue(CONSIDER_CONTAINERS, CONSIDER_CONTAINERS_DEFAULT);
 		preferences.setValue(USE_FIELD_ADAPTATIONS, USE_FIELD_ADAPTATIONS_DEFAULT);
 		preferences.setValue(INFERENCE_RULE_LOGGING, INFERENCE_RULE_LOGGING_DEFAULT);
+		preferences.setValue(PARALLEL_CONSTRAINT_SOLVING, PARALLEL_CONSTRAINT_SOLVING_DEFAULT);
+		preferences.setValue(INCREMENTAL_ANALYSIS, INCREMENTAL_ANALYSIS_DEFAULT);
+		preferences.setValue(CHECKPOINT_ANALYSIS, CHECKPOINT_ANALYSIS_DEFAULT);
+		preferences.setValue(TRACE_TYPE_CHANGES, TRACE_TYPE_CHANGES_DEFAULT);
+		preferences.setValue(DETAILED_METRICS, DETAILED_METRICS_DEFAULT);
 		loadPreferences();
 	}
 	
@@ -375,10 +581,18 @@ public class ImmutabilityPreferences extends AbstractPreferenceInitializer {
 			allowDefaultMutableInstancesVariablesValue = preferences.getBoolean(ALLOW_DEFAULT_MUTABLE_INSTANCE_VARIABLES);
 			generateSummariesValue = preferences.getBoolean(GENERATE_SUMMARIES);
 			loadSummariesValue = preferences.getBoolean(LOAD_SUMMARIES);
+			trustedSummariesValue = preferences.getBoolean(TRUSTED_SUMMARIES);
+			librarySummariesValue = preferences.getBoolean(LIBRARY_SUMMARIES);
+			exportSummaryPackValue = preferences.getBoolean(EXPORT_SUMMARY_PACK);
 			allowAddMutableInstanceVariablesValue = preferences.getBoolean(ALLOW_ADD_MUTABLE_INSTANCE_VARIABLES);
 			considerContainersValue = preferences.getBoolean(CONSIDER_CONTAINERS);
 			inferenceRuleLoggingValue = preferences.getBoolean(INFERENCE_RULE_LOGGING);
 			useFieldAdaptationsValue = preferences.getBoolean(USE_FIELD_ADAPTATIONS);
+			parallelConstraintSolvingValue = preferences.getBoolean(PARALLEL_CONSTRAINT_SOLVING);
+			incrementalAnalysisValue = preferences.getBoolean(INCREMENTAL_ANALYSIS);
+			checkpointAnalysisValue = preferences.getBoolean(CHECKPOINT_ANALYSIS);
+			traceTypeChangesValue = preferences.getBoolean(TRACE_TYPE_CHANGES);
+			detailedMetricsValue = preferences.getBoolean(DETAILED_METRICS);
 		} catch (Exception e){
 			Log.warning("Error accessing immutability analysis preferences, using defaults...", e);
 		}